@@ -0,0 +1,66 @@
+package com.springboot.app;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class EjecutoresConfig {
+
+  /*
+   * Pool acotado para las consultas del dashboard en modo paralelo. Cada hilo
+   * ocupa una conexion del pool de base de datos, por eso su tamaño debe
+   * quedar por debajo del maximo de conexiones.
+   */
+  @Bean(destroyMethod = "shutdown")
+  ExecutorService dashboardExecutor(
+      @Value("${app.dashboard.poolSize:8}") int poolSize,
+      @Value("${app.dashboard.queueSize:100}") int queueSize
+  ) {
+    return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueSize), hilos("dashboard-"), new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /*
+   * Pool que vacia los buffers de los suscriptores SSE. Publicar un evento
+   * solo encola; el envio por la red ocurre aqui para no frenar al request
+   * que confirmo el cambio.
+   */
+  @Bean(destroyMethod = "shutdown")
+  ExecutorService sseExecutor(
+      @Value("${app.sse.poolSize:4}") int poolSize,
+      @Value("${app.sse.queueSize:1000}") int queueSize
+  ) {
+    return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueSize), hilos("sse-"), new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /*
+   * Pool de los borrados de proyectos grandes. Cada proceso recorre las tareas
+   * por lotes con su propia transaccion, asi que basta con pocos hilos.
+   */
+  @Bean(destroyMethod = "shutdown")
+  ExecutorService borradoExecutor(
+      @Value("${app.proyectos.borradoPoolSize:2}") int poolSize,
+      @Value("${app.proyectos.borradoQueueSize:50}") int queueSize
+  ) {
+    return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(queueSize), hilos("borrado-"), new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  private static ThreadFactory hilos(String prefijo) {
+    AtomicInteger contador = new AtomicInteger();
+    return tarea -> {
+      Thread hilo = new Thread(tarea, prefijo + contador.incrementAndGet());
+      hilo.setDaemon(true);
+      return hilo;
+    };
+  }
+}
@@ -1,8 +1,12 @@
 package com.springboot.app;
 
 import java.io.IOException;
+import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -10,6 +14,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.springboot.app.models.services.UsuarioDetailsService;
+import com.springboot.app.utils.CustomUserDetails;
+import com.springboot.app.utils.JwtClaims;
+import com.springboot.app.utils.JwtDenyList;
+import com.springboot.app.utils.JwtPrincipalCache;
 import com.springboot.app.utils.JwtUtil;
 
 import jakarta.servlet.FilterChain;
@@ -26,11 +34,22 @@ public class JwtFiltroAutenticacion extends OncePerRequestFilter {
     
     private UsuarioDetailsService usuarioDetailsService;
     
+    private JwtPrincipalCache principalCache;
+    
+    private JwtDenyList denyList;
+    
+    // Si es true, los roles se toman del token sin consultar la base de datos
+    private boolean statelessRoles;
     
 
-    public JwtFiltroAutenticacion(JwtUtil jwtUtil, UsuarioDetailsService usuarioDetailsService) {		
+    public JwtFiltroAutenticacion(JwtUtil jwtUtil, UsuarioDetailsService usuarioDetailsService,
+			JwtPrincipalCache principalCache, JwtDenyList denyList,
+			@Value("${app.jwt.statelessRoles:false}") boolean statelessRoles) {		
 		this.jwtUtil = jwtUtil;
 		this.usuarioDetailsService = usuarioDetailsService;
+		this.principalCache = principalCache;
+		this.denyList = denyList;
+		this.statelessRoles = statelessRoles;
 	}
 
 
@@ -42,35 +61,79 @@ public class JwtFiltroAutenticacion extends OncePerRequestFilter {
 
         String headerAuth = request.getHeader("Authorization");
 
-        String username = null;
+        JwtClaims claims = null;
         String token = null;
+        CustomUserDetails cacheado = null;
 
         if (headerAuth != null && headerAuth.startsWith("Bearer ")) {
             token = headerAuth.substring(7); 
-            try {
-                username = jwtUtil.extraerUsuario(token);
-            } catch (Exception e) {
-                logger.error("Token inválido: " + e.getMessage());
-                throw new IllegalArgumentException("Token inválido: ");
+            
+            if (!statelessRoles) {
+            	cacheado = principalCache.obtener(token);
+            }
+            
+            if (cacheado == null) {
+                try {
+                    claims = jwtUtil.parsearToken(token);
+                } catch (Exception e) {
+                    logger.error("Token inválido: " + e.getMessage());
+                    throw new IllegalArgumentException("Token inválido: ");
+                }
             }
         }
 
+        if (cacheado != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        	
+        	autenticar(cacheado, request);
+        }
       
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = usuarioDetailsService.loadUserByUsername(username);
-
-            if (jwtUtil.validarToken(token, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+        if (claims != null && statelessRoles && claims.getUserId() != null
+        		&& SecurityContextHolder.getContext().getAuthentication() == null) {
+        	
+        	if (!denyList.estaRevocado(claims.getUserId(), claims.getEmitido())) {
+        		
+        		autenticar(principalDesdeClaims(claims), request);
+        	}
+        	
+        	filterChain.doFilter(request, response);
+        	return;
+        }
+      
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = usuarioDetailsService.loadUserByUsername(claims.getSubject());
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            // Firma y expiracion ya se verificaron en parsearToken
+            if (userDetails.getUsername().equals(claims.getSubject())) {
+            	
+            	principalCache.guardar(token, (CustomUserDetails) userDetails, claims.getExpiracion());
 
-                
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                autenticar(userDetails, request);
             }
         }
 
         filterChain.doFilter(request, response);
     }
+	
+	
+	private CustomUserDetails principalDesdeClaims(JwtClaims claims) {
+		
+		List<GrantedAuthority> authorities = claims.getRoles().stream()
+				.map(rol -> (GrantedAuthority) new SimpleGrantedAuthority(rol))
+				.toList();
+		
+		return new CustomUserDetails(claims.getSubject(), "", authorities, claims.getUserId());
+	}
+	
+	
+	private void autenticar(UserDetails userDetails, HttpServletRequest request) {
+		
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+	}
 }
@@ -10,8 +10,12 @@ import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
@@ -19,6 +23,35 @@ import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 @Configuration
 public class S3Config {
 
+  /*
+   * Transporte del cliente sincrono: "apache" mantiene un pool de conexiones
+   * reutilizables; "urlconnection" abre una conexion por llamada y solo queda
+   * como alternativa sin dependencias extra.
+   */
+  @Value("${app.s3.transport:apache}")
+  private String transport;
+
+  @Value("${app.s3.maxConnections:64}")
+  private int maxConnections;
+
+  @Value("${app.s3.connectionTimeoutMs:2000}")
+  private long connectionTimeoutMs;
+
+  @Value("${app.s3.socketTimeoutMs:30000}")
+  private long socketTimeoutMs;
+
+  @Value("${app.s3.acquireTimeoutMs:5000}")
+  private long acquireTimeoutMs;
+
+  @Value("${app.s3.maxIdleSeconds:60}")
+  private long maxIdleSeconds;
+
+  @Value("${app.s3.tcpKeepAlive:true}")
+  private boolean tcpKeepAlive;
+
+  @Value("${app.s3.apiCallTimeoutSeconds:30}")
+  private long apiCallTimeoutSeconds;
+
   @Bean
   S3Client s3Client(
       @Value("${app.s3.endpoint}") String endpoint,
@@ -30,10 +63,39 @@ public class S3Config {
         .endpointOverride(URI.create(endpoint))
         .region(Region.of(region))
         .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
-        .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build()) 
-        .httpClientBuilder(UrlConnectionHttpClient.builder())
+        .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+        .httpClientBuilder(clienteSincrono())
+        .overrideConfiguration(ClientOverrideConfiguration.builder()
+            .apiCallTimeout(Duration.ofSeconds(apiCallTimeoutSeconds)).build())
+        .build();
+  }
+
+  /*
+   * Cliente asincrono para las operaciones que se lanzan en paralelo (HEAD de
+   * varios adjuntos). Las llamadas no ocupan un hilo del servlet mientras esperan.
+   */
+  @Bean
+  S3AsyncClient s3AsyncClient(
+      @Value("${app.s3.endpoint}") String endpoint,
+      @Value("${app.s3.region}") String region,
+      @Value("${app.s3.accessKey}") String accessKey,
+      @Value("${app.s3.secretKey}") String secretKey
+  ) {
+    return S3AsyncClient.builder()
+        .endpointOverride(URI.create(endpoint))
+        .region(Region.of(region))
+        .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+        .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+        .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+            .maxConcurrency(maxConnections)
+            .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+            .readTimeout(Duration.ofMillis(socketTimeoutMs))
+            .writeTimeout(Duration.ofMillis(socketTimeoutMs))
+            .connectionAcquisitionTimeout(Duration.ofMillis(acquireTimeoutMs))
+            .connectionMaxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+            .tcpKeepAlive(tcpKeepAlive))
         .overrideConfiguration(ClientOverrideConfiguration.builder()
-            .apiCallTimeout(Duration.ofSeconds(30)).build())
+            .apiCallTimeout(Duration.ofSeconds(apiCallTimeoutSeconds)).build())
         .build();
   }
 
@@ -50,9 +112,26 @@ public class S3Config {
         .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
         .serviceConfiguration(
                 S3Configuration.builder()
-                    .pathStyleAccessEnabled(true)  
+                    .pathStyleAccessEnabled(true)
                     .build()
             )
         .build();
   }
+
+  private SdkHttpClient.Builder<?> clienteSincrono() {
+
+    return switch (transport.toLowerCase()) {
+      case "apache" -> ApacheHttpClient.builder()
+          .maxConnections(maxConnections)
+          .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+          .socketTimeout(Duration.ofMillis(socketTimeoutMs))
+          .connectionAcquisitionTimeout(Duration.ofMillis(acquireTimeoutMs))
+          .connectionMaxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+          .tcpKeepAlive(tcpKeepAlive);
+      case "urlconnection" -> UrlConnectionHttpClient.builder()
+          .connectionTimeout(Duration.ofMillis(connectionTimeoutMs))
+          .socketTimeout(Duration.ofMillis(socketTimeoutMs));
+      default -> throw new IllegalArgumentException("Transporte S3 no soportado: " + transport);
+    };
+  }
 }
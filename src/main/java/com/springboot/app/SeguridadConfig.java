@@ -20,6 +20,8 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import com.springboot.app.models.services.UsuarioDetailsService;
 import com.springboot.app.utils.Constants;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableMethodSecurity
 public class SeguridadConfig {
@@ -36,7 +38,10 @@ public class SeguridadConfig {
 	public SecurityFilterChain seguridad(HttpSecurity http) throws Exception {
 
 		return http.csrf(csrf -> csrf.disable()).cors(cors -> cors.configurationSource(corsConfigurationSource()))
-				.authorizeHttpRequests(auth -> auth.requestMatchers(Constants.URL_BASE_API_V1 + "/auth/**").permitAll()
+				// El JWT solo se valida en el request original; los redespachos ASYNC (SSE) y
+				// ERROR no pasan por el filtro y ya fueron autorizados
+				.authorizeHttpRequests(auth -> auth.dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+						.requestMatchers(Constants.URL_BASE_API_V1 + "/auth/**").permitAll()
 						.requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
 						.requestMatchers("/public/**").permitAll()
 						.anyRequest().authenticated())
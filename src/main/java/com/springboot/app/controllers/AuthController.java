@@ -1,6 +1,7 @@
 package com.springboot.app.controllers;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
@@ -17,6 +18,7 @@ import com.springboot.app.models.dtos.AuthRequestDto;
 import com.springboot.app.models.dtos.UsuarioDto;
 import com.springboot.app.models.services.IUsuarioService;
 import com.springboot.app.utils.Constants;
+import com.springboot.app.utils.CustomUserDetails;
 import com.springboot.app.utils.JwtUtil;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -84,9 +86,13 @@ public class AuthController {
 
 		User principal = (User) auth.getPrincipal();
 
-		String token = jwtUtil.generarToken(principal.getUsername(), principal.getAuthorities());
+		Instant expires = jwtUtil.nuevaExpiracion();
 
-		return ResponseEntity.ok(Map.of("jwt", token, "expires", jwtUtil.getExpirationToken(token)));
+		Long userId = principal instanceof CustomUserDetails custom ? custom.getUserId() : null;
+
+		String token = jwtUtil.generarToken(principal.getUsername(), principal.getAuthorities(), userId, expires);
+
+		return ResponseEntity.ok(Map.of("jwt", token, "expires", expires));
 
 	}
 
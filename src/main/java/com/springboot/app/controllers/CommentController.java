@@ -1,11 +1,15 @@
 package com.springboot.app.controllers;
 
+import java.io.IOException;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,19 +18,26 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.springboot.app.models.dtos.CommentDto;
+import com.springboot.app.models.dtos.CommentTimelineDto;
 import com.springboot.app.models.dtos.CommentUpdateDto;
 import com.springboot.app.models.dtos.CommentViewDto;
+import com.springboot.app.models.dtos.MediaSubidaDto;
 import com.springboot.app.models.dtos.UploadRequestDto;
 import com.springboot.app.models.dtos.UploadResponseDto;
 import com.springboot.app.models.entities.Media;
 import com.springboot.app.models.services.ICommentService;
 import com.springboot.app.models.services.IMediaService;
-import com.springboot.app.models.services.MediaStorageService;
+import com.springboot.app.models.services.MediaHuerfanaService;
+import com.springboot.app.models.services.MediaHuerfanaService.MetricasReaper;
+import com.springboot.app.models.services.MediaPurgaService;
+import com.springboot.app.models.services.MediaPurgaService.MetricasPurga;
 import com.springboot.app.utils.Constants;
 import com.springboot.app.utils.CustomUserDetails;
 
@@ -38,6 +49,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 
@@ -51,18 +63,21 @@ public class CommentController {
 
 	private final ICommentService commentService;
 
-	private final MediaStorageService storageService;
-
 	private final IMediaService mediaService;
 
+	private final MediaHuerfanaService huerfanaService;
+
+	private final MediaPurgaService purgaService;
+
 	@Value("${app.s3.maxSizeBytes}")
 	long maxSizeBytes;
 
-	public CommentController(ICommentService commentService, MediaStorageService storageService,
-			IMediaService mediaService) {
+	public CommentController(ICommentService commentService, IMediaService mediaService,
+			MediaHuerfanaService huerfanaService, MediaPurgaService purgaService) {
 		super();
 		this.commentService = commentService;
-		this.storageService = storageService;
+		this.huerfanaService = huerfanaService;
+		this.purgaService = purgaService;
 		this.mediaService = mediaService;
 	}
 
@@ -128,6 +143,98 @@ public class CommentController {
     
     
     
+    @Operation(
+            summary = "Timeline de comentarios de una tarea",
+            description = """
+                    Retorna los comentarios activos de una tarea paginados por cursor sobre
+                    (fecha de creación, id), sin conteo total ni OFFSET.
+                    
+                    - Sin cursores se obtienen los más recientes.
+                    - Con `antesDe` se obtienen los anteriores a ese cursor (usar el `nextCursor` recibido).
+                    - Con `despuesDe` se obtienen solo los comentarios nuevos, en orden cronológico
+                      (usar el `sinceCursor` recibido para sondear novedades).
+                    """
+        )
+        @ApiResponses({
+            @ApiResponse(
+                responseCode = "200",
+                description = "Página del timeline.",
+                content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = CommentTimelineDto.class)
+                )
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Cursor inválido o se enviaron antesDe y despuesDe a la vez.",
+                content = @Content
+            ),
+            @ApiResponse(
+                responseCode = "403",
+                description = "El usuario no tiene permisos para ver los comentarios de la tarea indicada.",
+                content = @Content
+            )
+        })
+	@GetMapping("/timeline")
+	public ResponseEntity<CommentTimelineDto> getTimeline(
+        @Parameter(description = "Identificador GUID de la tarea.")
+        @RequestParam String tareaId,
+        @Parameter(description = "Cantidad de comentarios por página.", example = "20")
+        @RequestParam(required = false, defaultValue = "20") Integer tamanio,
+        @Parameter(description = "Cursor para obtener comentarios anteriores.")
+        @RequestParam(required = false) String antesDe,
+        @Parameter(description = "Cursor para obtener comentarios posteriores (nuevos).")
+        @RequestParam(required = false) String despuesDe,
+        @AuthenticationPrincipal CustomUserDetails authUser) {
+
+		return ResponseEntity.ok()
+				.body(commentService.getTimelineByTareaId(tareaId, tamanio, antesDe, despuesDe, authUser.getUserId()));
+
+	}
+
+    
+    
+    
+    @Operation(
+            summary = "Eventos en vivo de una tarea (SSE)",
+            description = """
+                    Abre una conexión Server-Sent Events que recibe los comentarios nuevos
+                    (evento `comentario`, con un `CommentViewDto`) y los cambios de la tarea
+                    (evento `tarea`, con un `TareaDto`) en cuanto se confirman.
+                    
+                    En tareas de proyecto el evento `cambios` (`TareaCambiosEventoDto`) trae los ids
+                    de los cambios y los usuarios mencionados; el texto se obtiene de `GET /tareas/{id}/cambios`.
+                    
+                    Si el cliente no consume los eventos a tiempo la conexión se cierra; al reconectar
+                    puede recuperar lo pendiente con `GET /comment/timeline` y `despuesDe`.
+                    """
+        )
+        @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Flujo de eventos abierto.", content = @Content),
+            @ApiResponse(
+                responseCode = "403",
+                description = "El usuario no tiene permisos sobre la tarea indicada.",
+                content = @Content
+            ),
+            @ApiResponse(
+                responseCode = "409",
+                description = "Se alcanzó el máximo de conexiones de eventos abiertas.",
+                content = @Content
+            )
+        })
+	@GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamEventos(
+        @Parameter(description = "Identificador GUID de la tarea.")
+        @RequestParam String tareaId,
+        @AuthenticationPrincipal CustomUserDetails authUser) {
+
+		return commentService.suscribirEventos(tareaId, authUser.getUserId());
+
+	}
+
+    
+    
+    
     @Operation(
             summary = "Generar URLs pre-firmadas para subir adjuntos",
             description = """
@@ -170,6 +277,79 @@ public class CommentController {
 	}
 
     
+    @Operation(
+            summary = "Subir un adjunto a través del backend",
+            description = """
+                    Alternativa a la URL prefirmada cuando el cliente no puede subir directo a S3.
+                    
+                    - El cuerpo de la petición es el contenido binario del archivo (no multipart/form-data).
+                    - El archivo se transmite a S3 por partes sin cargarlo completo en memoria.
+                    - El `Media` queda en estado *PENDING* con tamaño y SHA-256; se asocia a un comentario
+                      enviando su `storageKey` en `confirmMediaStorageKeyId` del POST `/comment`.
+                    - Si no se confirma dentro de la ventana de subida, se elimina como cualquier subida huérfana.
+                    """
+        )
+        @ApiResponses({
+            @ApiResponse(
+                responseCode = "201",
+                description = "Archivo recibido y guardado.",
+                content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = MediaSubidaDto.class)
+                )
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "El archivo excede el tamaño máximo configurado (`app.s3.maxSizeBytes`).",
+                content = @Content
+            ),
+            @ApiResponse(
+                responseCode = "409",
+                description = "No hay capacidad para recibir más archivos en este momento.",
+                content = @Content
+            )
+        })
+	@PostMapping(value = "/attachment/upload", consumes = MediaType.ALL_VALUE)
+	public ResponseEntity<MediaSubidaDto> uploadAttachment(@RequestParam String fileName,
+			@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String mime,
+			HttpServletRequest request, @AuthenticationPrincipal CustomUserDetails authUser) throws IOException {
+
+		if (request.getContentLengthLong() > maxSizeBytes) {
+			throw new IllegalArgumentException("Archivo excede tamaño máximo: " + fileName);
+		}
+
+		Media media = mediaService.subirArchivo(fileName, mime, request.getInputStream(), authUser.getUserId());
+
+		return ResponseEntity.status(HttpStatus.CREATED)
+				.body(new MediaSubidaDto(media.getStorageKey(), media.getSizeBytes(), media.getChecksumSha256()));
+
+	}
+
+	@Operation(summary = "Métricas de limpieza de adjuntos huérfanos", description = "Ejecuciones, filas eliminadas, objetos que S3 no pudo borrar y duración de la última ejecución del proceso que elimina subidas nunca confirmadas. Solo administradores.")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Métricas acumuladas desde el arranque de la instancia.", content = @Content(schema = @Schema(implementation = MetricasReaper.class))),
+			@ApiResponse(responseCode = "403", description = "El usuario no es administrador.", content = @Content) })
+	@GetMapping("/attachment/huerfanos/metricas")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<MetricasReaper> getMetricasHuerfanos() {
+
+		return ResponseEntity.ok().body(huerfanaService.metricas());
+
+	}
+
+	@Operation(summary = "Métricas de purga de adjuntos borrados", description = "Ejecuciones, objetos purgados, fallos de borrado en S3, objetos que agotaron sus reintentos y duración de la última ejecución. El motivo de cada fallo queda en media.purga_error. Solo administradores.")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Métricas acumuladas desde el arranque de la instancia.", content = @Content(schema = @Schema(implementation = MetricasPurga.class))),
+			@ApiResponse(responseCode = "403", description = "El usuario no es administrador.", content = @Content) })
+	@GetMapping("/attachment/purga/metricas")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<MetricasPurga> getMetricasPurga() {
+
+		return ResponseEntity.ok().body(purgaService.metricas());
+
+	}
+
+    
     
     
     @Operation(
@@ -180,7 +360,7 @@ public class CommentController {
                     
                     - Si `confirmMediaStorageKeyId` está vacío o es null, se crea un comentario sin adjuntos.
                     - Si se envían claves en `confirmMediaStorageKeyId`:
-                      - Se valida el tamaño real en S3 (`verifySizeFiles`).
+                      - Se consulta en paralelo el tamaño real en S3 y se valida contra `app.s3.maxSizeBytes`.
                       - Se actualiza el estado de esos `Media` a *READY*.
                       - Se asocian dichos adjuntos al comentario creado.
                     """
@@ -221,10 +401,6 @@ public class CommentController {
 			return ResponseEntity.ok().body(commentService.saveComment(dto, authUser.getUserId()));
 		}
 
-		if (!storageService.verifySizeFiles(dto.getConfirmMediasStorageKeyId())) {
-			throw new IllegalArgumentException("Archivo excede el límite de 30MB");
-		}
-
 		List<Media> mediasSaved = mediaService.updateStatusMedia(dto.getConfirmMediasStorageKeyId(),
 				authUser.getUserId());
 
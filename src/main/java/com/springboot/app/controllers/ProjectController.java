@@ -1,5 +1,6 @@
 package com.springboot.app.controllers;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -14,16 +15,21 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.springboot.app.models.dtos.BorradoProyectoDto;
+import com.springboot.app.models.dtos.CursorPageDto;
 import com.springboot.app.models.dtos.DashboardDto;
 import com.springboot.app.models.dtos.ProjectDto;
 import com.springboot.app.models.dtos.ProjectMemberDto;
+import com.springboot.app.models.dtos.ProjectResumenDto;
 import com.springboot.app.models.dtos.TareaDto;
 import com.springboot.app.models.services.IDashboardService;
 import com.springboot.app.models.services.IProjectMemberService;
 import com.springboot.app.models.services.IProjectService;
 import com.springboot.app.models.services.ITareaService;
+import com.springboot.app.utils.BorradoProyectoRegistro;
 import com.springboot.app.utils.Constants;
 import com.springboot.app.utils.CustomUserDetails;
 import com.springboot.app.utils.ProjectRole;
@@ -90,12 +96,13 @@ public class ProjectController {
 	@Operation(summary = "Obtener un proyecto por su ID", description = """
 			Obtiene la información de un proyecto identificado por su GUID,
 			siempre y cuando el usuario autenticado sea miembro (normalmente OWNER).
+			Incluye el conteo de tareas activas por estatus; las tareas se consultan en /projects/{id}/tasks.
 			""")
 	@ApiResponses({
-			@ApiResponse(responseCode = "200", description = "Proyecto encontrado.", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProjectDto.class))),
+			@ApiResponse(responseCode = "200", description = "Proyecto encontrado.", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProjectResumenDto.class))),
 			@ApiResponse(responseCode = "404", description = "Proyecto no encontrado o el usuario no tiene acceso.", content = @Content) })
 	@GetMapping("/{id}")
-	public ResponseEntity<ProjectDto> getByProjectId(@AuthenticationPrincipal CustomUserDetails authUser,
+	public ResponseEntity<ProjectResumenDto> getByProjectId(@AuthenticationPrincipal CustomUserDetails authUser,
 			@Parameter(description = "GUID del proyecto", example = "b3b6a1c5-9d8e-4f2c-9013-0b40e9f5f111") @PathVariable String id) {
 
 		return ResponseEntity.ok().body((projectService.findByProjectIdAndUserId(id, authUser.getUserId())));
@@ -135,7 +142,7 @@ public class ProjectController {
 	        )
 	    })
 		@GetMapping
-		public ResponseEntity<Map<String, List<ProjectDto>>> getAllProjects(@AuthenticationPrincipal CustomUserDetails authUser) {
+		public ResponseEntity<Map<String, List<ProjectResumenDto>>> getAllProjects(@AuthenticationPrincipal CustomUserDetails authUser) {
 			return ResponseEntity.ok().body(projectService.findProjectsById(authUser.getUserId()));
 		}
 	
@@ -279,37 +286,70 @@ public class ProjectController {
 	}
 
 	@Operation(summary = "Listar tareas de un proyecto", description = """
-			Devuelve las tareas asociadas a un proyecto que sean visibles para el usuario autenticado.
+			Devuelve las tareas activas de un proyecto, paginadas por cursor (keyset).
+			El orden es fijo (fecha límite desc, id desc) y la siguiente página se pide
+			enviando el nextCursor de la respuesta. Solo para miembros del proyecto.
 			""")
 	@ApiResponses({
-			@ApiResponse(responseCode = "200", description = "Lista de tareas devuelta correctamente.", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TareaDto.class)))),
-			@ApiResponse(responseCode = "403", description = "El usuario no tiene permisos para ver las tareas del proyecto.", content = @Content) })
+			@ApiResponse(responseCode = "200", description = "Página de tareas devuelta correctamente.", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPageDto.class))),
+			@ApiResponse(responseCode = "400", description = "Cursor o tamaño de página inválido.", content = @Content),
+			@ApiResponse(responseCode = "403", description = "El usuario no tiene permisos para ver las tareas del proyecto.", content = @Content),
+			@ApiResponse(responseCode = "404", description = "Proyecto no encontrado.", content = @Content) })
 	@GetMapping("/{id}/tasks")
-	public ResponseEntity<?> getTasksByProjectId(@Parameter(description = "GUID del proyecto") @PathVariable String id,
+	public ResponseEntity<CursorPageDto<TareaDto>> getTasksByProjectId(@Parameter(description = "GUID del proyecto") @PathVariable String id,
+			@Parameter(description = "Cursor devuelto en la página anterior.") @RequestParam(required = false) String cursor,
+			@Parameter(description = "Tamaño de página.", example = "20") @RequestParam(defaultValue = "20") int tamanio,
+			@Parameter(description = "Calcular el total de tareas del proyecto.", example = "false") @RequestParam(defaultValue = "false") boolean incluirTotal,
 			@AuthenticationPrincipal CustomUserDetails authUser) {
 
-		return ResponseEntity.ok(projectService.findTasksByProjectId(id, authUser.getUserId()));
+		return ResponseEntity.ok(tareaService.getTareasByProjectIdCursor(id, cursor, tamanio, incluirTotal, authUser.getUserId()));
 
 	}
 
 	@Operation(summary = "Eliminar proyecto", description = """
 			Elimina lógicamente un proyecto y sus relaciones:
-			- Tareas del proyecto se marcan como inactivas.
+			- Tareas del proyecto se marcan como inactivas y se quitan sus asignaciones.
 			- Miembros del proyecto se marcan como inactivos.
 			Solo un OWNER puede realizar esta operación.
+
+			Si el proyecto tiene muchas tareas, el proyecto queda inactivo de inmediato y las tareas
+			se desactivan por lotes en segundo plano. En ese caso responde 202 con el avance del proceso,
+			que se consulta en /projects/{projectId}/borrados/{jobId}.
 			""")
 	@ApiResponses({
 			@ApiResponse(responseCode = "204", description = "Proyecto eliminado correctamente.", content = @Content),
+			@ApiResponse(responseCode = "202", description = "Proyecto desactivado; las tareas se desactivan en segundo plano.", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BorradoProyectoDto.class))),
 			@ApiResponse(responseCode = "403", description = "El usuario no tiene permisos para eliminar el proyecto.", content = @Content),
 			@ApiResponse(responseCode = "404", description = "Proyecto no encontrado.", content = @Content) })
 	@DeleteMapping("/{projectId}")
-	public ResponseEntity<Void> eliminarProjecto(
+	public ResponseEntity<BorradoProyectoDto> eliminarProjecto(
 			@Parameter(description = "GUID del proyecto") @PathVariable String projectId,
 			@AuthenticationPrincipal CustomUserDetails authUser) {
 
-		projectService.deleteProject(projectId, authUser.getUserId());
+		BorradoProyectoDto borrado = projectService.deleteProject(projectId, authUser.getUserId());
 
-		return ResponseEntity.noContent().build();
+		if (BorradoProyectoRegistro.COMPLETADO.equals(borrado.getEstado())) {
+			return ResponseEntity.noContent().build();
+		}
+
+		return ResponseEntity.accepted()
+				.location(URI.create(Constants.URL_BASE_API_V1 + "/projects/" + projectId + "/borrados/" + borrado.getJobId()))
+				.body(borrado);
+
+	}
+
+	@Operation(summary = "Consultar avance del borrado de un proyecto", description = "Devuelve el avance de un borrado que corre en segundo plano. Solo lo puede consultar el usuario que lo inició.")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Avance devuelto correctamente.", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BorradoProyectoDto.class))),
+			@ApiResponse(responseCode = "403", description = "El proceso fue iniciado por otro usuario.", content = @Content),
+			@ApiResponse(responseCode = "404", description = "Proceso de borrado no encontrado.", content = @Content) })
+	@GetMapping("/{projectId}/borrados/{jobId}")
+	public ResponseEntity<BorradoProyectoDto> getBorrado(
+			@Parameter(description = "GUID del proyecto") @PathVariable String projectId,
+			@Parameter(description = "Identificador del proceso de borrado") @PathVariable String jobId,
+			@AuthenticationPrincipal CustomUserDetails authUser) {
+
+		return ResponseEntity.ok(projectService.getBorrado(projectId, jobId, authUser.getUserId()));
 
 	}
 
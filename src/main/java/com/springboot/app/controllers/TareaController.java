@@ -2,10 +2,14 @@ package com.springboot.app.controllers;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,7 +21,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.springboot.app.models.dtos.AsignacionMasivaDto;
 import com.springboot.app.models.dtos.PrioridadTareaDto;
+import com.springboot.app.models.dtos.TareaCambioDto;
 import com.springboot.app.models.dtos.TareaDto;
 import com.springboot.app.models.dtos.TareaStatusDto;
 import com.springboot.app.models.services.CatalogoService;
@@ -47,6 +53,9 @@ public class TareaController {
 	
 	private final CatalogoService catalogoService;
 
+	@Value("${app.catalogos.maxAgeSeconds:3600}")
+	private long catalogosMaxAgeSeconds;
+
 
 
 	public TareaController(ITareaService tareaService, ITareaTagsService tareaTagsService,
@@ -67,12 +76,17 @@ public class TareaController {
 			- Búsqueda por descripción o título
 			- Ordenamiento personalizado ("campo,dir;")
 
+			Con paginacion=cursor se usa paginación keyset: el orden es fijo
+			(fecha límite desc, id desc), se devuelve un nextCursor opaco para la
+			siguiente página y el total solo se calcula si incluirTotal=true.
+
 			Siempre devuelve únicamente tareas ACTIVAS y propiedad del usuario.
 			""")
 	@ApiResponses({
-			@ApiResponse(responseCode = "200", description = "Resultados obtenidos correctamente.", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TareaDto.class)))) })
+			@ApiResponse(responseCode = "200", description = "Resultados obtenidos correctamente.", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = TareaDto.class)))),
+			@ApiResponse(responseCode = "400", description = "Cursor u ordenamiento inválido.", content = @Content) })
 	@GetMapping()
-	public ResponseEntity<Page<TareaDto>> getAllTareas(
+	public ResponseEntity<?> getAllTareas(
 			@Parameter(description = "Número de página (0-based).", example = "0") @RequestParam(defaultValue = "0") Integer pagina,
 			@Parameter(description = "Tamaño de página.", example = "5") @RequestParam(defaultValue = "5") Integer tamanio,
 			@Parameter(description = "IDs de estado de tarea.") @RequestParam(required = false) List<Short> tareaStatusIds,
@@ -82,8 +96,18 @@ public class TareaController {
 			@Parameter(description = "Búsqueda por descripción.") @RequestParam(required = false) String busquedaDesc,
 			@Parameter(description = "Búsqueda por título.") @RequestParam(required = false) String busquedaTitulo,
 			@Parameter(description = "Ordenamiento. Formato: campo,dir; Ej: fecha_limite,desc;", example = "fecha_limite,desc;") @RequestParam(defaultValue = "fecha_limite,desc;") String sorts,
+			@Parameter(description = "Modo de paginación: offset o cursor.", example = "offset") @RequestParam(defaultValue = "offset") String paginacion,
+			@Parameter(description = "Cursor devuelto en la página anterior (solo paginacion=cursor).") @RequestParam(required = false) String cursor,
+			@Parameter(description = "Calcular el total de resultados (solo paginacion=cursor).", example = "false") @RequestParam(defaultValue = "false") boolean incluirTotal,
 			@AuthenticationPrincipal CustomUserDetails authUser) {
 
+		if ("cursor".equalsIgnoreCase(paginacion)) {
+
+			return ResponseEntity.ok().body(tareaService.getAllActivesCursor(cursor, tamanio, tareaStatusIds,
+					prioridadIds, fechaLimiteDesde, fechaLimiteHasta, busquedaDesc, busquedaTitulo, incluirTotal,
+					authUser.getUserId()));
+		}
+
 		return ResponseEntity.ok().body(tareaService.getAllActives(pagina, tamanio, tareaStatusIds, prioridadIds,
 				fechaLimiteDesde, fechaLimiteHasta, busquedaDesc, busquedaTitulo, sorts, authUser.getUserId()));
 
@@ -104,26 +128,72 @@ public class TareaController {
 
 	}
 
+	@Operation(summary = "Historial de cambios de una tarea", description = """
+			Devuelve los cambios campo por campo registrados al actualizar la tarea, del más
+			reciente al más antiguo. Cada elemento incluye el valor anterior, el nuevo y un
+			mensaje legible.
+
+			El usuario debe ser owner, estar asignado o ser miembro del proyecto de la tarea.
+			""")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Historial paginado.", content = @Content(array = @ArraySchema(schema = @Schema(implementation = TareaCambioDto.class)))),
+			@ApiResponse(responseCode = "403", description = "Sin permisos sobre la tarea.", content = @Content),
+			@ApiResponse(responseCode = "404", description = "Tarea no encontrada.", content = @Content) })
+	@GetMapping("/{id}/cambios")
+	public ResponseEntity<Page<TareaCambioDto>> getCambiosTarea(
+			@Parameter(description = "GUID de la tarea") @PathVariable String id,
+			@Parameter(description = "Número de página (0-based).", example = "0") @RequestParam(defaultValue = "0") int pagina,
+			@Parameter(description = "Tamaño de página.", example = "20") @RequestParam(defaultValue = "20") int tamanio,
+			@AuthenticationPrincipal CustomUserDetails authUser) {
+
+		return ResponseEntity.ok().body(tareaService.getCambios(id, pagina, tamanio, authUser.getUserId()));
+
+	}
+
 	@Operation(summary = "Obtener catálogo de prioridades", description = "Devuelve el catálogo completo de prioridades disponibles para las tareas.")
 	@ApiResponses({
-			@ApiResponse(responseCode = "200", description = "Catálogo devuelto correctamente.", content = @Content(array = @ArraySchema(schema = @Schema(implementation = PrioridadTareaDto.class)))) })
+			@ApiResponse(responseCode = "200", description = "Catálogo devuelto correctamente.", content = @Content(array = @ArraySchema(schema = @Schema(implementation = PrioridadTareaDto.class)))),
+			@ApiResponse(responseCode = "304", description = "El catálogo no cambió respecto al ETag enviado en If-None-Match.", content = @Content) })
 	@GetMapping("/prioridades")
 	public ResponseEntity<List<PrioridadTareaDto>> getPrioridadesTarea() {
 
-		return ResponseEntity.ok().body(catalogoService.findAllPrioridadesTarea());
+		// Con ETag en la respuesta, Spring contesta 304 si coincide con If-None-Match
+		return ResponseEntity.ok().eTag(catalogoService.getEtagPrioridades()).cacheControl(cacheCatalogos())
+				.body(catalogoService.findAllPrioridadesTarea());
 
 	}
 
 	@Operation(summary = "Obtener catálogo de estatus de tarea", description = "Devuelve el catálogo de estado de tarea (tarea_status).")
 	@ApiResponses({
-			@ApiResponse(responseCode = "200", description = "Catálogo devuelto correctamente.", content = @Content(array = @ArraySchema(schema = @Schema(implementation = TareaStatusDto.class)))) })
+			@ApiResponse(responseCode = "200", description = "Catálogo devuelto correctamente.", content = @Content(array = @ArraySchema(schema = @Schema(implementation = TareaStatusDto.class)))),
+			@ApiResponse(responseCode = "304", description = "El catálogo no cambió respecto al ETag enviado en If-None-Match.", content = @Content) })
 	@GetMapping("/tarea-status")
 	public ResponseEntity<List<TareaStatusDto>> getTareaStatus() {
 
-		return ResponseEntity.ok().body(catalogoService.findAllTareaStatus());
+		return ResponseEntity.ok().eTag(catalogoService.getEtagTareaStatus()).cacheControl(cacheCatalogos())
+				.body(catalogoService.findAllTareaStatus());
+
+	}
+
+	@Operation(summary = "Recargar catálogos", description = "Vuelve a leer de base de datos los catálogos de prioridades y estatus de tarea. Solo administradores.")
+	@ApiResponses({
+			@ApiResponse(responseCode = "204", description = "Catálogos recargados."),
+			@ApiResponse(responseCode = "403", description = "El usuario no es administrador.", content = @Content) })
+	@PostMapping("/catalogos/refrescar")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<Void> refrescarCatalogos() {
+
+		catalogoService.refrescar();
+
+		return ResponseEntity.noContent().build();
 
 	}
 
+	private CacheControl cacheCatalogos() {
+
+		return CacheControl.maxAge(catalogosMaxAgeSeconds, TimeUnit.SECONDS).cachePrivate();
+	}
+
 	@Operation(summary = "Actualizar una tarea", description = """
 			Actualiza información de una tarea existente:
 			- Título
@@ -244,6 +314,31 @@ public class TareaController {
 
 	}
 
+	@Operation(summary = "Asignar usuarios a varias tareas", description = """
+			Asigna cada usuario indicado a cada una de las tareas indicadas.
+
+			Reglas:
+			- Todas las tareas deben pertenecer a un proyecto.
+			- El usuario autenticado debe ser OWNER de todos esos proyectos.
+			- Solo se asignan los usuarios que son miembros del proyecto de cada tarea.
+			- Las asignaciones ya existentes se conservan sin duplicarse.
+			""")
+	@ApiResponses({
+			@ApiResponse(responseCode = "204", description = "Asignación realizada correctamente.", content = @Content),
+			@ApiResponse(responseCode = "400", description = "Listas vacías o que exceden el máximo permitido.", content = @Content),
+			@ApiResponse(responseCode = "403", description = "Sin permisos en alguno de los proyectos.", content = @Content),
+			@ApiResponse(responseCode = "404", description = "Alguna tarea no existe.", content = @Content),
+			@ApiResponse(responseCode = "409", description = "Alguna tarea no está ligada a un proyecto.", content = @Content) })
+	@PostMapping("/assign")
+	public ResponseEntity<Void> asignarTareas(@Valid @RequestBody AsignacionMasivaDto dto,
+			@AuthenticationPrincipal CustomUserDetails authUser) {
+
+		tareaService.asignarTareas(dto.getTareaIds(), dto.getUserIds(), authUser.getUserId());
+
+		return ResponseEntity.noContent().build();
+
+	}
+
 	@Operation(summary = "Eliminar una tarea", description = """
 			Elimina lógicamente una tarea.
 
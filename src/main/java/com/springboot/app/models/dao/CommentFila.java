@@ -0,0 +1,23 @@
+package com.springboot.app.models.dao;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyeccion de las columnas de comentarios que necesita el listado paginado,
+ * sin cargar la tarea, el autor ni las colecciones del entity.
+ */
+public interface CommentFila {
+
+	Long getId();
+
+	String getTareaId();
+
+	Long getAutorId();
+
+	String getBody();
+
+	Short getStatus();
+
+	LocalDateTime getFechaCreacion();
+
+}
@@ -0,0 +1,36 @@
+package com.springboot.app.models.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.springboot.app.models.entities.BorradoProyecto;
+
+@Repository
+public interface IBorradoProyectoDao extends JpaRepository<BorradoProyecto, String> {
+
+	Optional<BorradoProyecto> findFirstByProjectIdAndEstadoInOrderByInicioDesc(String projectId,
+			Collection<String> estados);
+
+	boolean existsByProjectIdAndEstadoAndActualizadoAfter(String projectId, String estado, LocalDateTime desde);
+
+	@Modifying
+	@Query("UPDATE BorradoProyecto b SET b.procesadas = b.procesadas + :procesadas, b.actualizado = :ahora WHERE b.jobId = :jobId")
+	int avanzar(@Param("jobId") String jobId, @Param("procesadas") long procesadas, @Param("ahora") LocalDateTime ahora);
+
+	@Modifying
+	@Query("UPDATE BorradoProyecto b SET b.estado = :estado, b.error = :error, b.fin = :ahora, b.actualizado = :ahora WHERE b.jobId = :jobId")
+	int cerrar(@Param("jobId") String jobId, @Param("estado") String estado, @Param("error") String error,
+			@Param("ahora") LocalDateTime ahora);
+
+	@Modifying
+	@Query("DELETE FROM BorradoProyecto b WHERE b.fin < :limite")
+	int deleteTerminadosAntesDe(@Param("limite") LocalDateTime limite);
+
+}
@@ -0,0 +1,26 @@
+package com.springboot.app.models.dao;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.springboot.app.models.entities.CacheInvalidacion;
+
+@Repository
+public interface ICacheInvalidacionDao extends JpaRepository<CacheInvalidacion, Long> {
+
+	List<CacheInvalidacion> findTop500ByIdGreaterThanOrderByIdAsc(Long id);
+
+	@Query("SELECT COALESCE(MAX(c.id), 0) FROM CacheInvalidacion c")
+	Long findMaxId();
+
+	@Modifying
+	@Query("DELETE FROM CacheInvalidacion c WHERE c.fecha < :limite")
+	int deleteAnterioresA(@Param("limite") LocalDateTime limite);
+
+}
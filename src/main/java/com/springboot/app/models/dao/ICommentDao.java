@@ -1,11 +1,13 @@
 package com.springboot.app.models.dao;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,19 +16,47 @@ import com.springboot.app.models.entities.Comment;
 @Repository
 public interface ICommentDao extends JpaRepository<Comment, Long>{
 	
+	String COLUMNAS_FILA="c.id AS id, c.tarea_id AS tareaId, c.user_id AS autorId, c.body AS body, c.status AS status, c.fecha_creacion AS fechaCreacion";
 	
-	@NativeQuery(value="SELECT * FROM comentarios c WHERE c.user_id=:userId ",countQuery = "SELECT COUNT(*) FROM comentarios c WHERE c.user_id=:userId ")
-	Page<Comment> findAllByUserId(Pageable pageable, @Param("userId") Long userId);
+	@NativeQuery(value="SELECT "+COLUMNAS_FILA+" FROM comentarios c WHERE c.user_id=:userId ",countQuery = "SELECT COUNT(*) FROM comentarios c WHERE c.user_id=:userId ")
+	Page<CommentFila> findAllByUserId(Pageable pageable, @Param("userId") Long userId);
 
 	
 	@NativeQuery(value="SELECT * FROM comentarios c WHERE c.user_id=:userId ")
 	List<Comment>  findAllByUserId(@Param("userId") Long userId);
 
-	@NativeQuery(value="SELECT * FROM comentarios c WHERE c.tarea_id=:tareaId ",countQuery = "SELECT COUNT(*) FROM comentarios c WHERE c.tarea_id=:tareaId ")
-	Page<Comment> findAllByTareaId(Pageable pageable, @Param("tareaId") String tareaId);
+	@NativeQuery(value="SELECT "+COLUMNAS_FILA+" FROM comentarios c WHERE c.tarea_id=:tareaId ",countQuery = "SELECT COUNT(*) FROM comentarios c WHERE c.tarea_id=:tareaId ")
+	Page<CommentFila> findAllByTareaId(Pageable pageable, @Param("tareaId") String tareaId);
 	
 	
 	@NativeQuery(value="SELECT * FROM comentarios c WHERE c.tarea_id=:tareaId and c.status=1")
 	List<Comment> findAllByTareaId( @Param("tareaId") String tareaId);
-	
+
+	// Timeline keyset sobre (fecha_creacion, id): la primera pagina, las anteriores a un cursor
+	// y las posteriores a un cursor (sondeo de comentarios nuevos)
+	@NativeQuery(value="SELECT "+COLUMNAS_FILA+" FROM comentarios c WHERE c.tarea_id=:tareaId AND c.status=:status "
+			+ "ORDER BY c.fecha_creacion DESC, c.id DESC LIMIT :limite")
+	List<CommentFila> findTimeline(@Param("tareaId") String tareaId, @Param("status") Short status,
+			@Param("limite") int limite);
+
+	@NativeQuery(value="SELECT "+COLUMNAS_FILA+" FROM comentarios c WHERE c.tarea_id=:tareaId AND c.status=:status "
+			+ "AND (c.fecha_creacion < :fecha OR (c.fecha_creacion = :fecha AND c.id < :id)) "
+			+ "ORDER BY c.fecha_creacion DESC, c.id DESC LIMIT :limite")
+	List<CommentFila> findTimelineAntesDe(@Param("tareaId") String tareaId, @Param("status") Short status,
+			@Param("fecha") LocalDateTime fecha, @Param("id") Long id, @Param("limite") int limite);
+
+	@NativeQuery(value="SELECT "+COLUMNAS_FILA+" FROM comentarios c WHERE c.tarea_id=:tareaId AND c.status=:status "
+			+ "AND (c.fecha_creacion > :fecha OR (c.fecha_creacion = :fecha AND c.id > :id)) "
+			+ "ORDER BY c.fecha_creacion ASC, c.id ASC LIMIT :limite")
+	List<CommentFila> findTimelineDespuesDe(@Param("tareaId") String tareaId, @Param("status") Short status,
+			@Param("fecha") LocalDateTime fecha, @Param("id") Long id, @Param("limite") int limite);
+
+	// Carga en lote de las menciones de una pagina: filas (commentId, userId)
+	@Query("SELECT c.id, m.id FROM Comment c JOIN c.mentions m WHERE c.id IN (:ids)")
+	List<Object[]> findMentionIdsByCommentIds(@Param("ids") List<Long> ids);
+
+	// Carga en lote de los adjuntos de una pagina: filas (commentId, storageKey)
+	@Query("SELECT c.id, a.storageKey FROM Comment c JOIN c.adjuntos a WHERE c.id IN (:ids) AND a.status = :status")
+	List<Object[]> findAdjuntoKeysByCommentIds(@Param("ids") List<Long> ids, @Param("status") Short status);
+
 }
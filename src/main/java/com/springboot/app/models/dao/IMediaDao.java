@@ -1,14 +1,58 @@
 package com.springboot.app.models.dao;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.springboot.app.models.entities.Media;
 
+import jakarta.persistence.LockModeType;
+
 @Repository
 public interface IMediaDao extends JpaRepository<Media, Long>{
 
 	Optional<Media> findByOwnerIdAndStorageKey(Long ownerId, String storageKey);
+
+	// Bloquea las filas para que el reaper no las reclame mientras se confirman
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	List<Media> findByOwnerIdAndStorageKeyIn(Long ownerId, Collection<String> storageKeys);
+
+	List<Media> findTop1000ByStatusAndIdGreaterThanOrderByIdAsc(Short status, Long id);
+
+	@Modifying
+	@Query("update Media m set m.status = :status where m.id in :ids")
+	int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("status") Short status);
+
+	/**
+	 * Suma un intento fallido de purga y guarda el motivo. Las filas que llegan a
+	 * maxIntentos pasan a agotado y la purga deja de reintentarlas. El estado se
+	 * asigna antes que el contador para leer el valor previo tambien en MySQL.
+	 */
+	@Modifying
+	@Query("update Media m set m.status = case when m.purgaIntentos + 1 >= :maxIntentos then :agotado else m.status end, "
+			+ "m.purgaIntentos = m.purgaIntentos + 1, m.purgaError = :motivo where m.id in :ids")
+	int registrarFalloPurga(@Param("ids") Collection<Long> ids, @Param("motivo") String motivo,
+			@Param("maxIntentos") int maxIntentos, @Param("agotado") Short agotado);
+
+	List<Media> findTop1000ByStatusInAndCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(Collection<Short> statuses,
+			Instant corte, Long id);
+
+	List<Media> findByIdInAndStatus(Collection<Long> ids, Short status);
+
+	@Modifying(clearAutomatically = true)
+	@Query("update Media m set m.status = :nuevo where m.id in :ids and m.status = :actual")
+	int updateStatusByIdsAndStatus(@Param("ids") Collection<Long> ids, @Param("actual") Short actual,
+			@Param("nuevo") Short nuevo);
+
+	@Modifying
+	@Query("delete from Media m where m.id in :ids and m.status = :status")
+	int deleteByIdsAndStatus(@Param("ids") Collection<Long> ids, @Param("status") Short status);
 }
@@ -1,5 +1,6 @@
 package com.springboot.app.models.dao;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -71,4 +72,24 @@ public interface IProjectDao extends JpaRepository<Project, String>{
 		
 				""")
 	int getProjectCountRoleOwner(Long userId);
+	
+	/**
+	 * Proyectos borrados cuyas tareas no se terminaron de desactivar (el
+	 * proceso se perdio con un reinicio). Un borrado deja el proyecto y todos
+	 * sus miembros inactivos; filas (id_guid, usuario_modificacion).
+	 */
+	@NativeQuery("""
+	select
+		p.id_guid,
+		p.usuario_modificacion
+	from
+		project p
+	where
+		p.status = 0
+		and p.fecha_modificacion < ?1
+		and exists (select 1 from tareas t where t.project_id = p.id_guid and t.status = 1)
+		and not exists (select 1 from project_members pm where pm.project_id = p.id_guid and pm.status = 1)
+	limit ?2
+						""")
+	List<Object[]> findBorradosConTareasActivas(LocalDateTime corte, int limite);
 }
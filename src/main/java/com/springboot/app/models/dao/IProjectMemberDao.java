@@ -1,9 +1,12 @@
 package com.springboot.app.models.dao;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.NativeQuery;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -48,6 +51,29 @@ public interface IProjectMemberDao extends JpaRepository<ProjectMember, Long>{
 	boolean existsByUsuarioIdAndProjectIdGuid(Long usuarioId, String projectId);
 
 	
+	// Miembros con el estatus indicado de varios proyectos en una sola consulta: filas (projectId, usuarioId)
+	@Query("SELECT DISTINCT pm.project.idGuid, pm.usuario.id FROM ProjectMember pm WHERE pm.project.idGuid IN (:projectIds) AND pm.usuario.id IN (:usuarioIds) AND pm.status = :status")
+	List<Object[]> findMiembrosByStatus(@Param("projectIds") Collection<String> projectIds,
+			@Param("usuarioIds") Collection<Long> usuarioIds, @Param("status") Short status);
+
+	@Query("SELECT pm.project.idGuid FROM ProjectMember pm WHERE pm.usuario.id = :usuarioId AND pm.project.idGuid IN (:projectIds) AND pm.role = :role AND pm.status = :status")
+	List<String> findProjectIdsByUsuarioAndRole(@Param("usuarioId") Long usuarioId,
+			@Param("projectIds") Collection<String> projectIds, @Param("role") ProjectRole role,
+			@Param("status") Short status);
+
+	// Rol y estatus de todas las filas del usuario en el proyecto, para resolver los permisos en una sola consulta
+	@Query("SELECT pm.role, pm.status FROM ProjectMember pm WHERE pm.usuario.id = :usuarioId AND pm.project.idGuid = :projectId")
+	List<Object[]> findRolesYStatus(@Param("usuarioId") Long usuarioId, @Param("projectId") String projectId);
+
+	@Query("SELECT pm.usuario.id FROM ProjectMember pm WHERE pm.project.idGuid = :projectId AND pm.status = :status")
+	List<Long> findUsuarioIdsByProjectAndStatus(@Param("projectId") String projectId, @Param("status") Short status);
+
+	@Modifying
+	@Query("UPDATE ProjectMember pm SET pm.status = :status, pm.usuarioModificacion = :usuario, pm.fechaModificacion = :fecha "
+			+ "WHERE pm.project.idGuid = :projectId AND pm.status <> :status")
+	int updateStatusByProject(@Param("projectId") String projectId, @Param("status") Short status,
+			@Param("usuario") String usuario, @Param("fecha") LocalDateTime fecha);
+
 	@NativeQuery("SELECT COUNT(*) FROM project_members pm WHERE pm.role ='OWNER' ")
 	int getCountOwners(String projectId);
 
@@ -0,0 +1,15 @@
+package com.springboot.app.models.dao;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.springboot.app.models.entities.TareaCambio;
+
+@Repository
+public interface ITareaCambioDao extends JpaRepository<TareaCambio, Long> {
+
+	Page<TareaCambio> findByTareaIdOrderByFechaDescIdDesc(String tareaId, Pageable pageable);
+
+}
@@ -1,13 +1,14 @@
 package com.springboot.app.models.dao;
 
-import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,37 +16,59 @@ import com.springboot.app.models.entities.Tag;
 import com.springboot.app.models.entities.Tarea;
 
 @Repository
-public interface ITareaDao extends JpaRepository<Tarea, String> {
+public interface ITareaDao extends JpaRepository<Tarea, String>, ITareaDaoCustom {
 
 	@NativeQuery(QUERY + "WHERE t.id_guid=?1 AND t.status=1")
 	Optional<Tarea> findByIdGuid(String id);
 
 	String QUERY = "SELECT * FROM tareas t ";
 
-	String FILTERS = """
-			WHERE (:aplicarPrioridad=false OR t.id_prioridad IN (:prioridadIds) )
-			AND (:aplicarTareaStatus=false OR t.id_tarea_status IN (:tareaStatusIds) )
-			AND (:desde IS NULL OR DATE(t.fecha_limite) >= :desde )
-			AND (:hasta IS NULL OR DATE(t.fecha_limite) <= :hasta )
-			AND (:busTitle IS NULL OR MATCH(t.titulo) AGAINST (:busTitle IN NATURAL LANGUAGE MODE))
-			AND (:busDesc IS NULL OR MATCH(t.descripcion) AGAINST (:busDesc IN NATURAL LANGUAGE MODE))
-			AND (:ownerId IS NULL OR t.owner_id=:ownerId)
-			AND t.status=1
-
-			""";
-
-	@NativeQuery(value = QUERY + FILTERS, countQuery = "SELECT COUNT(*) FROM tareas t " + FILTERS)
-	Page<Tarea> getAllActives(Pageable pageable, @Param("tareaStatusIds") List<Short> tareaStatusIds,
-			@Param("prioridadIds") List<Short> prioridadIds, @Param("desde") LocalDate desde,
-			@Param("hasta") LocalDate hasta, @Param("busDesc") String busquedaDesc,
-			@Param("busTitle") String busquedaTitulo, @Param("aplicarPrioridad") boolean aplicarPrioridad,
-			@Param("aplicarTareaStatus") boolean aplicarTareaStatus, @Param("ownerId") Long ownerId);
-
 	@NativeQuery("""
 			SELECT t.* FROM tarea_tags tt INNER JOIN tags t ON tt.id_tag=t.id WHERE tt.id_tarea=?1 AND t.status=1;
 			""")
 	List<Tag> getTagsFromTarea(String idTarea);
 
+	// Tarea con sus usuarios asignados en una sola consulta, para asignar sin una carga extra de la coleccion
+	@EntityGraph(Tarea.GRAFO_USUARIOS)
+	@Query("SELECT t FROM Tarea t WHERE t.idGuid = :id")
+	Optional<Tarea> findConUsuariosById(@Param("id") String id);
+
+	// Tareas del proyecto asignadas a un usuario, con todos sus asignados, para retirarlo al salir del proyecto
+	@EntityGraph(Tarea.GRAFO_USUARIOS)
+	@Query("SELECT t FROM Tarea t WHERE t.project.idGuid = :projectId AND EXISTS (SELECT 1 FROM t.usuarios u WHERE u.id = :usuarioId)")
+	List<Tarea> findAsignadasConUsuarios(@Param("projectId") String projectId, @Param("usuarioId") Long usuarioId);
+
+	// Inicializa las etiquetas de una pagina de tareas ya cargada en una sola consulta, antes de mapear a TareaDto
+	@Query("SELECT DISTINCT t FROM Tarea t LEFT JOIN FETCH t.tareaTagsList tt LEFT JOIN FETCH tt.tag WHERE t.idGuid IN :ids")
+	List<Tarea> findConEtiquetasByIds(@Param("ids") Collection<String> ids);
+
+	// Solo las columnas necesarias para validar una asignacion masiva: filas (tareaId, projectId)
+	@NativeQuery("SELECT t.id_guid, t.project_id FROM tareas t WHERE t.id_guid IN (:ids) AND t.status=1")
+	List<Object[]> findProjectIdsByTareaIds(@Param("ids") Collection<String> ids);
+
+	// Resumen de proyectos: tareas activas por estatus de varios proyectos, filas (projectId, estatus, total)
+	@NativeQuery("SELECT t.project_id, ts.status, COUNT(*) FROM tareas t JOIN tarea_status ts ON ts.id = t.id_tarea_status "
+			+ "WHERE t.project_id IN (:projectIds) AND t.status=1 GROUP BY t.project_id, ts.status")
+	List<Object[]> countActivasPorEstatus(@Param("projectIds") Collection<String> projectIds);
+
+	// Borrado de un proyecto por lotes: se toman ids de tareas activas y se desactivan en bloque
+	@NativeQuery("SELECT COUNT(*) FROM tareas t WHERE t.project_id=:projectId AND t.status=1")
+	long countActivasByProjectId(@Param("projectId") String projectId);
+
+	@NativeQuery("SELECT t.id_guid FROM tareas t WHERE t.project_id=:projectId AND t.status=1 LIMIT :limite")
+	List<String> findIdsActivasByProjectId(@Param("projectId") String projectId, @Param("limite") int limite);
+
+	@NativeQuery("SELECT DISTINCT tu.usuario_id FROM tareas_usuario tu WHERE tu.tarea_id IN (:ids)")
+	List<Long> findUsuarioIdsByTareaIds(@Param("ids") Collection<String> ids);
+
+	@Modifying
+	@NativeQuery("DELETE FROM tareas_usuario WHERE tarea_id IN (:ids)")
+	int deleteAsignacionesByTareaIds(@Param("ids") Collection<String> ids);
+
+	@Modifying
+	@NativeQuery("UPDATE tareas SET status=0, usuario_modificacion=:usuario, fecha_modificacion=NOW() WHERE id_guid IN (:ids)")
+	int desactivarByIds(@Param("ids") Collection<String> ids, @Param("usuario") String usuario);
+
 	@NativeQuery("SELECT t.* from tareas t where t.id_guid=?1 and t.owner_id=?2 and t.status=1; ")
 	Optional<Tarea> findById(String id, Long userId);
 
@@ -158,4 +181,107 @@ public interface ITareaDao extends JpaRepository<Tarea, String> {
 			""")
 	List<Object[]> countTareasByPrioridad(Long userId);
 
+	
+	/**
+	 * Todos los contadores del dashboard en un solo viaje a la base de datos.
+	 * Cada fila es (categoria, clave, valor); la fila USUARIO solo existe si el
+	 * usuario esta activo y trae su username en la clave.
+	 */
+	@NativeQuery(""" 
+	
+	select 'USUARIO' categoria, u.username clave, cast(0 as SIGNED) valor
+	from usuarios u
+	where u.id = ?1 and u.status = 1
+	
+	union all
+	
+	select 'PROYECTOS_ACTIVOS', null, count(*)
+	from project_members pm
+	join project p on p.id_guid = pm.project_id
+	where pm.usuario_id = ?1 and pm.status = 1 and p.status = 1
+	
+	union all
+	
+	select 'PROYECTOS_OWNER', null, count(*)
+	from project_members pm
+	join project p on p.id_guid = pm.project_id
+	where pm.usuario_id = ?1 and pm.role = 'OWNER' and pm.status = 1 and p.status = 1
+	
+	union all
+	
+	select 'TAREAS_PENDIENTES', null, count(*)
+	from tareas_usuario tu
+	join tareas t on t.id_guid = tu.tarea_id
+	where tu.usuario_id = ?1 and t.status = 1 and t.id_tarea_status not in (3, 5)
+		and (t.fecha_limite is null or t.fecha_limite > NOW())
+	
+	union all
+	
+	select 'TAREAS_VENCIDAS', null, count(*)
+	from tareas_usuario tu
+	join tareas t on t.id_guid = tu.tarea_id
+	where tu.usuario_id = ?1 and t.status = 1 and t.fecha_limite < NOW() and t.id_tarea_status != 5
+	
+	union all
+	
+	select 'TAREAS_HOY', null, count(*)
+	from tareas_usuario tu
+	join tareas t on t.id_guid = tu.tarea_id
+	where tu.usuario_id = ?1 and DATE(t.fecha_limite) = DATE(NOW()) and NOW() < t.fecha_limite
+	
+	union all
+	
+	select 'ESTATUS', ts.status, count(x.tarea_id)
+	from tarea_status ts
+	left join (
+		select t.id_tarea_status, tu.tarea_id
+		from tareas_usuario tu
+		join tareas t on t.id_guid = tu.tarea_id
+		where tu.usuario_id = ?1 and t.status = 1
+	) x on x.id_tarea_status = ts.id
+	group by ts.status
+	
+	union all
+	
+	select 'PRIORIDAD', p.tipo_prioridad, count(x.tarea_id)
+	from prioridades p
+	left join (
+		select t.id_prioridad, tu.tarea_id
+		from tareas_usuario tu
+		join tareas t on t.id_guid = tu.tarea_id
+		where tu.usuario_id = ?1 and t.status = 1
+	) x on x.id_prioridad = p.id
+	group by p.tipo_prioridad
+	
+			""")
+	List<Object[]> getDashboardByUserId(Long userId);
+
+	/**
+	 * Una fila por tarea activa asignada (id_guid, fecha_limite,
+	 * id_tarea_status, estatus, prioridad). Solo se consulta para llenar el
+	 * DashboardCounterStore, nunca para responder directamente.
+	 */
+	@NativeQuery(""" 
+	
+	select
+		t.id_guid,
+		t.fecha_limite,
+		t.id_tarea_status,
+		ts.status,
+		p.tipo_prioridad
+	from
+		tareas_usuario tu
+	join tareas t on
+		t.id_guid = tu.tarea_id
+	join tarea_status ts on
+		ts.id = t.id_tarea_status
+	join prioridades p on
+		p.id = t.id_prioridad
+	where
+		tu.usuario_id = ?1
+		and t.status = 1
+	
+			""")
+	List<Object[]> getResumenTareasByUserId(Long userId);
+
 }
@@ -0,0 +1,23 @@
+package com.springboot.app.models.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.springboot.app.models.entities.Tarea;
+
+public interface ITareaDaoCustom {
+
+	Page<Tarea> buscarActivas(TareaFiltro filtro, Pageable pageable);
+
+	List<Tarea> buscarActivasKeyset(TareaFiltro filtro, LocalDateTime cursorFecha, String cursorId, int limite);
+
+	long contarActivas(TareaFiltro filtro);
+
+	void insertarAsignaciones(Map<String, ? extends Collection<Long>> usuariosPorTarea);
+
+}
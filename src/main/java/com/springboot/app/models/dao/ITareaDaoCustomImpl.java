@@ -0,0 +1,231 @@
+package com.springboot.app.models.dao;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.springboot.app.models.entities.Tarea;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * Construye el SQL de busqueda de tareas emitiendo solo los predicados de los
+ * filtros presentes, con rangos sobre fecha_limite sin funciones para que
+ * MySQL pueda usar los indices (owner_id, status, fecha_limite) y
+ * (project_id, status, fecha_limite, id_guid).
+ */
+public class ITareaDaoCustomImpl implements ITareaDaoCustom {
+
+	// Campos aceptados en el ordenamiento (nombre de columna o de propiedad)
+	private static final Map<String, String> COLUMNAS_ORDEN = Map.ofEntries(
+			Map.entry("fecha_limite", "t.fecha_limite"),
+			Map.entry("fechaLimite", "t.fecha_limite"),
+			Map.entry("fecha_creacion", "t.fecha_creacion"),
+			Map.entry("fechaCreacion", "t.fecha_creacion"),
+			Map.entry("titulo", "t.titulo"),
+			Map.entry("id_prioridad", "t.id_prioridad"),
+			Map.entry("prioridad", "t.id_prioridad"),
+			Map.entry("id_tarea_status", "t.id_tarea_status"),
+			Map.entry("tareaStatus", "t.id_tarea_status"),
+			Map.entry("id_guid", "t.id_guid"),
+			Map.entry("idGuid", "t.id_guid"));
+
+	// La llave unica (tarea_id, usuario_id) convierte una asignacion existente en un no-op; a diferencia de
+	// INSERT IGNORE, los demas errores (llaves foraneas, datos invalidos) si se reportan
+	private static final String INSERT_ASIGNACION = "INSERT INTO tareas_usuario (tarea_id, usuario_id) VALUES (?, ?) "
+			+ "ON DUPLICATE KEY UPDATE tarea_id = tarea_id";
+
+	private static final int TAMANIO_LOTE = 500;
+
+	@PersistenceContext
+	private EntityManager em;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	public Page<Tarea> buscarActivas(TareaFiltro filtro, Pageable pageable) {
+
+		Map<String, Object> params = new HashMap<>();
+
+		StringBuilder sql = new StringBuilder("SELECT t.* FROM tareas t");
+
+		sql.append(construirWhere(filtro, params));
+
+		sql.append(construirOrderBy(pageable.getSort()));
+
+		if (pageable.isPaged()) {
+			sql.append(" LIMIT :limite OFFSET :offset");
+			params.put("limite", pageable.getPageSize());
+			params.put("offset", pageable.getOffset());
+		}
+
+		List<Tarea> contenido = ejecutar(sql.toString(), params);
+
+		return PageableExecutionUtils.getPage(contenido, pageable, () -> contarActivas(filtro));
+	}
+
+	@Override
+	public List<Tarea> buscarActivasKeyset(TareaFiltro filtro, LocalDateTime cursorFecha, String cursorId,
+			int limite) {
+
+		Map<String, Object> params = new HashMap<>();
+
+		StringBuilder sql = new StringBuilder("SELECT t.* FROM tareas t");
+
+		sql.append(construirWhere(filtro, params));
+
+		// Seek sobre (fecha_limite DESC, id_guid DESC); las tareas sin fecha limite van al final
+		if (cursorId != null) {
+
+			if (cursorFecha != null) {
+				sql.append(" AND (t.fecha_limite < :cursorFecha")
+						.append(" OR (t.fecha_limite = :cursorFecha AND t.id_guid < :cursorId)")
+						.append(" OR t.fecha_limite IS NULL)");
+				params.put("cursorFecha", cursorFecha);
+			} else {
+				sql.append(" AND t.fecha_limite IS NULL AND t.id_guid < :cursorId");
+			}
+
+			params.put("cursorId", cursorId);
+		}
+
+		sql.append(" ORDER BY t.fecha_limite DESC, t.id_guid DESC LIMIT :limite");
+		params.put("limite", limite);
+
+		return ejecutar(sql.toString(), params);
+	}
+
+	@Override
+	public void insertarAsignaciones(Map<String, ? extends Collection<Long>> usuariosPorTarea) {
+
+		List<Object[]> filas = new ArrayList<>();
+
+		usuariosPorTarea.forEach((tareaId, usuarios) -> usuarios
+				.forEach(usuarioId -> filas.add(new Object[] { tareaId, usuarioId })));
+
+		if (filas.isEmpty()) {
+			return;
+		}
+
+		// Lo pendiente en el contexto de persistencia debe llegar a la base antes del JDBC directo
+		em.flush();
+
+		jdbcTemplate.batchUpdate(INSERT_ASIGNACION, filas, TAMANIO_LOTE, (ps, fila) -> {
+			ps.setString(1, (String) fila[0]);
+			ps.setLong(2, (Long) fila[1]);
+		});
+	}
+
+	@Override
+	public long contarActivas(TareaFiltro filtro) {
+
+		Map<String, Object> params = new HashMap<>();
+
+		String sql = "SELECT COUNT(*) FROM tareas t" + construirWhere(filtro, params);
+
+		Query query = em.createNativeQuery(sql);
+
+		params.forEach(query::setParameter);
+
+		return ((Number) query.getSingleResult()).longValue();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<Tarea> ejecutar(String sql, Map<String, Object> params) {
+
+		Query query = em.createNativeQuery(sql, Tarea.class);
+
+		params.forEach(query::setParameter);
+
+		return query.getResultList();
+	}
+
+	private String construirWhere(TareaFiltro filtro, Map<String, Object> params) {
+
+		StringBuilder where = new StringBuilder(" WHERE t.status=1");
+
+		if (filtro.getOwnerId() != null) {
+			where.append(" AND t.owner_id = :ownerId");
+			params.put("ownerId", filtro.getOwnerId());
+		}
+
+		if (filtro.getProjectId() != null) {
+			where.append(" AND t.project_id = :projectId");
+			params.put("projectId", filtro.getProjectId());
+		}
+
+		if (filtro.getTareaStatusIds() != null && !filtro.getTareaStatusIds().isEmpty()) {
+			where.append(" AND t.id_tarea_status IN (:tareaStatusIds)");
+			params.put("tareaStatusIds", filtro.getTareaStatusIds());
+		}
+
+		if (filtro.getPrioridadIds() != null && !filtro.getPrioridadIds().isEmpty()) {
+			where.append(" AND t.id_prioridad IN (:prioridadIds)");
+			params.put("prioridadIds", filtro.getPrioridadIds());
+		}
+
+		if (filtro.getDesde() != null) {
+			where.append(" AND t.fecha_limite >= :desde");
+			params.put("desde", filtro.getDesde().atStartOfDay());
+		}
+
+		if (filtro.getHasta() != null) {
+			where.append(" AND t.fecha_limite < :hasta");
+			params.put("hasta", filtro.getHasta().plusDays(1).atStartOfDay());
+		}
+
+		if (filtro.getBusquedaTitulo() != null) {
+			where.append(" AND MATCH(t.titulo) AGAINST (:busTitle IN NATURAL LANGUAGE MODE)");
+			params.put("busTitle", filtro.getBusquedaTitulo());
+		}
+
+		if (filtro.getBusquedaDesc() != null) {
+			where.append(" AND MATCH(t.descripcion) AGAINST (:busDesc IN NATURAL LANGUAGE MODE)");
+			params.put("busDesc", filtro.getBusquedaDesc());
+		}
+
+		return where.toString();
+	}
+
+	private String construirOrderBy(Sort sort) {
+
+		StringBuilder orderBy = new StringBuilder();
+
+		boolean incluyeId = false;
+
+		for (Sort.Order order : sort) {
+
+			String columna = COLUMNAS_ORDEN.get(order.getProperty());
+
+			if (columna == null) {
+				throw new IllegalArgumentException("Campo de ordenamiento no permitido: " + order.getProperty());
+			}
+
+			orderBy.append(orderBy.isEmpty() ? " ORDER BY " : ", ").append(columna)
+					.append(order.isAscending() ? " ASC" : " DESC");
+
+			incluyeId = incluyeId || columna.equals("t.id_guid");
+		}
+
+		// Desempate por la llave primaria para que las paginas sean estables
+		if (!incluyeId) {
+			orderBy.append(orderBy.isEmpty() ? " ORDER BY " : ", ").append("t.id_guid");
+		}
+
+		return orderBy.toString();
+	}
+
+}
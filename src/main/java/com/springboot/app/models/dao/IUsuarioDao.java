@@ -3,8 +3,10 @@ package com.springboot.app.models.dao;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -17,6 +19,7 @@ public interface IUsuarioDao extends JpaRepository<Usuario, Long>{
 			+ "and u.status =?3 ;")
 	Optional<Usuario> findByEmailOrUsernameAndStatusIs(String email,String username,Short status);
 	
+	@EntityGraph(Usuario.GRAFO_ROLES)
 	List<Usuario> findByStatusIs(Short status);
 
 	boolean existsByIdAndStatusIs(Long id, Short statusActive);
@@ -33,24 +36,28 @@ public interface IUsuarioDao extends JpaRepository<Usuario, Long>{
 	
 	@NativeQuery("select u.username from usuarios u where u.id=?1")
 	String findUsernameById(Long Id);
+	
+	@NativeQuery("select u.username from usuarios u where u.id=?1 and u.status=1")
+	String findActiveUsernameById(Long Id);
 
+	@EntityGraph(Usuario.GRAFO_ROLES)
 	List<Usuario> findByUsernameContainingOrEmailContaining(String username,String email);
 
 	
-	@NativeQuery("""
-			
+	@EntityGraph(Usuario.GRAFO_ROLES)
+	@Query("""
 	select
-		u.*
+		u
 	from
-		usuarios u
-	inner join project_members pm 
-	on
-		pm.usuario_id = u.id
+		Usuario u
 	where
 		u.username like :term
-		and pm.project_id = :projectId
-		and pm.status = 1
-		and u.status = 1 ;
+		and u.status = 1
+		and exists (
+			select 1 from ProjectMember pm
+			where pm.usuario = u
+				and pm.project.idGuid = :projectId
+				and pm.status = 1)
 			""")
 	List<Usuario> findByUsernameContainingAndProjectId(@Param("term") String term, @Param("projectId") String projectId);
 	
@@ -0,0 +1,33 @@
+package com.springboot.app.models.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Criterios de busqueda de tareas. Los campos en null (o listas vacias) no
+ * generan predicado en el SQL.
+ */
+@Getter
+@Builder
+public class TareaFiltro {
+
+	private final List<Short> tareaStatusIds;
+
+	private final List<Short> prioridadIds;
+
+	private final LocalDate desde;
+
+	private final LocalDate hasta;
+
+	private final String busquedaDesc;
+
+	private final String busquedaTitulo;
+
+	private final Long ownerId;
+
+	private final String projectId;
+
+}
@@ -0,0 +1,22 @@
+package com.springboot.app.models.dtos;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(name = "AsignacionMasivaDto", description = "Tareas y usuarios para una asignación masiva. Cada usuario se asigna a cada tarea.")
+public class AsignacionMasivaDto {
+
+	@Schema(description = "GUIDs de las tareas (máximo 500).")
+	@NotEmpty
+	private List<String> tareaIds;
+
+	@Schema(description = "IDs de los usuarios a asignar (máximo 200).", example = "[5, 8, 13]")
+	@NotEmpty
+	private List<Long> userIds;
+}
@@ -0,0 +1,31 @@
+package com.springboot.app.models.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "BorradoProyectoDto", description = "Avance del borrado de un proyecto. Los proyectos grandes desactivan sus tareas por lotes en segundo plano.")
+public class BorradoProyectoDto {
+
+	@Schema(description = "Identificador del proceso de borrado. Es null cuando el borrado terminó dentro del request.", example = "5b0c1f9e-8a43-4a57-9d1e-2f1c3b7a9e10", nullable = true)
+	private String jobId;
+
+	@Schema(description = "GUID del proyecto eliminado.")
+	private String projectId;
+
+	@Schema(description = "Estado del borrado.", example = "EN_PROCESO", allowableValues = { "EN_PROCESO", "COMPLETADO", "FALLIDO" })
+	private String estado;
+
+	@Schema(description = "Tareas desactivadas hasta el momento.", example = "42000")
+	private long tareasProcesadas;
+
+	@Schema(description = "Tareas activas que tenía el proyecto al iniciar el borrado.", example = "100000")
+	private long tareasTotales;
+
+	@Schema(description = "Motivo del fallo, si lo hubo.", nullable = true)
+	private String error;
+}
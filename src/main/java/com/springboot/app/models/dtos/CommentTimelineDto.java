@@ -0,0 +1,38 @@
+package com.springboot.app.models.dtos;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+    name = "CommentTimelineDto",
+    description = "Página del timeline de comentarios de una tarea, paginada por cursor sobre (fecha de creación, id)."
+)
+public class CommentTimelineDto {
+
+    @Schema(description = "Comentarios de la página. Del más reciente al más antiguo, salvo al consultar con despuesDe, donde van en orden cronológico.")
+    private List<CommentViewDto> content;
+
+    @Schema(
+        description = "Cursor para continuar en la misma dirección de la consulta. Es null cuando no hay más resultados.",
+        example = "MjAyNS0wMS0zMVQxMDowMHw0Mg"
+    )
+    private String nextCursor;
+
+    @Schema(
+        description = "Cursor del comentario más reciente conocido. Se envía como despuesDe para obtener solo los comentarios nuevos.",
+        example = "MjAyNS0wMS0zMVQxMDowNXw0Nw",
+        nullable = true
+    )
+    private String sinceCursor;
+
+    @Schema(description = "Tamaño de página solicitado.", example = "20")
+    private int size;
+
+}
@@ -0,0 +1,38 @@
+package com.springboot.app.models.dtos;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+    name = "CursorPageDto",
+    description = "Página de resultados paginada por cursor (keyset). Para obtener la siguiente página se envía el valor de nextCursor."
+)
+public class CursorPageDto<T> {
+
+    @Schema(description = "Elementos de la página actual.")
+    private List<T> content;
+
+    @Schema(
+        description = "Cursor opaco para solicitar la siguiente página. Es null cuando no hay más resultados.",
+        example = "MjAyNS0wMS0zMVQxMDowMHw1ZjFlMmQ0Yy0..."
+    )
+    private String nextCursor;
+
+    @Schema(
+        description = "Total de elementos que cumplen los filtros. Solo se calcula si se solicita explícitamente.",
+        example = "1250",
+        nullable = true
+    )
+    private Long total;
+
+    @Schema(description = "Tamaño de página solicitado.", example = "5")
+    private int size;
+
+}
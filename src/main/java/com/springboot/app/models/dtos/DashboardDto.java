@@ -68,4 +68,10 @@ public class DashboardDto {
     )
     private Map<String, Integer> tareasPorEstatus;
 
+    @Schema(
+        description = "Indica que alguno de los contadores no pudo calcularse a tiempo y se reporta con su valor por defecto.",
+        example = "false"
+    )
+    private boolean parcial;
+
 }
@@ -0,0 +1,22 @@
+package com.springboot.app.models.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "MediaSubidaDto", description = "Archivo recibido por el backend y guardado en S3, listo para confirmarse en un comentario.")
+public class MediaSubidaDto {
+
+	@Schema(description = "Clave de almacenamiento del archivo; se envía en `confirmMediaStorageKeyId` al crear el comentario.", example = "comments/123/attachments/2025/12/file-abc123.png")
+	private String storageKey;
+
+	@Schema(description = "Tamaño del archivo en bytes.", example = "1048576")
+	private Long sizeBytes;
+
+	@Schema(description = "SHA-256 del contenido en hexadecimal.", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+	private String checksumSha256;
+}
@@ -1,7 +1,5 @@
 package com.springboot.app.models.dtos;
 
-import java.util.List;
-
 import org.hibernate.validator.constraints.Length;
 
 import com.springboot.app.models.entities.Project;
@@ -13,7 +11,7 @@ import lombok.NoArgsConstructor;
 
 @Data
 @NoArgsConstructor
-@Schema(name = "ProjectDto", description = "Información completa de un proyecto, incluyendo tareas asociadas si aplica.")
+@Schema(name = "ProjectDto", description = "Información de un proyecto. Sus tareas se consultan paginadas en /projects/{id}/tasks.")
 public class ProjectDto {
 
     @Schema(description = "Identificador único (UUID) del proyecto.", example = "123e4567-e89b-12d3-a456-426614174000")
@@ -34,9 +32,6 @@ public class ProjectDto {
     @Schema(description = "Estatus del proyecto (1: Activo, 0: Inactivo).", example = "1")
 	private Short status;
 	
-    @Schema(description = "Lista de tareas asociadas al proyecto.")
-	private List<TareaDto> listTask;
-	
 	public ProjectDto(Project project) {
         // ... (Tu constructor existente se mantiene igual)
 		this.idGuid=project.getIdGuid();
@@ -44,6 +39,5 @@ public class ProjectDto {
 		this.descripcion=project.getDescripcion();
 		this.ownerId=(project.getOwner()!=null)?project.getOwner().getId() : null;
 		this.status=project.getStatus();
-		this.listTask=(project.getListTarea()!=null)?project.getListTarea().stream().map(task -> new TareaDto(task)).toList(): null;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.springboot.app.models.dtos;
+
+import java.util.Map;
+
+import com.springboot.app.models.entities.Project;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(name = "ProjectResumenDto", description = "Resumen de un proyecto con el conteo de sus tareas activas por estatus, sin la lista de tareas.")
+public class ProjectResumenDto {
+
+	public ProjectResumenDto(Project project, Map<String, Long> tareasPorEstatus) {
+		this.idGuid = project.getIdGuid();
+		this.name = project.getName();
+		this.descripcion = project.getDescripcion();
+		this.ownerId = (project.getOwner() != null) ? project.getOwner().getId() : null;
+		this.status = project.getStatus();
+		this.tareasPorEstatus = tareasPorEstatus;
+		this.totalTareas = tareasPorEstatus.values().stream().mapToLong(Long::longValue).sum();
+	}
+
+	@Schema(description = "Identificador único (UUID) del proyecto.", example = "123e4567-e89b-12d3-a456-426614174000")
+	private String idGuid;
+
+	@Schema(description = "Nombre del proyecto.", example = "Desarrollo API REST")
+	private String name;
+
+	@Schema(description = "Descripción detallada del proyecto.", example = "Proyecto para gestionar tareas de backend.")
+	private String descripcion;
+
+	@Schema(description = "ID del usuario propietario (Owner) del proyecto.", example = "1")
+	private Long ownerId;
+
+	@Schema(description = "Estatus del proyecto (1: Activo, 0: Inactivo).", example = "1")
+	private Short status;
+
+	@Schema(description = "Total de tareas activas del proyecto.", example = "42")
+	private long totalTareas;
+
+	@Schema(description = "Tareas activas por estatus. Los estatus sin tareas no aparecen.", example = "{\"EN PROCESO\": 30, \"COMPLETADO\": 12}")
+	private Map<String, Long> tareasPorEstatus;
+}
@@ -0,0 +1,42 @@
+package com.springboot.app.models.dtos;
+
+import java.time.LocalDateTime;
+
+import com.springboot.app.models.entities.TareaCambio;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(name = "TareaCambioDto", description = "Cambio de un campo de una tarea, registrado al actualizarla.")
+public class TareaCambioDto {
+
+	public TareaCambioDto(TareaCambio cambio, String mensaje) {
+		this.campo = cambio.getCampo();
+		this.valorAnterior = cambio.getValorAnterior();
+		this.valorNuevo = cambio.getValorNuevo();
+		this.usuario = cambio.getUsuario();
+		this.fecha = cambio.getFecha();
+		this.mensaje = mensaje;
+	}
+
+	@Schema(description = "Campo modificado.", example = "PRIORIDAD")
+	private String campo;
+
+	@Schema(description = "Valor antes del cambio.", example = "BAJA")
+	private String valorAnterior;
+
+	@Schema(description = "Valor después del cambio.", example = "ALTA")
+	private String valorNuevo;
+
+	@Schema(description = "Usuario que realizó el cambio.", example = "jdoe")
+	private String usuario;
+
+	@Schema(description = "Fecha del cambio.")
+	private LocalDateTime fecha;
+
+	@Schema(description = "Descripción legible del cambio.", example = "Prioridad ha cambiado a \"ALTA\" por el usuario jdoe")
+	private String mensaje;
+}
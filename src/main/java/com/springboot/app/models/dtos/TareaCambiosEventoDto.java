@@ -0,0 +1,30 @@
+package com.springboot.app.models.dtos;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(name = "TareaCambiosEventoDto", description = "Aviso SSE de cambios en una tarea. El texto de cada cambio se obtiene de GET /tareas/{id}/cambios.")
+public class TareaCambiosEventoDto {
+
+	@Schema(description = "Id de la tarea modificada.")
+	private String tareaId;
+
+	@Schema(description = "Usuario que realizó el cambio.", example = "jdoe")
+	private String usuario;
+
+	@Schema(description = "Ids de los registros de tarea_cambios creados.")
+	private List<Long> cambioIds;
+
+	@Schema(description = "Campos modificados.", example = "[\"PRIORIDAD\"]")
+	private List<String> campos;
+
+	@Schema(description = "Usuarios a notificar: asignados, owner del proyecto y owner de la tarea, sin el autor.")
+	private List<Long> mentionsUserIds;
+}
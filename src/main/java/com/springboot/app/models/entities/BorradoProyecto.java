@@ -0,0 +1,74 @@
+package com.springboot.app.models.entities;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estado de un borrado de proyecto que corre en segundo plano. El jobId se
+ * asigna en PrePersist para que save() haga un INSERT directo.
+ */
+@Entity
+@Table(name = "borrados_proyecto", indexes = @Index(name = "idx_borrados_proyecto_project_estado", columnList = "project_id, estado"))
+@Data
+@NoArgsConstructor
+public class BorradoProyecto {
+
+	public BorradoProyecto(String projectId, Long usuarioId, long total, String estado) {
+		this.projectId = projectId;
+		this.usuarioId = usuarioId;
+		this.total = total;
+		this.estado = estado;
+	}
+
+	@Id
+	@Column(name = "job_id", length = 36)
+	private String jobId;
+
+	@Column(name = "project_id", length = 36, nullable = false)
+	@NotNull
+	private String projectId;
+
+	@Column(name = "usuario_id", nullable = false)
+	@NotNull
+	private Long usuarioId;
+
+	@Column(nullable = false)
+	private long total;
+
+	@Column(nullable = false)
+	private long procesadas;
+
+	@Column(length = 20, nullable = false)
+	@NotNull
+	private String estado;
+
+	@Column(length = 255)
+	private String error;
+
+	@Column(nullable = false)
+	private LocalDateTime inicio;
+
+	// Ultimo lote confirmado; el barrido retoma los procesos que dejaron de avanzar
+	@Column(nullable = false)
+	private LocalDateTime actualizado;
+
+	private LocalDateTime fin;
+
+	@PrePersist
+	public void prePersist() {
+		this.jobId = UUID.randomUUID().toString();
+		this.inicio = LocalDateTime.now();
+		this.actualizado = this.inicio;
+	}
+
+}
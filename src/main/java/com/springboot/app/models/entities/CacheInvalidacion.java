@@ -0,0 +1,48 @@
+package com.springboot.app.models.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "cache_invalidaciones", indexes = @Index(name = "idx_cache_invalidaciones_fecha", columnList = "fecha"))
+@Data
+@NoArgsConstructor
+public class CacheInvalidacion {
+
+	public CacheInvalidacion(Long usuarioId, String projectId) {
+		this.usuarioId = usuarioId;
+		this.projectId = projectId;
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "usuario_id", nullable = false)
+	@NotNull
+	private Long usuarioId;
+
+	@Column(name = "project_id", length = 36, nullable = false)
+	@NotNull
+	private String projectId;
+
+	@Column(nullable = false)
+	private LocalDateTime fecha;
+
+	@PrePersist
+	public void prePersist() {
+		this.fecha = LocalDateTime.now();
+	}
+
+}
@@ -10,6 +10,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.Lob;
@@ -24,7 +25,7 @@ import lombok.Data;
 import lombok.ToString;
 
 @Entity
-@Table(name = "comentarios")
+@Table(name = "comentarios", indexes = @Index(name = "idx_comentarios_tarea_status_fecha", columnList = "tarea_id, status, fecha_creacion, id"))
 @Data
 @ToString
 public class Comment {
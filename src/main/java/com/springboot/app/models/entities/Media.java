@@ -11,13 +11,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "media")
+@Table(name = "media", indexes = {
+		@Index(name = "idx_media_status_id", columnList = "status, id") })
 public class Media {
 
     @Id
@@ -48,6 +50,13 @@ public class Media {
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
+
+    // Intentos fallidos de borrar el objeto del bucket y el ultimo motivo que dio S3
+    @Column(name = "purga_intentos", nullable = false)
+    private Integer purgaIntentos;
+
+    @Column(name = "purga_error", length = 255)
+    private String purgaError;
     
     
     
@@ -55,5 +64,6 @@ public class Media {
 	public void prePersist() {
 		this.createdAt = Instant.now();
 		this.status=Constants.STATUS_PENDING;
+		this.purgaIntentos=0;
 	}
 }
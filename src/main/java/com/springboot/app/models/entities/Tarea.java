@@ -12,11 +12,14 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
@@ -32,11 +35,17 @@ import lombok.ToString;
 
 @Data
 @Entity
-@Table(name = "tareas")
+// Solo la asignacion y el retiro de miembros necesitan los usuarios asignados junto con la tarea
+@NamedEntityGraph(name = Tarea.GRAFO_USUARIOS, attributeNodes = @NamedAttributeNode("usuarios"))
+@Table(name = "tareas", indexes = {
+		@Index(name = "idx_tareas_owner_status_fecha", columnList = "owner_id, status, fecha_limite"),
+		@Index(name = "idx_tareas_project_status_fecha", columnList = "project_id, status, fecha_limite, id_guid") })
 @NoArgsConstructor
 @ToString
 public class Tarea {
 
+	public static final String GRAFO_USUARIOS = "Tarea.usuarios";
+
 	public Tarea(TareaDto dto,TareaStatus tareaStatus,PrioridadTarea prioridadStatus) {
 		
 		this.idGuid=dto.getIdGuid();
@@ -91,7 +100,7 @@ public class Tarea {
 	@OneToMany(fetch = FetchType.LAZY,mappedBy = "tarea")
 	private List<TareaTags> tareaTagsList;
 	
-	@ManyToMany(fetch = FetchType.EAGER)
+	@ManyToMany(fetch = FetchType.LAZY)
 	@JoinTable(
 	name = "tareas_usuario",
 	joinColumns = @JoinColumn(name="tarea_id"),
@@ -0,0 +1,61 @@
+package com.springboot.app.models.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "tarea_cambios", indexes = @Index(name = "idx_tarea_cambios_tarea_fecha", columnList = "tarea_id, fecha, id"))
+@Data
+@NoArgsConstructor
+public class TareaCambio {
+
+	public TareaCambio(String tareaId, String campo, String valorAnterior, String valorNuevo, String usuario) {
+		this.tareaId = tareaId;
+		this.campo = campo;
+		this.valorAnterior = valorAnterior;
+		this.valorNuevo = valorNuevo;
+		this.usuario = usuario;
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "tarea_id", length = 36, nullable = false)
+	@NotNull
+	private String tareaId;
+
+	@Column(length = 20, nullable = false)
+	@NotNull
+	private String campo;
+
+	@Column(name = "valor_anterior", length = 255)
+	private String valorAnterior;
+
+	@Column(name = "valor_nuevo", length = 255)
+	private String valorNuevo;
+
+	@Column(length = 50, nullable = false)
+	@NotNull
+	private String usuario;
+
+	@Column(nullable = false)
+	private LocalDateTime fecha;
+
+	@PrePersist
+	public void prePersist() {
+		this.fecha = LocalDateTime.now();
+	}
+
+}
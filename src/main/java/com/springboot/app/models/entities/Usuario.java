@@ -14,6 +14,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
@@ -23,10 +25,13 @@ import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 @Entity
+@NamedEntityGraph(name = Usuario.GRAFO_ROLES, attributeNodes = @NamedAttributeNode("roles"))
 @Table(name = "usuarios")
 @Data
 public class Usuario {
 
+	public static final String GRAFO_ROLES = "Usuario.roles";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
@@ -44,7 +49,7 @@ public class Usuario {
 	@NotBlank
 	private String password;
 	
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "usuario_roles",
         joinColumns = @JoinColumn(name = "usuario_id"),
@@ -1,10 +1,18 @@
 package com.springboot.app.models.services;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
 import com.springboot.app.models.dao.IPrioridadTareaDao;
 import com.springboot.app.models.dao.ITareaStatusDao;
@@ -13,6 +21,11 @@ import com.springboot.app.models.dtos.TareaStatusDto;
 import com.springboot.app.models.entities.PrioridadTarea;
 import com.springboot.app.models.entities.TareaStatus;
 
+/**
+ * Catalogos de prioridades y estatus de tarea. Son tablas pequeñas que casi
+ * no cambian, asi que se sirven desde una copia inmutable en memoria que se
+ * carga al iniciar y se reemplaza completa con {@link #refrescar()}.
+ */
 @Service
 @Transactional(readOnly = true)
 public class CatalogoService {
@@ -21,6 +34,8 @@ public class CatalogoService {
 
 	private final ITareaStatusDao tareaStatusDao;
 
+	private volatile Snapshot snapshot;
+
 	public CatalogoService(IPrioridadTareaDao prioridadDao, ITareaStatusDao tareaStatusDao) {
 		super();
 		this.prioridadDao = prioridadDao;
@@ -28,22 +43,87 @@ public class CatalogoService {
 	}
 	
 	
+	@EventListener(ApplicationReadyEvent.class)
+	public void refrescar() {
+
+		List<PrioridadTareaDto> prioridades = prioridadDao.findAll().stream()
+				.map(p -> new PrioridadTareaDto(p))
+				.sorted(Comparator.comparing(PrioridadTareaDto::getId))
+				.toList();
+
+		List<TareaStatusDto> estatus = tareaStatusDao.findAll().stream()
+				.map(ts -> new TareaStatusDto(ts))
+				.sorted(Comparator.comparing(TareaStatusDto::getId))
+				.toList();
+
+		snapshot = new Snapshot(
+				prioridades,
+				estatus,
+				prioridades.stream().collect(Collectors.toUnmodifiableMap(PrioridadTareaDto::getId, Function.identity())),
+				estatus.stream().collect(Collectors.toUnmodifiableMap(TareaStatusDto::getId, Function.identity())),
+				calcularEtag(prioridades.stream().map(p -> p.getId() + ":" + p.getPrioridadTipo()).toList()),
+				calcularEtag(estatus.stream().map(ts -> ts.getId() + ":" + ts.getStatus()).toList()));
+	}
+	
 	
 	public List<PrioridadTareaDto> findAllPrioridadesTarea() {
 
-		return prioridadDao.findAll().stream().map(p -> new PrioridadTareaDto(p)).toList();
+		return getSnapshot().prioridades();
 	}
 	
 	public List<TareaStatusDto> findAllTareaStatus() {
-		return tareaStatusDao.findAll().stream().map(ts -> new TareaStatusDto(ts)).toList();
+		return getSnapshot().estatus();
+	}
+	
+	public String getEtagPrioridades() {
+		return getSnapshot().etagPrioridades();
+	}
+	
+	public String getEtagTareaStatus() {
+		return getSnapshot().etagEstatus();
 	}
 	
+	// Se entrega una entidad nueva en cada llamada; solo lleva id y nombre
 	public Optional<PrioridadTarea> findPrioridadTareaById(Short id){
-		return prioridadDao.findById(id);
+		
+		return Optional.ofNullable(getSnapshot().prioridadesPorId().get(id)).map(dto -> {
+			PrioridadTarea prioridad = new PrioridadTarea();
+			prioridad.setId(dto.getId());
+			prioridad.setPrioridadTipo(dto.getPrioridadTipo());
+			return prioridad;
+		});
 	}
 	
 	public Optional<TareaStatus> findTareaStatusById(Short id){
-		return tareaStatusDao.findById(id);
+		
+		return Optional.ofNullable(getSnapshot().estatusPorId().get(id)).map(dto -> {
+			TareaStatus tareaStatus = new TareaStatus();
+			tareaStatus.setId(dto.getId());
+			tareaStatus.setStatus(dto.getStatus());
+			return tareaStatus;
+		});
+	}
+	
+	
+	private Snapshot getSnapshot() {
+		
+		if (snapshot == null) {
+			refrescar();
+		}
+		
+		return snapshot;
+	}
+	
+	
+	private static String calcularEtag(List<String> valores) {
+		
+		return "\"" + DigestUtils.md5DigestAsHex(String.join(";", valores).getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+	
+	
+	private record Snapshot(List<PrioridadTareaDto> prioridades, List<TareaStatusDto> estatus,
+			Map<Short, PrioridadTareaDto> prioridadesPorId, Map<Short, TareaStatusDto> estatusPorId,
+			String etagPrioridades, String etagEstatus) {
 	}
 	
 }
@@ -1,18 +1,28 @@
 package com.springboot.app.models.services;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.springboot.app.models.dao.CommentFila;
 import com.springboot.app.models.dao.ICommentDao;
 import com.springboot.app.models.dtos.CommentDto;
+import com.springboot.app.models.dtos.CommentTimelineDto;
 import com.springboot.app.models.dtos.CommentUpdateDto;
 import com.springboot.app.models.dtos.CommentViewDto;
 import com.springboot.app.models.entities.Comment;
@@ -20,6 +30,8 @@ import com.springboot.app.models.entities.Media;
 import com.springboot.app.models.entities.Tarea;
 import com.springboot.app.models.entities.Usuario;
 import com.springboot.app.utils.Constants;
+import com.springboot.app.utils.CursorCodec;
+import com.springboot.app.utils.TareaEventBus;
 import com.springboot.app.utils.Utils;
 
 @Service
@@ -35,14 +47,17 @@ public class CommentServiceImpl implements ICommentService {
 
 	private final IProjectMemberService projectMemberService;
 
+	private final TareaEventBus eventBus;
+
 	public CommentServiceImpl(ICommentDao commentDao, ITareaService tareaService, IUsuarioService usuarioService,
-			IMediaService mediaService, IProjectMemberService projectMemberService) {
+			IMediaService mediaService, IProjectMemberService projectMemberService, TareaEventBus eventBus) {
 		super();
 		this.commentDao = commentDao;
 		this.tareaService = tareaService;
 		this.usuarioService = usuarioService;
 		this.mediaService = mediaService;
 		this.projectMemberService = projectMemberService;
+		this.eventBus = eventBus;
 	}
 
 	@Override
@@ -76,7 +91,11 @@ public class CommentServiceImpl implements ICommentService {
 		comment.setMentions(mentions);
 		comment.setTarea(tarea);
 
-		return new CommentDto(commentDao.save(comment));
+		Comment guardado = commentDao.save(comment);
+
+		publicarComentario(guardado);
+
+		return new CommentDto(guardado);
 	}
 
 	@Override
@@ -108,46 +127,119 @@ public class CommentServiceImpl implements ICommentService {
 		comment.setTarea(tarea);
 		comment.setAdjuntos(mediasSaved);
 
-		return new CommentDto(commentDao.save(comment));
+		Comment guardado = commentDao.save(comment);
+
+		publicarComentario(guardado);
+
+		return new CommentDto(guardado);
 	}
 
-@Override
-    @Transactional(readOnly = true)
-    public Page<CommentViewDto> getAll(Integer pagina, Integer tamanio, String sorts, Long userId) {
+	@Override
+	public SseEmitter suscribirEventos(String tareaId, Long userId) {
 
-        Pageable pageable = PageRequest.of(pagina, tamanio, Utils.parseSortParams(sorts));
+		validarAccesoTarea(tareaId, userId);
 
-        Page<CommentViewDto> pageDtos = commentDao.findAllByUserId(pageable, userId).map(comm -> {
-            
-           
-            List<Media> listaAdjuntos = comm.getAdjuntos() != null ? comm.getAdjuntos() : Collections.emptyList();
+		return eventBus.suscribir(tareaId);
+	}
+
+	private void publicarComentario(Comment comment) {
+
+		Utils.ejecutarDespuesDelCommit(() -> {
 
-           
-            List<Media> medias = listaAdjuntos.stream()
-                    .filter(media -> Constants.STATUS_READY.equals(media.getStatus())) 
-                    .toList();
+			CommentViewDto dto = new CommentViewDto(comment);
 
-			if (medias.isEmpty()) {
-				  CommentViewDto dto = new CommentViewDto(comm);
-				  return dto;
+			List<String> keys = comment.getAdjuntos() == null ? Collections.emptyList()
+					: comment.getAdjuntos().stream()
+							.filter(media -> Constants.STATUS_READY.equals(media.getStatus()))
+							.map(media -> media.getStorageKey())
+							.toList();
+
+			if (!keys.isEmpty()) {
+				Map<String, String> urls = mediaService.createPresignedGetUrls(keys);
+				dto.setConfirmMediasStorageKeyUrls(keys.stream().map(urls::get).toList());
 			}
 
-            List<String> keys = medias.stream().map(m -> m.getStorageKey()).toList();
-            List<String> urls = mediaService.createPresignedGetUrls(keys);
+			eventBus.publicar(dto.getTareaId(), TareaEventBus.EVENTO_COMENTARIO, dto);
+		});
+	}
 
-            CommentViewDto dto = new CommentViewDto(comm);
-            dto.setConfirmMediasStorageKeyUrls(urls);
+@Override
+    @Transactional(readOnly = true)
+    public Page<CommentViewDto> getAll(Integer pagina, Integer tamanio, String sorts, Long userId) {
 
-            return dto;
-        });
+        Pageable pageable = PageRequest.of(pagina, tamanio, Utils.parseSortParams(sorts));
 
-        return pageDtos;
+        return armarPagina(commentDao.findAllByUserId(pageable, userId));
     }
 
 	@Override
 	public Page<CommentViewDto> getAllByTareaId(Integer pagina, Integer tamanio, String sorts, Long userId,
 			String tareaId) {
 
+		validarAccesoTarea(tareaId, userId);
+
+		Pageable pageable = PageRequest.of(pagina, tamanio, Utils.parseSortParams(sorts));
+
+
+		return armarPagina(commentDao.findAllByTareaId(pageable, tareaId));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CommentTimelineDto getTimelineByTareaId(String tareaId, int tamanio, String antesDe, String despuesDe,
+			Long userId) {
+
+		if (tamanio < 1) {
+			throw new IllegalArgumentException("El tamaño de pagina debe ser mayor a 0");
+		}
+
+		if (StringUtils.hasText(antesDe) && StringUtils.hasText(despuesDe)) {
+			throw new IllegalArgumentException("Solo se puede enviar antesDe o despuesDe");
+		}
+
+		validarAccesoTarea(tareaId, userId);
+
+		List<CommentFila> filas;
+
+		if (StringUtils.hasText(despuesDe)) {
+
+			CursorComentario desde = decodificarCursor(despuesDe);
+
+			// Se pide un elemento extra solo para saber si existe una pagina siguiente
+			filas = commentDao.findTimelineDespuesDe(tareaId, Constants.STATUS_ACTIVE, desde.fecha(), desde.id(),
+					tamanio + 1);
+
+		} else if (StringUtils.hasText(antesDe)) {
+
+			CursorComentario hasta = decodificarCursor(antesDe);
+
+			filas = commentDao.findTimelineAntesDe(tareaId, Constants.STATUS_ACTIVE, hasta.fecha(), hasta.id(),
+					tamanio + 1);
+
+		} else {
+			filas = commentDao.findTimeline(tareaId, Constants.STATUS_ACTIVE, tamanio + 1);
+		}
+
+		boolean hayMas = filas.size() > tamanio;
+
+		List<CommentFila> pagina = hayMas ? filas.subList(0, tamanio) : filas;
+
+		String nextCursor = hayMas ? codificarCursor(pagina.get(pagina.size() - 1)) : null;
+
+		String sinceCursor;
+
+		if (StringUtils.hasText(despuesDe)) {
+			// En orden cronologico el mas reciente es el ultimo; sin novedades se conserva el cursor recibido
+			sinceCursor = pagina.isEmpty() ? despuesDe : codificarCursor(pagina.get(pagina.size() - 1));
+		} else {
+			sinceCursor = pagina.isEmpty() ? null : codificarCursor(pagina.get(0));
+		}
+
+		return new CommentTimelineDto(armarComentarios(pagina), nextCursor, sinceCursor, tamanio);
+	}
+
+	private void validarAccesoTarea(String tareaId, Long userId) {
+
 		Tarea tarea = tareaService.findByIdGuid(tareaId)
 				.orElseThrow(() -> new NoSuchElementException("Tarea no encontrada"));
 
@@ -160,38 +252,77 @@ public class CommentServiceImpl implements ICommentService {
 		if (!(isOwner || isUsuarioAsignado || isMiembroProyecto)) {
 			throw new SecurityException("No tienes los permisos necesarios para esta tarea");
 		}
+	}
 
-		Pageable pageable = PageRequest.of(pagina, tamanio, Utils.parseSortParams(sorts));
+	private static String codificarCursor(CommentFila fila) {
 
+		return CursorCodec.codificar(fila.getFechaCreacion().toString(), fila.getId().toString());
+	}
 
-		Page<CommentViewDto> pageDtos = commentDao.findAllByTareaId(pageable, tareaId).map(comm -> {
+	private static CursorComentario decodificarCursor(String cursor) {
 
-			List<Media> listaAdjuntos = comm.getAdjuntos() != null ? comm.getAdjuntos() : Collections.emptyList();
+		String[] partes = CursorCodec.decodificar(cursor, 2);
 
-			
-			List<Media> medias = listaAdjuntos.stream()
-					.filter(media -> media.getStatus().equals(Constants.STATUS_READY))
-						.toList();
-
-			if (medias.isEmpty()) {
-				  CommentViewDto dto = new CommentViewDto(comm);
-				  return dto;
-			}			
-									
-			List<String> urls = mediaService.createPresignedGetUrls(medias.stream().map(m -> m.getStorageKey()).toList());
-			
-			CommentViewDto dto = new CommentViewDto(comm);
-			
-			dto.setConfirmMediasStorageKeyUrls(urls);
-			
-			return dto;
-			
-		});
-		
-		
-		
+		try {
+			return new CursorComentario(LocalDateTime.parse(partes[0]), Long.valueOf(partes[1]));
+		} catch (DateTimeParseException | NumberFormatException e) {
+			throw new IllegalArgumentException("Cursor invalido");
+		}
+	}
 
-		return pageDtos;
+	private Page<CommentViewDto> armarPagina(Page<CommentFila> filas) {
+
+		return new PageImpl<>(armarComentarios(filas.getContent()), filas.getPageable(), filas.getTotalElements());
+	}
+
+	// La pagina se arma con consultas constantes: las filas, las menciones y los adjuntos
+	// listos de todos los comentarios se cargan con IN en lugar de uno por uno
+	private List<CommentViewDto> armarComentarios(List<CommentFila> filas) {
+
+		List<Long> ids = filas.stream().map(CommentFila::getId).toList();
+
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Map<Long, List<Long>> menciones = agruparPorComentario(commentDao.findMentionIdsByCommentIds(ids), Long.class);
+
+		Map<Long, List<String>> adjuntos = agruparPorComentario(
+				commentDao.findAdjuntoKeysByCommentIds(ids, Constants.STATUS_READY), String.class);
+
+		List<String> keys = adjuntos.values().stream().flatMap(List::stream).toList();
+
+		// Una sola firma en lote para todos los adjuntos de la pagina
+		Map<String, String> urls = keys.isEmpty() ? Collections.emptyMap() : mediaService.createPresignedGetUrls(keys);
+
+		return filas.stream().map(fila -> toViewDto(fila, menciones, adjuntos, urls)).toList();
+	}
+
+	private CommentViewDto toViewDto(CommentFila fila, Map<Long, List<Long>> menciones,
+			Map<Long, List<String>> adjuntos, Map<String, String> urls) {
+
+		List<String> keys = adjuntos.get(fila.getId());
+
+		return new CommentViewDto(
+				fila.getId(),
+				fila.getTareaId(),
+				fila.getAutorId(),
+				fila.getBody(),
+				menciones.get(fila.getId()),
+				keys != null ? keys.stream().map(urls::get).toList() : null,
+				fila.getStatus(),
+				fila.getFechaCreacion());
+	}
+
+	private static <T> Map<Long, List<T>> agruparPorComentario(List<Object[]> filas, Class<T> tipo) {
+
+		Map<Long, List<T>> resultado = new HashMap<>();
+
+		for (Object[] fila : filas) {
+			resultado.computeIfAbsent(((Number) fila[0]).longValue(), k -> new ArrayList<>()).add(tipo.cast(fila[1]));
+		}
+
+		return resultado;
 	}
 
 	@Override
@@ -248,9 +379,8 @@ public class CommentServiceImpl implements ICommentService {
 
 		return new CommentDto(commentDao.save(comment));
 	}
-	
-	
-	
 
+	private record CursorComentario(LocalDateTime fecha, Long id) {
+	}
 
 }
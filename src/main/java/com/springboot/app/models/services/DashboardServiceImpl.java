@@ -1,63 +1,268 @@
 package com.springboot.app.models.services;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.springboot.app.models.dtos.DashboardDto;
-import com.springboot.app.models.entities.Usuario;
+import com.springboot.app.utils.DashboardCounterStore;
+import com.springboot.app.utils.DashboardCounterStore.TareaResumen;
 
 @Service
 public class DashboardServiceImpl implements IDashboardService {
 
+	private static final String MODO_PARALELO = "paralelo";
+
 	private final StatsService statsService;
 	
-	private final IUsuarioService usuarioService;
+	private final DashboardCounterStore counterStore;
+	
+	private final ExecutorService dashboardExecutor;
+	
+	// consolidado: una sola consulta; paralelo: cada contador en su propia conexion
+	@Value("${app.dashboard.modo:consolidado}")
+	private String modo;
+	
+	@Value("${app.dashboard.timeoutMs:2000}")
+	private long timeoutMs;
 	
 
 
-	public DashboardServiceImpl(StatsService statsService, IUsuarioService usuarioService) {
+	public DashboardServiceImpl(StatsService statsService, DashboardCounterStore counterStore,
+			@Qualifier("dashboardExecutor") ExecutorService dashboardExecutor) {
 		super();
 		this.statsService = statsService;
-		this.usuarioService = usuarioService;
+		this.counterStore = counterStore;
+		this.dashboardExecutor = dashboardExecutor;
 	}
 
 
 	@Override
 	public DashboardDto getDashboardInfo(Long userId) {
 	
-		Usuario user = usuarioService.findByUserId(userId);
+		return counterStore.leer(userId).orElseGet(
+				() -> MODO_PARALELO.equals(modo) ? cargarDashboardParalelo(userId) : cargarDashboard(userId));
+	}
+	
+	
+	private DashboardDto cargarDashboard(Long userId) {
 		
+		long version = counterStore.version(userId);
+	
+		List<Object[]> filas = statsService.getDashboardByUserId(userId);
 		
-		Map<String,Integer> mapCountersTareaStatus = statsService.countTareasByTareaStatus(userId).stream()
-	            .collect(Collectors.toMap(
-	                n -> (String) n[0], 
-	                n -> ((Number) n[1]).intValue() 
-	            ));
-
-	   
-	    Map<String,Integer> mapCountersTareaPrioridad = statsService.countTareasByPrioridad(userId).stream()
-	            .collect(Collectors.toMap(
-	                n -> (String) n[0], 
-	                n -> ((Number) n[1]).intValue()
-	            ));
+		String username = null;
+		
+		Map<String, Long> contadores = new HashMap<>();
+		
+		Map<String,Integer> mapCountersTareaStatus = new HashMap<>();
+		
+		Map<String,Integer> mapCountersTareaPrioridad = new HashMap<>();
 		
+		for (Object[] fila : filas) {
+			
+			String categoria = (String) fila[0];
+			
+			String clave = (String) fila[1];
+			
+			Number valor = (Number) fila[2];
+			
+			switch (categoria) {
+			case "USUARIO" -> username = clave;
+			case "ESTATUS" -> mapCountersTareaStatus.put(clave, valor.intValue());
+			case "PRIORIDAD" -> mapCountersTareaPrioridad.put(clave, valor.intValue());
+			default -> contadores.put(categoria, valor.longValue());
+			}
+		}
+		
+		if (username == null) {
+			throw new NoSuchElementException("Usuario no encontrado");
+		}
 	
 		DashboardDto dto = DashboardDto.builder()
-				.username(user.getUsername())
+				.username(username)
 				.usuarioId(userId)
-				.proyectosComoOwner(statsService.getProjectCountRoleOwner(userId))
-				.proyectosTotalActivos(statsService.getProjectCountActive(userId))
-				.tareasParaHoy(statsService.getTareasHoyCountByUserId(userId))
-				.tareasPendientes(statsService.getTareasPendientesCountByUserId(userId))
-				.tareasVencidas(statsService.getTareasVencidasCountByUserId(userId))
+				.proyectosComoOwner(contadores.getOrDefault("PROYECTOS_OWNER", 0L))
+				.proyectosTotalActivos(contadores.getOrDefault("PROYECTOS_ACTIVOS", 0L))
+				.tareasParaHoy(contadores.getOrDefault("TAREAS_HOY", 0L))
+				.tareasPendientes(contadores.getOrDefault("TAREAS_PENDIENTES", 0L))
+				.tareasVencidas(contadores.getOrDefault("TAREAS_VENCIDAS", 0L))
 				.tareasPorEstatus(mapCountersTareaStatus)
 				.tareasPorPrioridad(mapCountersTareaPrioridad)
 				.build();
 		
+		// El detalle por tarea solo se lee cuando hay memoria que llenar
+		if (counterStore.habilitado()) {
+			guardarEnMemoria(userId, version, dto, statsService.getResumenTareasByUserId(userId));
+		}
+		
+		return dto;
+	}
+	
+	
+	private DashboardDto cargarDashboardParalelo(Long userId) {
+		
+		long version = counterStore.version(userId);
+		
+		Recolector recolector = new Recolector(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs));
+		
+		Future<String> username = enviar(recolector, () -> statsService.getUsernameActivo(userId));
+		Future<Integer> proyectosOwner = enviar(recolector, () -> statsService.getProjectCountRoleOwner(userId));
+		Future<Integer> proyectosActivos = enviar(recolector, () -> statsService.getProjectCountActive(userId));
+		Future<Integer> tareasHoy = enviar(recolector, () -> statsService.getTareasHoyCountByUserId(userId));
+		Future<Integer> tareasPendientes = enviar(recolector, () -> statsService.getTareasPendientesCountByUserId(userId));
+		Future<Integer> tareasVencidas = enviar(recolector, () -> statsService.getTareasVencidasCountByUserId(userId));
+		Future<List<Object[]>> porEstatus = enviar(recolector, () -> statsService.countTareasByTareaStatus(userId));
+		Future<List<Object[]>> porPrioridad = enviar(recolector, () -> statsService.countTareasByPrioridad(userId));
+		Future<List<Object[]>> resumen = counterStore.habilitado()
+				? enviar(recolector, () -> statsService.getResumenTareasByUserId(userId))
+				: null;
+		
+		String nombre = recolector.obtener(username, null);
+		
+		// Sin timeout de por medio, un username null significa que el usuario no existe o esta inactivo
+		if (nombre == null && !recolector.isParcial()) {
+			recolector.cancelarPendientes();
+			throw new NoSuchElementException("Usuario no encontrado");
+		}
+		
+		DashboardDto dto = DashboardDto.builder()
+				.username(nombre)
+				.usuarioId(userId)
+				.proyectosComoOwner(recolector.obtener(proyectosOwner, 0))
+				.proyectosTotalActivos(recolector.obtener(proyectosActivos, 0))
+				.tareasParaHoy(recolector.obtener(tareasHoy, 0))
+				.tareasPendientes(recolector.obtener(tareasPendientes, 0))
+				.tareasVencidas(recolector.obtener(tareasVencidas, 0))
+				.tareasPorEstatus(aMapa(recolector.obtener(porEstatus, List.of())))
+				.tareasPorPrioridad(aMapa(recolector.obtener(porPrioridad, List.of())))
+				.build();
+		
+		List<Object[]> tareas = resumen != null ? recolector.obtener(resumen, null) : null;
+		
+		dto.setParcial(recolector.isParcial());
+		
+		// Un resultado parcial nunca se guarda en memoria
+		if (tareas != null && !recolector.isParcial()) {
+			guardarEnMemoria(userId, version, dto, tareas);
+		}
+		
 		return dto;
 	}
+	
+	
+	private <T> Future<T> enviar(Recolector recolector, Callable<T> consulta) {
+		
+		Future<T> futuro;
+		
+		try {
+			futuro = dashboardExecutor.submit(consulta);
+		} catch (RejectedExecutionException e) {
+			futuro = CompletableFuture.failedFuture(e);
+		}
+		
+		recolector.registrar(futuro);
+		
+		return futuro;
+	}
+	
+	
+	private void guardarEnMemoria(Long userId, long version, DashboardDto dto, List<Object[]> resumen) {
+		
+		List<TareaResumen> tareas = resumen.stream()
+				.map(t -> new TareaResumen((String) t[0], aFecha(t[1]), ((Number) t[2]).shortValue(), (String) t[3],
+						(String) t[4]))
+				.toList();
+		
+		counterStore.cargar(userId, version, dto.getUsername(), dto.getProyectosTotalActivos(),
+				dto.getProyectosComoOwner(), dto.getTareasPorEstatus().keySet(), dto.getTareasPorPrioridad().keySet(),
+				tareas);
+	}
+	
+	
+	private static Map<String, Integer> aMapa(List<Object[]> filas) {
+		
+		return filas.stream()
+	            .collect(Collectors.toMap(
+	                n -> (String) n[0], 
+	                n -> ((Number) n[1]).intValue() 
+	            ));
+	}
+	
+	
+	private static LocalDateTime aFecha(Object valor) {
+		
+		if (valor instanceof Timestamp timestamp) {
+			return timestamp.toLocalDateTime();
+		}
+		
+		return (LocalDateTime) valor;
+	}
+	
+	
+	/**
+	 * Espera los resultados de las consultas en paralelo contra un mismo limite
+	 * de tiempo. Una consulta que falla o no termina a tiempo se cancela, se
+	 * sustituye por su valor por defecto y marca el resultado como parcial.
+	 */
+	private static class Recolector {
+		
+		private final long limiteNanos;
+		
+		private final List<Future<?>> futuros = new ArrayList<>();
+		
+		private boolean parcial;
+		
+		Recolector(long limiteNanos) {
+			this.limiteNanos = limiteNanos;
+		}
+		
+		void registrar(Future<?> futuro) {
+			futuros.add(futuro);
+		}
+		
+		<T> T obtener(Future<T> futuro, T porDefecto) {
+			
+			try {
+				return futuro.get(Math.max(0, limiteNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException | TimeoutException e) {
+				// Se reporta como resultado parcial
+			}
+			
+			futuro.cancel(true);
+			
+			parcial = true;
+			
+			return porDefecto;
+		}
+		
+		boolean isParcial() {
+			return parcial;
+		}
+		
+		void cancelarPendientes() {
+			futuros.forEach(futuro -> futuro.cancel(true));
+		}
+	}
 
 
 
@@ -3,8 +3,10 @@ package com.springboot.app.models.services;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.springboot.app.models.dtos.CommentDto;
+import com.springboot.app.models.dtos.CommentTimelineDto;
 import com.springboot.app.models.dtos.CommentUpdateDto;
 import com.springboot.app.models.dtos.CommentViewDto;
 import com.springboot.app.models.entities.Media;
@@ -23,6 +25,10 @@ public interface ICommentService {
 
 	Page<CommentViewDto> getAllByTareaId(Integer pagina, Integer tamanio, String sorts, Long userId, String tareaId);
 
+	CommentTimelineDto getTimelineByTareaId(String tareaId, int tamanio, String antesDe, String despuesDe, Long userId);
+
+	SseEmitter suscribirEventos(String tareaId, Long userId);
+
 	void deleteComment(Long commentId, Long userId);
 
 	CommentDto updateComment(Long commentId, CommentUpdateDto dto, Long userId);
@@ -1,6 +1,9 @@
 package com.springboot.app.models.services;
 
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.springboot.app.models.dtos.UploadRequestDto;
@@ -15,9 +18,11 @@ public interface IMediaService {
 
 	List<Media> updateStatusMedia(List<String> confirmMediaStorageKeyId, Long authUserId);
 
+	Media subirArchivo(String fileName, String mime, InputStream contenido, Long authUserId);
+
 	List<Media> saveAll(List<Media> mediaInactive);
 	
 	
-	List<String> createPresignedGetUrls(List<String> storageKeys);
+	Map<String, String> createPresignedGetUrls(Collection<String> storageKeys);
 	
 }
@@ -4,8 +4,11 @@ package com.springboot.app.models.services;
 
 
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import com.springboot.app.models.dtos.ProjectMemberDto;
 import com.springboot.app.models.entities.ProjectMember;
@@ -44,4 +47,12 @@ public interface IProjectMemberService {
 	void deleteProjectMember(Long authUserId, String projectId, Long userId);
 
 	boolean isMemberActive(Long usuarioId, String projectId);
+
+	Map<String, Set<Long>> findMiembrosActivos(Collection<String> projectIds, Collection<Long> usuarioIds);
+
+	Set<String> findProyectosOwner(Long userId, Collection<String> projectIds);
+
+	void desactivarMiembros(String projectId, String usuario);
+
+	List<Long> findUsuarioIdsActivos(String projectId);
 }
@@ -4,34 +4,35 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import com.springboot.app.models.dtos.BorradoProyectoDto;
 import com.springboot.app.models.dtos.ProjectDto;
-import com.springboot.app.models.dtos.TareaDto;
+import com.springboot.app.models.dtos.ProjectResumenDto;
 import com.springboot.app.models.entities.Project;
 
 public interface IProjectService {
 
-	List<ProjectDto> findByOwnerId(Long userId);
+	List<ProjectResumenDto> findByOwnerId(Long userId);
 	
 	ProjectDto save(ProjectDto dto,Long userId);
 
-	ProjectDto findByProjectIdAndUserId(String id, Long userId);
-
-	List<TareaDto> findTasksByProjectId(String id, Long userId);
+	ProjectResumenDto findByProjectIdAndUserId(String id, Long userId);
 	
 	boolean existsProjectActive(String id);
 
 	Optional<Project> findByProjectId(String projectId);
 
-	void deleteProject(String projectId, Long userId);
+	BorradoProyectoDto deleteProject(String projectId, Long userId);
+
+	BorradoProyectoDto getBorrado(String projectId, String jobId, Long userId);
 
 	
 	public Map<Short, String> getAllStatuses();
 	
 	 public String getStatusByKey(short statusKey);
 
-	 Map<String, List<ProjectDto>> findProjectsById(Long userId);
+	 Map<String, List<ProjectResumenDto>> findProjectsById(Long userId);
 	 
-	 List<ProjectDto> findProjectsLikeMemberByUserId(Long userId);
+	 List<ProjectResumenDto> findProjectsLikeMemberByUserId(Long userId);
 	
 
 }
@@ -6,6 +6,8 @@ import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 
+import com.springboot.app.models.dtos.CursorPageDto;
+import com.springboot.app.models.dtos.TareaCambioDto;
 import com.springboot.app.models.dtos.TareaDto;
 import com.springboot.app.models.entities.Tag;
 import com.springboot.app.models.entities.Tarea;
@@ -19,6 +21,10 @@ public interface ITareaService {
 	
 	Page<TareaDto> getAllActives(int pagina,int tamanio, List<Short> tareaStatusIds, List<Short> prioridadIds, LocalDate fechaLimiteDesde, LocalDate fechaLimiteHasta, String busquedaDesc, String busquedaTitulo, String sorts, Long ownerId);
 	
+	CursorPageDto<TareaDto> getAllActivesCursor(String cursor, int tamanio, List<Short> tareaStatusIds, List<Short> prioridadIds, LocalDate fechaLimiteDesde, LocalDate fechaLimiteHasta, String busquedaDesc, String busquedaTitulo, boolean incluirTotal, Long ownerId);
+	
+	CursorPageDto<TareaDto> getTareasByProjectIdCursor(String projectId, String cursor, int tamanio, boolean incluirTotal, Long userId);
+	
 	TareaDto save(TareaDto dto, Long userId);
 	
 	boolean isAsignedToThisTask(String tareaId,Long userId);
@@ -26,6 +32,8 @@ public interface ITareaService {
 
 	void asignarTarea(List<Long> userIds, String tareaId, Long userId);
 
+	void asignarTareas(List<String> tareaIds, List<Long> userIds, Long userId);
+
 	List<TareaDto> getTareasAsignadasByProjectId(String projectId, Long userId);
 
 	void deleteTarea(String tareaId, Long authUserId);
@@ -35,6 +43,8 @@ public interface ITareaService {
 	
 	List<Tag> getTagsFromTarea(String idGuid);
 	
+	Page<TareaCambioDto> getCambios(String tareaId, int pagina, int tamanio, Long userId);
+	
 	
 	
 }
@@ -0,0 +1,159 @@
+package com.springboot.app.models.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.app.models.dao.IMediaDao;
+import com.springboot.app.models.entities.Media;
+import com.springboot.app.utils.Constants;
+
+/**
+ * Elimina las subidas que nunca se confirmaron: filas PENDING creadas por
+ * createUploadUrls cuya URL firmada ya vencio (presignMinutes mas un margen de
+ * gracia). Cada bloque primero reclama las filas con un UPDATE condicional
+ * PENDING -> STATUS_REAPING; solo se borran los objetos de las filas
+ * reclamadas, asi una confirmacion que llegue a la vez gana o falla, pero
+ * nunca queda READY sin objeto. Las filas cuyo objeto no se pudo borrar
+ * siguen en REAPING y se reintentan. El ritmo se limita a
+ * reaperFilasPorSegundo para no competir con el trafico normal de la base.
+ */
+@Service
+public class MediaHuerfanaService {
+
+	private final IMediaDao mediaDao;
+
+	private final MediaStorageService storageService;
+
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${app.s3.presignMinutes}")
+	private long presignMinutes;
+
+	@Value("${app.media.reaperGraciaMinutos:30}")
+	private long graciaMinutos;
+
+	// 0 desactiva el limite
+	@Value("${app.media.reaperFilasPorSegundo:500}")
+	private long filasPorSegundo;
+
+	private final AtomicLong ejecuciones = new AtomicLong();
+
+	private final AtomicLong filasEliminadas = new AtomicLong();
+
+	private final AtomicLong objetosFallidos = new AtomicLong();
+
+	private final AtomicLong ultimaDuracionMs = new AtomicLong();
+
+	public MediaHuerfanaService(IMediaDao mediaDao, MediaStorageService storageService,
+			PlatformTransactionManager transactionManager) {
+		super();
+		this.mediaDao = mediaDao;
+		this.storageService = storageService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Scheduled(fixedDelayString = "${app.media.reaperMs:600000}")
+	public synchronized int eliminarHuerfanas() {
+
+		long inicio = System.nanoTime();
+
+		Instant corte = Instant.now().minus(Duration.ofMinutes(presignMinutes + graciaMinutos));
+
+		int eliminadas = 0;
+
+		long ultimoId = 0;
+
+		List<Media> lote;
+
+		do {
+			long inicioLote = System.nanoTime();
+
+			lote = mediaDao.findTop1000ByStatusInAndCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(
+					List.of(Constants.STATUS_PENDING, Constants.STATUS_REAPING), corte, ultimoId);
+
+			if (lote.isEmpty()) {
+				break;
+			}
+
+			ultimoId = lote.get(lote.size() - 1).getId();
+
+			List<Long> candidatas = lote.stream().map(Media::getId).toList();
+
+			List<Media> reclamadas = transactionTemplate.execute(estado -> {
+				mediaDao.updateStatusByIdsAndStatus(candidatas, Constants.STATUS_PENDING, Constants.STATUS_REAPING);
+				return mediaDao.findByIdInAndStatus(candidatas, Constants.STATUS_REAPING);
+			});
+
+			if (!reclamadas.isEmpty()) {
+
+				Map<String, String> fallos = storageService
+						.deleteAll(reclamadas.stream().map(Media::getStorageKey).toList());
+
+				objetosFallidos.addAndGet(fallos.size());
+
+				List<Long> ids = reclamadas.stream().filter(media -> !fallos.containsKey(media.getStorageKey()))
+						.map(Media::getId).toList();
+
+				if (!ids.isEmpty()) {
+					int borradas = transactionTemplate
+							.execute(estado -> mediaDao.deleteByIdsAndStatus(ids, Constants.STATUS_REAPING));
+					eliminadas += borradas;
+					filasEliminadas.addAndGet(borradas);
+				}
+			}
+
+			if (!esperar(lote.size(), inicioLote)) {
+				break;
+			}
+
+		} while (lote.size() == MediaStorageService.LOTE_BORRADO);
+
+		ejecuciones.incrementAndGet();
+		ultimaDuracionMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+
+		return eliminadas;
+	}
+
+	public MetricasReaper metricas() {
+		return new MetricasReaper(ejecuciones.get(), filasEliminadas.get(), objetosFallidos.get(),
+				ultimaDuracionMs.get());
+	}
+
+	// Duerme lo necesario para que el lote no supere filasPorSegundo
+	private boolean esperar(int filas, long inicioLote) {
+
+		if (filasPorSegundo <= 0) {
+			return true;
+		}
+
+		long minimoNanos = TimeUnit.SECONDS.toNanos(filas) / filasPorSegundo;
+		long restanteNanos = minimoNanos - (System.nanoTime() - inicioLote);
+
+		if (restanteNanos <= 0) {
+			return true;
+		}
+
+		try {
+			TimeUnit.NANOSECONDS.sleep(restanteNanos);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	public record MetricasReaper(long ejecuciones, long filasEliminadas, long objetosFallidos,
+			long ultimaDuracionMs) {
+	}
+
+}
@@ -0,0 +1,162 @@
+package com.springboot.app.models.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.app.models.dao.IMediaDao;
+import com.springboot.app.models.entities.Media;
+import com.springboot.app.utils.Constants;
+
+/**
+ * Purga en segundo plano los adjuntos que deleteComment deja en
+ * STATUS_INACTIVE: borra los objetos del bucket y marca las filas como
+ * STATUS_PURGED. Las filas se conservan porque siguen referenciadas por el
+ * comentario.
+ *
+ * Cada tanda junta hasta lotesEnParalelo paginas de 1000 llaves, asi deleteAll
+ * tiene varias peticiones DeleteObjects en vuelo a la vez. Las llaves que S3
+ * no pudo borrar guardan el motivo y suman un intento; quedan INACTIVE y se
+ * reintentan en la siguiente ejecucion hasta maxIntentos, despues pasan a
+ * STATUS_PURGE_FAILED para revisarlas a mano.
+ */
+@Service
+public class MediaPurgaService {
+
+	private static final int MAX_MOTIVO = 255;
+
+	private final IMediaDao mediaDao;
+
+	private final MediaStorageService storageService;
+
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${app.media.purgaLotesEnParalelo:4}")
+	private int lotesEnParalelo;
+
+	@Value("${app.media.purgaMaxIntentos:5}")
+	private int maxIntentos;
+
+	private final AtomicLong ejecuciones = new AtomicLong();
+
+	private final AtomicLong objetosPurgados = new AtomicLong();
+
+	private final AtomicLong objetosFallidos = new AtomicLong();
+
+	private final AtomicLong objetosAgotados = new AtomicLong();
+
+	private final AtomicLong ultimaDuracionMs = new AtomicLong();
+
+	public MediaPurgaService(IMediaDao mediaDao, MediaStorageService storageService,
+			PlatformTransactionManager transactionManager) {
+		super();
+		this.mediaDao = mediaDao;
+		this.storageService = storageService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Scheduled(fixedDelayString = "${app.media.purgaMs:300000}")
+	public synchronized int purgar() {
+
+		long inicio = System.nanoTime();
+
+		int purgados = 0;
+
+		long ultimoId = 0;
+
+		boolean quedan = true;
+
+		while (quedan) {
+
+			List<Media> tanda = new ArrayList<>();
+
+			for (int pagina = 0; pagina < Math.max(1, lotesEnParalelo) && quedan; pagina++) {
+
+				List<Media> lote = mediaDao.findTop1000ByStatusAndIdGreaterThanOrderByIdAsc(Constants.STATUS_INACTIVE,
+						ultimoId);
+
+				if (!lote.isEmpty()) {
+					ultimoId = lote.get(lote.size() - 1).getId();
+					tanda.addAll(lote);
+				}
+
+				quedan = lote.size() == MediaStorageService.LOTE_BORRADO;
+			}
+
+			if (tanda.isEmpty()) {
+				break;
+			}
+
+			purgados += purgarTanda(tanda);
+		}
+
+		ejecuciones.incrementAndGet();
+		ultimaDuracionMs.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+
+		return purgados;
+	}
+
+	public MetricasPurga metricas() {
+		return new MetricasPurga(ejecuciones.get(), objetosPurgados.get(), objetosFallidos.get(),
+				objetosAgotados.get(), ultimaDuracionMs.get());
+	}
+
+	private int purgarTanda(List<Media> tanda) {
+
+		Map<String, String> fallos = storageService.deleteAll(tanda.stream().map(Media::getStorageKey).toList());
+
+		List<Long> ids = tanda.stream().filter(media -> !fallos.containsKey(media.getStorageKey()))
+				.map(Media::getId).toList();
+
+		// Un UPDATE por motivo distinto; en la practica S3 devuelve pocos codigos
+		Map<String, List<Long>> fallidasPorMotivo = tanda.stream()
+				.filter(media -> fallos.containsKey(media.getStorageKey()))
+				.collect(Collectors.groupingBy(media -> motivo(fallos.get(media.getStorageKey())), LinkedHashMap::new,
+						Collectors.mapping(Media::getId, Collectors.toList())));
+
+		long agotadas = tanda.stream().filter(media -> fallos.containsKey(media.getStorageKey()))
+				.filter(media -> intentos(media) + 1 >= maxIntentos).count();
+
+		int purgados = transactionTemplate.execute(estado -> {
+
+			fallidasPorMotivo.forEach((motivo, fallidas) -> mediaDao.registrarFalloPurga(fallidas, motivo,
+					maxIntentos, Constants.STATUS_PURGE_FAILED));
+
+			return ids.isEmpty() ? 0 : mediaDao.updateStatusByIds(ids, Constants.STATUS_PURGED);
+		});
+
+		objetosPurgados.addAndGet(purgados);
+		objetosFallidos.addAndGet(fallos.size());
+		objetosAgotados.addAndGet(agotadas);
+
+		return purgados;
+	}
+
+	private static int intentos(Media media) {
+		return media.getPurgaIntentos() != null ? media.getPurgaIntentos() : 0;
+	}
+
+	private static String motivo(String motivo) {
+
+		if (motivo == null || motivo.isBlank()) {
+			return "Desconocido";
+		}
+
+		return motivo.length() > MAX_MOTIVO ? motivo.substring(0, MAX_MOTIVO) : motivo;
+	}
+
+	public record MetricasPurga(long ejecuciones, long objetosPurgados, long objetosFallidos, long objetosAgotados,
+			long ultimaDuracionMs) {
+	}
+
+}
@@ -1,11 +1,20 @@
 package com.springboot.app.models.services;
 
+import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,6 +22,7 @@ import com.springboot.app.models.dao.IMediaDao;
 import com.springboot.app.models.dtos.UploadRequestDto;
 import com.springboot.app.models.dtos.UploadResponseDto;
 import com.springboot.app.models.entities.Media;
+import com.springboot.app.models.services.MediaStorageService.SubidaStream;
 import com.springboot.app.utils.Constants;
 import com.springboot.app.utils.Utils;
 
@@ -23,6 +33,9 @@ public class MediaServiceImpl implements IMediaService {
 	private final IMediaDao mediaDao;
 	private final MediaStorageService storageService;
 	
+	@Value("${app.s3.maxSizeBytes}")
+	private long maxSizeBytes;
+	
 
 
 	public MediaServiceImpl(IMediaDao mediaDao, MediaStorageService storageService) {
@@ -86,21 +99,48 @@ public class MediaServiceImpl implements IMediaService {
 	@Transactional
 	public List<Media> updateStatusMedia(List<String> confirmMediaStorageKeyId, Long authUserId) {
 		
-		List<Media> savedMedias = new ArrayList<>();
+		Set<String> keys = new LinkedHashSet<>(confirmMediaStorageKeyId);
+		
+		// Una sola consulta IN para todas las llaves; las de otro dueño no aparecen
+		Map<String, Media> medias = mediaDao.findByOwnerIdAndStorageKeyIn(authUserId, keys).stream()
+				.collect(Collectors.toMap(Media::getStorageKey, Function.identity(), (a, b) -> a));
 		
-		for (String key : confirmMediaStorageKeyId) {
+		for (String key : keys) {
 			
-			Media media = findByOwnerIdAndStorageKey(authUserId, key).orElseThrow(() -> new NoSuchElementException(key));
+			Media media = medias.get(key);
+			
+			// Una fila reclamada por el reaper o ya purgada no tiene objeto que confirmar
+			if (media == null || !confirmable(media)) {
+				throw new NoSuchElementException(key);
+			}
 			
-			if (media.getOwnerId()!=authUserId) {
+			if (!Objects.equals(media.getOwnerId(), authUserId)) {
 				throw new SecurityException("No tiene los permisos necesarios sobre el fichero");
 			}
+		}
+		
+		// Las subidas por streaming ya traen su tamaño; el resto se consulta con HEAD en paralelo
+		Set<String> sinTamanio = keys.stream().filter(key -> !yaSubida(medias.get(key)))
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		
+		Map<String, Long> tamanios = sinTamanio.isEmpty() ? Map.of() : storageService.headContentLengths(sinTamanio);
+		
+		List<Media> savedMedias = new ArrayList<>();
+		
+		for (String key : keys) {
 			
-			media.setStatus(Constants.STATUS_READY);			
-			media.setSizeBytes(storageService.headObject(key).contentLength());
+			Media media = medias.get(key);
 			
-			savedMedias.add(media);
+			long tamanio = tamanios.getOrDefault(key, media.getSizeBytes());
+			
+			if (tamanio > maxSizeBytes) {
+				throw new IllegalArgumentException("Archivo excede tamaño máximo: " + media.getOriginalName());
+			}
+			
+			media.setStatus(Constants.STATUS_READY);
+			media.setSizeBytes(tamanio);
 			
+			savedMedias.add(media);
 		}
 		
 		return mediaDao.saveAll(savedMedias);
@@ -109,6 +149,56 @@ public class MediaServiceImpl implements IMediaService {
 
 
 
+	/*
+	 * Sin @Transactional a proposito: no se mantiene una conexion de base
+	 * abierta mientras dura la transferencia. La fila queda PENDING, igual que
+	 * con la URL prefirmada, hasta que un comentario la confirme; si nunca se
+	 * confirma (o el proceso muere a mitad) el reaper la elimina.
+	 */
+	@Override
+	public Media subirArchivo(String fileName, String mime, InputStream contenido, Long authUserId) {
+		
+		String contentType = mime != null ? mime : "application/octet-stream";
+		
+		Media media = new Media();
+		
+		media.setOriginalName(fileName);
+		media.setMimeType(contentType);
+		media.setOwnerId(authUserId);
+		media.setStorageKey(storageService.buildStorageKey(authUserId, Utils.extensionFromName(fileName)));
+		
+		media = mediaDao.save(media);
+		
+		SubidaStream subida;
+		
+		try {
+			subida = storageService.streamUpload(media.getStorageKey(), contenido, contentType);
+		} catch (RuntimeException e) {
+			mediaDao.delete(media);
+			throw e;
+		}
+		
+		media.setSizeBytes(subida.sizeBytes());
+		media.setChecksumSha256(subida.checksumSha256());
+		
+		return mediaDao.save(media);
+	}
+
+
+
+	private static boolean confirmable(Media media) {
+		return Constants.STATUS_PENDING.equals(media.getStatus()) || Constants.STATUS_READY.equals(media.getStatus());
+	}
+
+
+
+	// Solo la subida por streaming guarda el checksum junto con el tamaño
+	private static boolean yaSubida(Media media) {
+		return media.getChecksumSha256() != null && media.getSizeBytes() != null;
+	}
+
+
+
 	@Override
 	public List<Media> saveAll(List<Media> mediaInactive) {
 		
@@ -118,7 +208,7 @@ public class MediaServiceImpl implements IMediaService {
 
 
 	@Override
-	public List<String> createPresignedGetUrls(List<String> storageKeys) {
+	public Map<String, String> createPresignedGetUrls(Collection<String> storageKeys) {
 		
 		return storageService.createPresignedGetUrls(storageKeys);
 	}
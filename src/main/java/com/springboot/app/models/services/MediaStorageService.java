@@ -1,22 +1,53 @@
 package com.springboot.app.models.services;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.springboot.app.utils.CacheAcotado;
+import com.springboot.app.utils.PoolBuffersDirectos;
+
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
 import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
@@ -26,8 +57,13 @@ import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignReques
 @Service
 public class MediaStorageService {
 
+	// Limite de llaves por peticion DeleteObjects
+	static final int LOTE_BORRADO = 1000;
+
 	private final S3Client s3;
+	private final S3AsyncClient s3Async;
 	private final S3Presigner presigner;
+	private final PoolBuffersDirectos buffers;
 
 	@Value("${app.s3.bucket}")
 	private String bucket;
@@ -35,11 +71,20 @@ public class MediaStorageService {
 	private int presignMinutes;
 	@Value("${app.s3.maxSizeBytes}")
 	private long maxSizeBytes;
+	@Value("${app.s3.presignMarginSeconds:60}")
+	private long presignMarginSeconds;
+
+	// Llave -> URL firmada; cada entrada expira presignMarginSeconds antes que la firma
+	private final CacheAcotado<String, String> urlCache;
 
-	public MediaStorageService(S3Client s3, S3Presigner presigner) {
+	public MediaStorageService(S3Client s3, S3AsyncClient s3Async, S3Presigner presigner,
+			PoolBuffersDirectos buffers, @Value("${app.s3.presignCacheMaxSize:10000}") int presignCacheMaxSize) {
 		super();
 		this.s3 = s3;
+		this.s3Async = s3Async;
 		this.presigner = presigner;
+		this.buffers = buffers;
+		this.urlCache = new CacheAcotado<>(presignCacheMaxSize);
 	}
 
 	public String buildStorageKey(Long ownerId, String ext) {
@@ -68,26 +113,42 @@ public class MediaStorageService {
 		return req.url();
 	}
 
-	public List<String> createPresignedGetUrls(List<String> storageKey) {
+	/**
+	 * Firma en lote las URLs de descarga de varias llaves. Una URL ya firmada
+	 * se reutiliza mientras le quede mas que el margen configurado antes de
+	 * expirar. Devuelve llave -> URL en el mismo orden de entrada.
+	 */
+	public Map<String, String> createPresignedGetUrls(Collection<String> storageKeys) {
 
-		PresignedGetObjectRequest req;
-		
-		List<String> urls = new ArrayList<>();
+		Map<String, String> urls = new LinkedHashMap<>();
 
-		for (String key : storageKey) {
+		for (String key : storageKeys) {
+
+			if (urls.containsKey(key)) {
+				continue;
+			}
+
+			String cacheada = urlCache.obtener(key);
+
+			if (cacheada != null) {
+				urls.put(key, cacheada);
+				continue;
+			}
 
 			var get = GetObjectRequest.builder().bucket(bucket).key(key).build();
-		
+
 			var presign = GetObjectPresignRequest.builder().signatureDuration(Duration.ofMinutes(presignMinutes))
 					.getObjectRequest(get).build();
-			
-			req = presigner.presignGetObject(presign);
-			
-			urls.add(req.url().toString());
-			
+
+			PresignedGetObjectRequest req = presigner.presignGetObject(presign);
+
+			String url = req.url().toString();
+
+			urlCache.guardar(key, url, req.expiration().minusSeconds(presignMarginSeconds));
+
+			urls.put(key, url);
 		}
 
-		
 		return urls;
 	}
 
@@ -100,33 +161,214 @@ public class MediaStorageService {
 				RequestBody.fromBytes(bytes));
 	}
 
+	/**
+	 * Sube el contenido de un stream sin cargarlo completo en memoria. El
+	 * stream se lee con un canal directo al buffer del pool, sin arreglo
+	 * intermedio propio (el adaptador del JDK usa internamente uno de 8 KB).
+	 * Cada vez que el buffer se llena se envia como parte de un multipart
+	 * upload; si el archivo cabe en un solo buffer se usa un PUT simple. El
+	 * SHA-256 se actualiza con la porcion recien leida del mismo buffer.
+	 */
+	public SubidaStream streamUpload(String storageKey, InputStream entrada, String contentType) {
+
+		MessageDigest sha256 = sha256();
+
+		ByteBuffer buffer = buffers.tomar();
+
+		ReadableByteChannel canal = Channels.newChannel(entrada);
+
+		List<CompletedPart> partes = new ArrayList<>();
+
+		String uploadId = null;
+
+		long total = 0;
+
+		try {
+			int leidos;
+
+			while ((leidos = canal.read(buffer)) != -1) {
+
+				total += leidos;
+
+				if (total > maxSizeBytes) {
+					throw new IllegalArgumentException("Archivo excede tamaño máximo");
+				}
+
+				ByteBuffer recienLeido = buffer.duplicate();
+				recienLeido.flip().position(buffer.position() - leidos);
+				sha256.update(recienLeido);
+
+				if (!buffer.hasRemaining()) {
+					if (uploadId == null) {
+						uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder().bucket(bucket)
+								.key(storageKey).contentType(contentType).build()).uploadId();
+					}
+					partes.add(subirParte(storageKey, uploadId, partes.size() + 1, buffer));
+				}
+			}
+
+			if (uploadId == null) {
+				buffer.flip();
+				s3.putObject(PutObjectRequest.builder().bucket(bucket).key(storageKey).contentType(contentType).build(),
+						cuerpo(buffer, contentType));
+			} else {
+				if (buffer.position() > 0) {
+					partes.add(subirParte(storageKey, uploadId, partes.size() + 1, buffer));
+				}
+				s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder().bucket(bucket).key(storageKey)
+						.uploadId(uploadId).multipartUpload(CompletedMultipartUpload.builder().parts(partes).build())
+						.build());
+			}
+
+			return new SubidaStream(total, HexFormat.of().formatHex(sha256.digest()));
+
+		} catch (IOException e) {
+			abortar(storageKey, uploadId);
+			throw new UncheckedIOException(e);
+		} catch (RuntimeException e) {
+			abortar(storageKey, uploadId);
+			throw e;
+		} finally {
+			buffers.devolver(buffer);
+		}
+	}
+
+	public record SubidaStream(long sizeBytes, String checksumSha256) {
+	}
+
+	private CompletedPart subirParte(String storageKey, String uploadId, int numero, ByteBuffer buffer) {
+
+		buffer.flip();
+
+		String eTag = s3.uploadPart(UploadPartRequest.builder().bucket(bucket).key(storageKey).uploadId(uploadId)
+				.partNumber(numero).contentLength((long) buffer.remaining()).build(),
+				cuerpo(buffer, "application/octet-stream")).eTag();
+
+		buffer.clear();
+
+		return CompletedPart.builder().partNumber(numero).eTag(eTag).build();
+	}
+
+	private void abortar(String storageKey, String uploadId) {
+
+		if (uploadId == null) {
+			return;
+		}
+
+		try {
+			s3.abortMultipartUpload(AbortMultipartUploadRequest.builder().bucket(bucket).key(storageKey)
+					.uploadId(uploadId).build());
+		} catch (RuntimeException e) {
+			// Las partes que queden las limpia la regla de ciclo de vida del bucket
+		}
+	}
+
+	/*
+	 * El cliente HTTP lee la parte con un InputStream sobre una vista del
+	 * buffer directo y la copia a sus propios arreglos al escribir el socket;
+	 * cada reintento pide una vista nueva, sin duplicar la parte en el heap.
+	 */
+	private static RequestBody cuerpo(ByteBuffer datos, String contentType) {
+		return RequestBody.fromContentProvider(() -> flujo(datos.duplicate()), datos.remaining(), contentType);
+	}
+
+	private static InputStream flujo(ByteBuffer datos) {
+		return new InputStream() {
+
+			@Override
+			public int read() {
+				return datos.hasRemaining() ? datos.get() & 0xFF : -1;
+			}
+
+			@Override
+			public int read(byte[] destino, int desde, int cantidad) {
+				if (!datos.hasRemaining()) {
+					return -1;
+				}
+				int leidos = Math.min(cantidad, datos.remaining());
+				datos.get(destino, desde, leidos);
+				return leidos;
+			}
+		};
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	public void delete(String storageKey) {
 		s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(storageKey).build());
 	}
 
-	public void deleteAll(List<String> storageKeys) {
+	/**
+	 * Borra las llaves en peticiones DeleteObjects de hasta 1000 llaves, todas
+	 * en paralelo por el cliente asincrono. Devuelve las llaves que no se
+	 * pudieron borrar con el motivo; una llave inexistente cuenta como borrada.
+	 */
+	public Map<String, String> deleteAll(Collection<String> storageKeys) {
 
-		storageKeys.stream().forEach(item -> {
-			s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(item).build());
-		});
+		List<String> keys = new ArrayList<>(new LinkedHashSet<>(storageKeys));
 
-	}
+		Map<List<String>, CompletableFuture<DeleteObjectsResponse>> pendientes = new LinkedHashMap<>();
 
-	public boolean verifySizeFiles(List<String> confirmMediaStorageKeyId) {
+		for (int desde = 0; desde < keys.size(); desde += LOTE_BORRADO) {
 
-		for (String key : confirmMediaStorageKeyId) {
+			List<String> lote = keys.subList(desde, Math.min(desde + LOTE_BORRADO, keys.size()));
 
-			var head = headObject(key);
+			List<ObjectIdentifier> objetos = lote.stream().map(key -> ObjectIdentifier.builder().key(key).build())
+					.toList();
 
-			if (head.contentLength() > maxSizeBytes) {
+			pendientes.put(lote, s3Async.deleteObjects(DeleteObjectsRequest.builder().bucket(bucket)
+					.delete(Delete.builder().objects(objetos).quiet(true).build()).build()));
+		}
 
-				return false;
+		Map<String, String> fallos = new LinkedHashMap<>();
 
+		pendientes.forEach((lote, pendiente) -> {
+			try {
+				pendiente.join().errors().forEach(error -> fallos.put(error.key(), error.code()));
+			} catch (CompletionException e) {
+				// Si falla la peticion completa, ninguna llave del lote se da por borrada
+				String motivo = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+				lote.forEach(key -> fallos.put(key, motivo));
 			}
+		});
 
+		return fallos;
+	}
+
+	/**
+	 * Tamaño real de varios objetos. Todos los HEAD salen a la vez por el
+	 * cliente asincrono, asi que el tiempo total es el de la respuesta mas lenta.
+	 * Una llave inexistente produce NoSuchElementException con la llave.
+	 */
+	public Map<String, Long> headContentLengths(Collection<String> storageKeys) {
+
+		Map<String, CompletableFuture<HeadObjectResponse>> pendientes = new LinkedHashMap<>();
+
+		for (String key : storageKeys) {
+			pendientes.computeIfAbsent(key,
+					k -> s3Async.headObject(HeadObjectRequest.builder().bucket(bucket).key(k).build()));
 		}
 
-		return true;
+		Map<String, Long> tamanios = new LinkedHashMap<>();
+
+		pendientes.forEach((key, pendiente) -> {
+			try {
+				tamanios.put(key, pendiente.join().contentLength());
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof S3Exception s3e && s3e.statusCode() == 404) {
+					throw new NoSuchElementException(key);
+				}
+				throw e.getCause() instanceof RuntimeException causa ? causa : e;
+			}
+		});
+
+		return tamanios;
 	}
 
 }
@@ -0,0 +1,118 @@
+package com.springboot.app.models.services;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.app.models.dao.ICacheInvalidacionDao;
+import com.springboot.app.models.entities.CacheInvalidacion;
+import com.springboot.app.utils.PermisoInvalidacionBus;
+
+/**
+ * Invalidacion entre instancias sin broker: cada publicacion se inserta en
+ * cache_invalidaciones y cada nodo sondea las filas nuevas. Los ids IDENTITY
+ * pueden confirmarse fuera de orden, por eso cada sondeo vuelve a leer una
+ * ventana de ids ya vistos y descarta los repetidos.
+ *
+ * publicar se invoca desde afterCommit, cuando los recursos de la transaccion
+ * que escribio siguen ligados al hilo; por eso el INSERT va en una
+ * transaccion nueva (REQUIRES_NEW) y no se une a la que ya confirmo.
+ */
+@Service
+@ConditionalOnProperty(name = "app.permisos.invalidacion", havingValue = "bd")
+public class PermisoInvalidacionPorBd implements PermisoInvalidacionBus {
+
+	static final long SOLAPE_IDS = 50;
+
+	private static final int LOTE = 500;
+
+	private final ICacheInvalidacionDao invalidacionDao;
+
+	private final long retencionMinutos;
+
+	private final TransactionTemplate transaccionNueva;
+
+	private final List<BiConsumer<Long, String>> oyentes = new CopyOnWriteArrayList<>();
+
+	private final Set<Long> vistos = new HashSet<>();
+
+	private long ultimoId = -1;
+
+	public PermisoInvalidacionPorBd(ICacheInvalidacionDao invalidacionDao,
+			@Value("${app.permisos.retencionMinutos:10}") long retencionMinutos,
+			PlatformTransactionManager transactionManager) {
+		super();
+		this.invalidacionDao = invalidacionDao;
+		this.retencionMinutos = retencionMinutos;
+		this.transaccionNueva = new TransactionTemplate(transactionManager);
+		this.transaccionNueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	@Override
+	public void publicar(Long userId, String projectId) {
+
+		// El nodo que escribe no espera al sondeo
+		notificar(userId, projectId);
+
+		transaccionNueva.executeWithoutResult(estado -> invalidacionDao.save(new CacheInvalidacion(userId, projectId)));
+	}
+
+	@Override
+	public void registrar(BiConsumer<Long, String> oyente) {
+		oyentes.add(oyente);
+	}
+
+	@Scheduled(fixedDelayString = "${app.permisos.pollMs:2000}")
+	public synchronized void sondear() {
+
+		// Al arrancar el cache esta vacio: basta con empezar desde la ultima fila
+		if (ultimoId < 0) {
+			ultimoId = invalidacionDao.findMaxId();
+			return;
+		}
+
+		List<CacheInvalidacion> filas;
+
+		do {
+			filas = invalidacionDao.findTop500ByIdGreaterThanOrderByIdAsc(Math.max(0, ultimoId - SOLAPE_IDS));
+
+			for (CacheInvalidacion fila : filas) {
+
+				if (vistos.add(fila.getId())) {
+					notificar(fila.getUsuarioId(), fila.getProjectId());
+				}
+
+				ultimoId = Math.max(ultimoId, fila.getId());
+			}
+
+			long limite = ultimoId - SOLAPE_IDS;
+
+			vistos.removeIf(id -> id <= limite);
+
+		} while (filas.size() == LOTE);
+	}
+
+	@Scheduled(fixedDelayString = "${app.permisos.purgaMs:600000}")
+	@Transactional
+	public void purgar() {
+
+		invalidacionDao.deleteAnterioresA(LocalDateTime.now().minusMinutes(retencionMinutos));
+	}
+
+	private void notificar(Long userId, String projectId) {
+		oyentes.forEach(oyente -> oyente.accept(userId, projectId));
+	}
+
+}
@@ -1,10 +1,15 @@
 package com.springboot.app.models.services;
 
-import java.util.Arrays;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -19,7 +24,11 @@ import com.springboot.app.models.entities.ProjectMember;
 import com.springboot.app.models.entities.Tarea;
 import com.springboot.app.models.entities.Usuario;
 import com.springboot.app.utils.Constants;
+import com.springboot.app.utils.DashboardCounterStore;
+import com.springboot.app.utils.PermisoProyectoCache;
+import com.springboot.app.utils.PermisoProyectoCache.PermisoProyecto;
 import com.springboot.app.utils.ProjectRole;
+import com.springboot.app.utils.Utils;
 
 import jakarta.validation.Valid;
 
@@ -33,32 +42,38 @@ public class ProjectMemberServiceImpl implements IProjectMemberService {
 	private final IUsuarioDao usuarioDao;
 
 	private final ITareaDao tareaDao;
+	
+	private final DashboardCounterStore counterStore;
+
+	private final PermisoProyectoCache permisoCache;
 
 
 
 
 
 	public ProjectMemberServiceImpl(IProjectMemberDao projectMemberDao, IProjectDao projectDao, IUsuarioDao usuarioDao,
-			ITareaDao tareaDao) {
+			ITareaDao tareaDao, DashboardCounterStore counterStore, PermisoProyectoCache permisoCache) {
 		super();
 		this.projectMemberDao = projectMemberDao;
 		this.projectDao = projectDao;
 		this.usuarioDao = usuarioDao;
 		this.tareaDao = tareaDao;
+		this.counterStore = counterStore;
+		this.permisoCache = permisoCache;
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public boolean isOwner(Long userId, String projectId) {
 		
-		return projectMemberDao.existsByUsuarioIdAndProjectIdGuidAndRoleIsAndStatusIs(userId,projectId,ProjectRole.OWNER,Constants.STATUS_ACTIVE);
+		return permiso(userId, projectId).esOwner();
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public boolean isMember(Long usuarioId, String projectId) {
 		
-		return projectMemberDao.existsByUsuarioIdAndProjectIdGuid(usuarioId, projectId);
+		return permiso(usuarioId, projectId).miembro();
 	}
 	
 	
@@ -66,7 +81,7 @@ public class ProjectMemberServiceImpl implements IProjectMemberService {
 	@Transactional(readOnly = true)
 	public boolean isMemberActive(Long usuarioId, String projectId) {
 		
-		return projectMemberDao.existsByUsuarioIdAndProjectIdGuidAndStatusIs(usuarioId, projectId,Constants.STATUS_ACTIVE);
+		return permiso(usuarioId, projectId).activo();
 	}
 	
 
@@ -139,7 +154,11 @@ public class ProjectMemberServiceImpl implements IProjectMemberService {
 	@Transactional
 	public ProjectMember save(ProjectMember member) {
 		
-		return projectMemberDao.save(member);
+		ProjectMember saved = projectMemberDao.save(member);
+		
+		invalidarContadores(List.of(saved));
+		
+		return saved;
 	}
 
 
@@ -227,14 +246,75 @@ public class ProjectMemberServiceImpl implements IProjectMemberService {
 	@Transactional(readOnly = true)
 	public boolean canEditTasks(Long userId, String projectId) {
 	
-		return projectMemberDao.existsByUsuarioAndProjectWithRoles(userId, projectId, Arrays.asList(ProjectRole.OWNER,ProjectRole.EDITOR), Constants.STATUS_ACTIVE);
+		return permiso(userId, projectId).puedeEditarTareas();
 	}
 
 	@Override
 	@Transactional
 	public List<ProjectMember> saveAll(List<ProjectMember> members) {
 		
-		return projectMemberDao.saveAll(members);
+		List<ProjectMember> saved = projectMemberDao.saveAll(members);
+		
+		invalidarContadores(saved);
+		
+		return saved;
+	}
+	
+	
+	@Override
+	@Transactional
+	public void desactivarMiembros(String projectId, String usuario) {
+		
+		List<Long> userIds = projectMemberDao.findUsuarioIdsByProjectAndStatus(projectId, Constants.STATUS_ACTIVE);
+		
+		projectMemberDao.updateStatusByProject(projectId, Constants.STATUS_INACTIVE, usuario, LocalDateTime.now());
+		
+		userIds.forEach(userId -> permisoCache.invalidar(userId, projectId));
+		
+		Utils.ejecutarDespuesDelCommit(() -> userIds.forEach(counterStore::invalidarUsuario));
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<Long> findUsuarioIdsActivos(String projectId) {
+		
+		return projectMemberDao.findUsuarioIdsByProjectAndStatus(projectId, Constants.STATUS_ACTIVE);
+	}
+	
+	private void invalidarContadores(List<ProjectMember> members) {
+		
+		members.forEach(m -> permisoCache.invalidar(m.getUsuario().getId(), m.getProject().getIdGuid()));
+		
+		List<Long> userIds = members.stream().map(m -> m.getUsuario().getId()).distinct().toList();
+		
+		Utils.ejecutarDespuesDelCommit(() -> userIds.forEach(counterStore::invalidarUsuario));
+	}
+	
+	// isOwner, isMember, isMemberActive y canEditTasks se responden con una sola consulta por (usuario, proyecto)
+	private PermisoProyecto permiso(Long userId, String projectId) {
+		
+		return permisoCache.obtener(userId, projectId, () -> cargarPermiso(userId, projectId));
+	}
+	
+	private PermisoProyecto cargarPermiso(Long userId, String projectId) {
+		
+		List<Object[]> filas = projectMemberDao.findRolesYStatus(userId, projectId);
+		
+		if (filas.isEmpty()) {
+			return PermisoProyecto.SIN_MEMBRESIA;
+		}
+		
+		Set<ProjectRole> rolesActivos = EnumSet.noneOf(ProjectRole.class);
+		
+		for (Object[] fila : filas) {
+			if (Constants.STATUS_ACTIVE.equals(fila[1]) && fila[0] != null) {
+				rolesActivos.add((ProjectRole) fila[0]);
+			}
+		}
+		
+		boolean activo = filas.stream().anyMatch(f -> Constants.STATUS_ACTIVE.equals(f[1]));
+		
+		return new PermisoProyecto(true, activo, Set.copyOf(rolesActivos));
 	}
 
 	@Override
@@ -260,13 +340,13 @@ public class ProjectMemberServiceImpl implements IProjectMemberService {
 		
 		 ProjectMember member= findByUsuarioIdAndProjectIdGuid(userId, projectId);
 		
-		 List<Tarea> taskAssigned =member.getProject().getListTarea().stream().filter(t -> t.getUsuarios().stream().anyMatch(u -> u.getId()==userId)).collect(Collectors.toList()) ;
+		 List<Tarea> taskAssigned = tareaDao.findAsignadasConUsuarios(projectId, userId);
 		 
 		 for (Tarea tarea : taskAssigned) {
 			
 			 List<Usuario> asigned = tarea.getUsuarios();
 			 
-			 asigned.removeIf(u -> u.getId()==userId);
+			 asigned.removeIf(u -> u.getId().equals(userId));
 			 
 			 tarea.setUsuarios(asigned);
 			 
@@ -289,6 +369,35 @@ public class ProjectMemberServiceImpl implements IProjectMemberService {
 		return projectMemberDao.findByUsuarioIdAndProjectIdGuid(userId, projectId);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public Map<String, Set<Long>> findMiembrosActivos(Collection<String> projectIds, Collection<Long> usuarioIds) {
+
+		Map<String, Set<Long>> miembros = new HashMap<>();
+
+		if (projectIds.isEmpty() || usuarioIds.isEmpty()) {
+			return miembros;
+		}
+
+		for (Object[] fila : projectMemberDao.findMiembrosByStatus(projectIds, usuarioIds, Constants.STATUS_ACTIVE)) {
+			miembros.computeIfAbsent((String) fila[0], k -> new HashSet<>()).add(((Number) fila[1]).longValue());
+		}
+
+		return miembros;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Set<String> findProyectosOwner(Long userId, Collection<String> projectIds) {
+
+		if (projectIds.isEmpty()) {
+			return Set.of();
+		}
+
+		return new HashSet<>(projectMemberDao.findProjectIdsByUsuarioAndRole(userId, projectIds, ProjectRole.OWNER,
+				Constants.STATUS_ACTIVE));
+	}
+
 	
 	
 	
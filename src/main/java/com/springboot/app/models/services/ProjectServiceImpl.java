@@ -1,31 +1,51 @@
 package com.springboot.app.models.services;
 
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.IntConsumer;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.springboot.app.models.dao.IProjectDao;
 import com.springboot.app.models.dao.ITareaDao;
 import com.springboot.app.models.dao.IUsuarioDao;
+import com.springboot.app.models.dtos.BorradoProyectoDto;
 import com.springboot.app.models.dtos.ProjectDto;
-import com.springboot.app.models.dtos.TareaDto;
+import com.springboot.app.models.dtos.ProjectResumenDto;
 import com.springboot.app.models.entities.Project;
 import com.springboot.app.models.entities.ProjectMember;
-import com.springboot.app.models.entities.Tarea;
 import com.springboot.app.models.entities.Usuario;
+import com.springboot.app.utils.BorradoProyectoRegistro;
 import com.springboot.app.utils.Constants;
+import com.springboot.app.utils.DashboardCounterStore;
 import com.springboot.app.utils.ProjectRole;
+import com.springboot.app.utils.Utils;
 
 @Service
 public class ProjectServiceImpl implements IProjectService {
 
+	private static final String USUARIO_BARRIDO = "sistema";
+
+	private static final int PROYECTOS_POR_BARRIDO = 100;
+
 	private final IProjectDao projectDao;
 	
 	private final IUsuarioDao usuarioDao;
@@ -33,29 +53,48 @@ public class ProjectServiceImpl implements IProjectService {
 	private final IProjectMemberService projectMemberService;
 
 	private final ITareaDao tareaDao;
+	
+	private final DashboardCounterStore counterStore;
+
+	private final BorradoProyectoRegistro borradoRegistro;
+
+	private final ExecutorService borradoExecutor;
 
+	private final TransactionTemplate transactionTemplate;
 
+	@Value("${app.proyectos.borradoLote:1000}")
+	private int borradoLote;
 
+	// Hasta este numero de tareas el borrado termina dentro del request
+	@Value("${app.proyectos.borradoSincronoMax:5000}")
+	private long borradoSincronoMax;
+
+	// Antiguedad minima de un borrado para que el barrido lo retome
+	@Value("${app.proyectos.barridoGraciaMinutos:10}")
+	private long barridoGraciaMinutos;
 
 
 
 	public ProjectServiceImpl(IProjectDao projectDao, IUsuarioDao usuarioDao,
-			IProjectMemberService projectMemberService, ITareaDao tareaDao) {
+			IProjectMemberService projectMemberService, ITareaDao tareaDao, DashboardCounterStore counterStore,
+			BorradoProyectoRegistro borradoRegistro, @Qualifier("borradoExecutor") ExecutorService borradoExecutor,
+			PlatformTransactionManager transactionManager) {
 		super();
 		this.projectDao = projectDao;
 		this.usuarioDao = usuarioDao;
 		this.projectMemberService = projectMemberService;
 		this.tareaDao = tareaDao;
+		this.counterStore = counterStore;
+		this.borradoRegistro = borradoRegistro;
+		this.borradoExecutor = borradoExecutor;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
 	}
 
 	@Override
-	public List<ProjectDto> findByOwnerId(Long userId) {
+	@Transactional(readOnly = true)
+	public List<ProjectResumenDto> findByOwnerId(Long userId) {
 						
-		return projectDao.findByOwnerId(userId,Constants.STATUS_ACTIVE)
-				.stream()
-				.map
-				(project -> new ProjectDto(project))
-				.toList();
+		return resumir(projectDao.findByOwnerId(userId,Constants.STATUS_ACTIVE));
 	}
 
 	
@@ -103,6 +142,8 @@ public class ProjectServiceImpl implements IProjectService {
 		
 		Usuario user = usuarioDao.findById(userId).orElseThrow(() -> new NoSuchElementException("Informacion no encontrada"));
 		
+		boolean cambioEstatus = isUpdate && !Objects.equals(project.getStatus(), dto.getStatus());
+		
 		project.setName(dto.getName());
 		project.setDescripcion(dto.getDescripcion());
 		project.setStatus(dto.getStatus());
@@ -115,6 +156,12 @@ public class ProjectServiceImpl implements IProjectService {
 	    }
 	    
 	    project=projectDao.save(project);
+	    
+	    if (cambioEstatus) {
+	    	// Un cambio de estatus del proyecto afecta los contadores de proyectos de sus miembros
+	    	List<Long> miembros = projectMemberService.findUsuarioIdsActivos(project.getIdGuid());
+	    	Utils.ejecutarDespuesDelCommit(() -> miembros.forEach(counterStore::invalidarUsuario));
+	    }
 	    	
 		if (!isUpdate) {
 			member=new ProjectMember();
@@ -134,7 +181,8 @@ public class ProjectServiceImpl implements IProjectService {
 
 
 	@Override
-	public ProjectDto findByProjectIdAndUserId(String projectId, Long userId) {
+	@Transactional(readOnly = true)
+	public ProjectResumenDto findByProjectIdAndUserId(String projectId, Long userId) {
 		
 		if (!projectMemberService.isMember(userId, projectId)) {
 			throw new SecurityException("No puedes acceder a la informacion de este proyecto");
@@ -144,17 +192,7 @@ public class ProjectServiceImpl implements IProjectService {
 		
 		Project project = findByProjectId(projectId).orElseThrow(() -> new NoSuchElementException("Projecto no encontrado"));
 		
-		return new ProjectDto(project);
-	}
-
-
-
-	@Override
-	public List<TareaDto> findTasksByProjectId(String id, Long userId) {
-		
-		
-		
-		return findByProjectIdAndUserId(id, userId).getListTask(); 
+		return resumir(List.of(project)).get(0);
 	}
 
 
@@ -175,7 +213,7 @@ public class ProjectServiceImpl implements IProjectService {
 
 	@Override
 	@Transactional
-	public void deleteProject(String projectId, Long authUserId) {
+	public BorradoProyectoDto deleteProject(String projectId, Long authUserId) {
 		
 		Project project = findByProjectId(projectId).orElseThrow(() -> new NoSuchElementException("Proyecto no encontrado"));
 		
@@ -183,43 +221,154 @@ public class ProjectServiceImpl implements IProjectService {
 			throw new SecurityException("No tienes los permisos necesarios para realizar la accion");
 		}							
 				
-		List<Tarea> tareas=project.getListTarea();
-		
 		String username = usuarioDao.findUsernameById(authUserId);
 		
-		tareas.stream().forEach(item -> {
-			item.setStatus(Constants.STATUS_INACTIVE);
-			item.setUsuarioModificacion(username);
-			item.setUsuarios(null);
-		});
+		long totalTareas = tareaDao.countActivasByProjectId(projectId);
 		
+		projectMemberService.desactivarMiembros(projectId, username);
 		
-		tareaDao.saveAll(tareas);
-				
+		project.setStatus(Constants.STATUS_INACTIVE);
+		project.setUsuarioModificacion(username);
 		
-		List<ProjectMember> members=project.getProjectMember();
+		projectDao.save(project);
 		
-		members.stream().forEach(member -> {
-			member.setStatus(Constants.STATUS_INACTIVE);
-		});
+		if (totalTareas <= borradoSincronoMax) {
+			
+			Set<Long> afectados = new HashSet<>();
+			
+			int procesadas;
+			
+			do {
+				procesadas = desactivarLoteTareas(projectId, username, afectados);
+			} while (procesadas == borradoLote);
+			
+			Utils.ejecutarDespuesDelCommit(() -> afectados.forEach(counterStore::invalidarUsuario));
+			
+			return new BorradoProyectoDto(null, projectId, BorradoProyectoRegistro.COMPLETADO, totalTareas, totalTareas, null);
+		}
 		
-		projectMemberService.saveAll(members);
+		// El proyecto ya queda inactivo con este commit; las tareas se desactivan despues, por lotes
+		BorradoProyectoDto borrado = borradoRegistro.registrar(projectId, totalTareas, authUserId);
 		
-		project.setStatus(Constants.STATUS_INACTIVE);
+		Utils.ejecutarDespuesDelCommit(() -> iniciarBorradoTareas(borrado.getJobId(), projectId, username));
 		
-		projectDao.save(project);
+		return borrado;
+	}
+	
+	@Override
+	public BorradoProyectoDto getBorrado(String projectId, String jobId, Long authUserId) {
 		
+		return borradoRegistro.consultar(jobId, projectId, authUserId);
+	}
+	
+	private void iniciarBorradoTareas(String jobId, String projectId, String username) {
 		
+		try {
+			borradoExecutor.execute(() -> borrarTareas(jobId, projectId, username));
+		} catch (RejectedExecutionException e) {
+			borradoRegistro.fallar(jobId, "No hay capacidad para procesar el borrado");
+		}
+	}
+	
+	private void borrarTareas(String jobId, String projectId, String username) {
+		
+		try {
+			desactivarTareas(projectId, username, procesadas -> borradoRegistro.avanzar(jobId, procesadas));
+			
+			borradoRegistro.terminar(jobId);
+			
+		} catch (RuntimeException e) {
+			// El detalle de la base de datos no se expone; el barrido reintenta las tareas restantes
+			borradoRegistro.fallar(jobId, "No se pudieron desactivar todas las tareas, se reintentara automaticamente");
+		}
+	}
+	
+	/**
+	 * Termina los borrados que quedaron a medias, por ejemplo porque la
+	 * instancia que corria el proceso se reinicio. Se omiten los proyectos
+	 * cuyo proceso confirmo un lote durante el periodo de gracia, en
+	 * cualquier instancia; si el proceso se perdio, el barrido lo retoma y
+	 * sigue actualizando su avance.
+	 */
+	@Scheduled(fixedDelayString = "${app.proyectos.barridoMs:600000}")
+	public void completarBorradosPendientes() {
+		
+		LocalDateTime corte = LocalDateTime.now().minusMinutes(barridoGraciaMinutos);
+		
+		for (Object[] fila : projectDao.findBorradosConTareasActivas(corte, PROYECTOS_POR_BARRIDO)) {
+			
+			String projectId = (String) fila[0];
+			
+			if (borradoRegistro.enProceso(projectId, corte)) {
+				continue;
+			}
+			
+			String username = fila[1] != null ? (String) fila[1] : USUARIO_BARRIDO;
+			
+			String jobId = borradoRegistro.buscarPendiente(projectId).orElse(null);
+			
+			try {
+				if (jobId == null) {
+					desactivarTareas(projectId, username, procesadas -> {
+					});
+				} else {
+					desactivarTareas(projectId, username, procesadas -> borradoRegistro.avanzar(jobId, procesadas));
+					borradoRegistro.terminar(jobId);
+				}
+			} catch (RuntimeException e) {
+				// Se reintenta en el siguiente barrido
+			}
+		}
+	}
+	
+	// Cada lote en su propia transaccion, junto con su avance; los contadores se invalidan al confirmar cada lote
+	private void desactivarTareas(String projectId, String username, IntConsumer alAvanzar) {
+		
+		int procesadas;
+		
+		do {
+			Set<Long> afectados = new HashSet<>();
+			
+			procesadas = transactionTemplate.execute(status -> {
+				
+				int lote = desactivarLoteTareas(projectId, username, afectados);
+				
+				alAvanzar.accept(lote);
+				
+				return lote;
+			});
+			
+			afectados.forEach(counterStore::invalidarUsuario);
+			
+		} while (procesadas == borradoLote);
+	}
+	
+	// Un lote: se quitan las asignaciones y se desactivan las tareas sin cargarlas como entidades
+	private int desactivarLoteTareas(String projectId, String username, Set<Long> afectados) {
+		
+		List<String> ids = tareaDao.findIdsActivasByProjectId(projectId, borradoLote);
+		
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		
+		afectados.addAll(tareaDao.findUsuarioIdsByTareaIds(ids));
+		
+		tareaDao.deleteAsignacionesByTareaIds(ids);
+		tareaDao.desactivarByIds(ids, username);
+		
+		return ids.size();
 	}
 
 	@Override
-	public Map<String, List<ProjectDto>> findProjectsById(Long userId) {
+	@Transactional(readOnly = true)
+	public Map<String, List<ProjectResumenDto>> findProjectsById(Long userId) {
 		
-		List<ProjectDto> owned= findByOwnerId(userId);
+		List<ProjectResumenDto> owned= findByOwnerId(userId);
 		
-		List<ProjectDto> collaborations = findProjectsLikeMemberByUserId(userId);
+		List<ProjectResumenDto> collaborations = findProjectsLikeMemberByUserId(userId);
 		
-		Map<String, List<ProjectDto>> response = new HashMap<>();
+		Map<String, List<ProjectResumenDto>> response = new HashMap<>();
         response.put("owned", owned);
         response.put("collaborations", collaborations);
 		
@@ -227,11 +376,28 @@ public class ProjectServiceImpl implements IProjectService {
 	}
 
 	@Override
-	public List<ProjectDto> findProjectsLikeMemberByUserId(Long userId) {
+	@Transactional(readOnly = true)
+	public List<ProjectResumenDto> findProjectsLikeMemberByUserId(Long userId) {
+		
+		return resumir(projectDao.findProjectsLikeMemberByUserId(userId));
+	}
+	
+	// Una sola consulta agrupada para los conteos de todos los proyectos, sin cargar sus tareas
+	private List<ProjectResumenDto> resumir(List<Project> projects) {
+		
+		if (projects.isEmpty()) {
+			return List.of();
+		}
+		
+		Map<String, Map<String, Long>> conteos = new HashMap<>();
+		
+		for (Object[] fila : tareaDao.countActivasPorEstatus(projects.stream().map(Project::getIdGuid).toList())) {
+			conteos.computeIfAbsent((String) fila[0], k -> new LinkedHashMap<>())
+					.put((String) fila[1], ((Number) fila[2]).longValue());
+		}
 		
-		return projectDao.findProjectsLikeMemberByUserId(userId)
-				.stream()
-				.map(p -> new ProjectDto(p))
+		return projects.stream()
+				.map(p -> new ProjectResumenDto(p, conteos.getOrDefault(p.getIdGuid(), Map.of())))
 				.toList();
 	}
 
@@ -7,6 +7,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.springboot.app.models.dao.IProjectDao;
 import com.springboot.app.models.dao.ITareaDao;
+import com.springboot.app.models.dao.IUsuarioDao;
 
 @Service
 @Transactional(readOnly = true)
@@ -15,14 +16,35 @@ public class StatsService {
 	private final ITareaDao tareaDao;
 	
 	private final IProjectDao projectDao;
+	
+	private final IUsuarioDao usuarioDao;
 
-	public StatsService(ITareaDao tareaDao, IProjectDao projectDao) {
+	public StatsService(ITareaDao tareaDao, IProjectDao projectDao, IUsuarioDao usuarioDao) {
 		super();
 		this.tareaDao = tareaDao;
 		this.projectDao = projectDao;
+		this.usuarioDao = usuarioDao;
 	}
 	
 	
+	public String getUsernameActivo(Long userId) {
+
+		return usuarioDao.findActiveUsernameById(userId);
+	}
+	
+	
+	public List<Object[]> getDashboardByUserId(Long userId) {
+
+		return tareaDao.getDashboardByUserId(userId);
+	}
+
+	
+	public List<Object[]> getResumenTareasByUserId(Long userId) {
+
+		return tareaDao.getResumenTareasByUserId(userId);
+	}
+
+	
 	public List<Object[]> countTareasByPrioridad(Long userId) {
 
 		return tareaDao.countTareasByPrioridad(userId);
@@ -1,11 +1,19 @@
 package com.springboot.app.models.services;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -15,23 +23,35 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.springboot.app.models.dao.ICommentDao;
+import com.springboot.app.models.dao.ITareaCambioDao;
 import com.springboot.app.models.dao.ITareaDao;
+import com.springboot.app.models.dao.TareaFiltro;
+import com.springboot.app.models.dtos.CursorPageDto;
+import com.springboot.app.models.dtos.TareaCambioDto;
+import com.springboot.app.models.dtos.TareaCambiosEventoDto;
 import com.springboot.app.models.dtos.TareaDto;
-import com.springboot.app.models.entities.Comment;
 import com.springboot.app.models.entities.PrioridadTarea;
 import com.springboot.app.models.entities.Project;
 import com.springboot.app.models.entities.Tag;
 import com.springboot.app.models.entities.Tarea;
+import com.springboot.app.models.entities.TareaCambio;
 import com.springboot.app.models.entities.TareaStatus;
 import com.springboot.app.models.entities.Usuario;
 import com.springboot.app.utils.Constants;
+import com.springboot.app.utils.CursorCodec;
+import com.springboot.app.utils.DashboardCounterStore;
+import com.springboot.app.utils.DashboardCounterStore.TareaResumen;
 import com.springboot.app.utils.TareaChangeLogHelper;
+import com.springboot.app.utils.TareaEventBus;
 import com.springboot.app.utils.Utils;
 
 @Service
 public class TareaServiceImpl implements ITareaService {
 
+	private static final int MAX_TAREAS_ASIGNACION = 500;
+
+	private static final int MAX_USUARIOS_ASIGNACION = 200;
+
 	private final ITareaDao tareaDao;
 
 	private final IUsuarioService usuarioService;
@@ -40,27 +60,33 @@ public class TareaServiceImpl implements ITareaService {
 
 	private final IProjectMemberService projectMemberService;	
 
-	private final ICommentDao commentDao;
+	private final ITareaCambioDao tareaCambioDao;
 	
 	private final CatalogoService catalogoService;
 
 	private final TareaChangeLogHelper tareaLogHelper;
 
+	private final DashboardCounterStore counterStore;
+
+	private final TareaEventBus eventBus;
+
 
 
 
 
 	public TareaServiceImpl(ITareaDao tareaDao, IUsuarioService usuarioService, IProjectService projectService,
-			IProjectMemberService projectMemberService, ICommentDao commentDao, CatalogoService catalogoService,
-			TareaChangeLogHelper tareaLogHelper) {
+			IProjectMemberService projectMemberService, ITareaCambioDao tareaCambioDao, CatalogoService catalogoService,
+			TareaChangeLogHelper tareaLogHelper, DashboardCounterStore counterStore, TareaEventBus eventBus) {
 		super();
 		this.tareaDao = tareaDao;
 		this.usuarioService = usuarioService;
 		this.projectService = projectService;
 		this.projectMemberService = projectMemberService;
-		this.commentDao = commentDao;
+		this.tareaCambioDao = tareaCambioDao;
 		this.catalogoService = catalogoService;
 		this.tareaLogHelper = tareaLogHelper;
+		this.counterStore = counterStore;
+		this.eventBus = eventBus;
 	}
 
 	@Override
@@ -79,8 +105,6 @@ public class TareaServiceImpl implements ITareaService {
 
 		boolean isUpdate = false;
 
-		String cambiosTarea;
-
 		Optional<PrioridadTarea> prioridadTarea = catalogoService.findPrioridadTareaById(dto.getId_prioridad());
 
 		if (prioridadTarea.isEmpty()) {
@@ -109,33 +133,22 @@ public class TareaServiceImpl implements ITareaService {
 			throw new SecurityException("No tienes permisos para gestionar tareas en este proyecto");
 		}
 
-		if (isUpdate) {
-
-			cambiosTarea = tareaLogHelper.generarMensajeCambiosTarea(tarea, dto, user, prioridadTarea.get(),
-					tareaStatus.get(), project);
-
-			List<Long> mentionsIds = new ArrayList<>();
-			Comment comment = new Comment();
+		List<TareaCambio> cambios = List.of();
 
-			comment.setBody(cambiosTarea);
-			comment.setAutor(user);
-			comment.setTarea(tarea);
+		if (isUpdate) {
 
-			if (project != null) {
-				mentionsIds.addAll(tarea.getUsuarios().stream().map(u -> u.getId()).toList());
+			cambios = tareaLogHelper.calcularCambios(tarea, dto, user, prioridadTarea.get(), tareaStatus.get(),
+					project);
 
-				mentionsIds.add(project.getOwner().getId());
+			// Una actualizacion sin cambios no escribe historial ni modifica la tarea
+			if (!cambios.isEmpty()) {
 
-				mentionsIds.add(tarea.getOwner().getId());
+				tareaCambioDao.saveAll(cambios);
 
-				mentionsIds.removeIf(u -> u.equals(userAuthId));
+				notificarCambios(tarea, cambios, user, project);
 
-				comment.setMentions(usuarioService.findAllByIds(mentionsIds));
+				tarea.setUsuarioModificacion(user.getUsername());
 			}
-
-			commentDao.save(comment);
-
-			tarea.setUsuarioModificacion(user.getUsername());
 		} else {
 			tarea.setOwner(user);
 		}
@@ -148,7 +161,15 @@ public class TareaServiceImpl implements ITareaService {
 		tarea.setTareaStatus(tareaStatus.get());
 		tarea.setProject(project);
 
-		TareaDto saved = new TareaDto(tareaDao.saveAndFlush(tarea));
+		Tarea tareaGuardada = tareaDao.saveAndFlush(tarea);
+
+		TareaDto saved = new TareaDto(tareaGuardada);
+
+		actualizarContadores(tareaGuardada);
+
+		if (!cambios.isEmpty()) {
+			Utils.ejecutarDespuesDelCommit(() -> eventBus.publicar(saved.getIdGuid(), TareaEventBus.EVENTO_TAREA, saved));
+		}
 
 		if (project == null) {
 			asignarTarea(Arrays.asList(userAuthId), saved.getIdGuid(), userAuthId);
@@ -157,6 +178,47 @@ public class TareaServiceImpl implements ITareaService {
 		return saved;
 	}
 
+	// Los cambios se avisan por SSE con sus ids; el texto solo se arma en GET /tareas/{id}/cambios
+	private void notificarCambios(Tarea tarea, List<TareaCambio> cambios, Usuario user, Project project) {
+
+		if (project == null) {
+			return;
+		}
+
+		String tareaId = tarea.getIdGuid();
+
+		Set<Long> owners = new LinkedHashSet<>();
+
+		if (project.getOwner() != null) {
+			owners.add(project.getOwner().getId());
+		}
+
+		if (tarea.getOwner() != null) {
+			owners.add(tarea.getOwner().getId());
+		}
+
+		List<Long> cambioIds = cambios.stream().map(TareaCambio::getId).toList();
+
+		List<String> campos = cambios.stream().map(TareaCambio::getCampo).toList();
+
+		Utils.ejecutarDespuesDelCommit(() -> {
+
+			// Los asignados solo se consultan si alguien escucha la tarea
+			if (!eventBus.tieneSuscriptores(tareaId)) {
+				return;
+			}
+
+			Set<Long> mentionsIds = new LinkedHashSet<>(tareaDao.findUsuarioIdsByTareaIds(List.of(tareaId)));
+
+			mentionsIds.addAll(owners);
+
+			mentionsIds.remove(user.getId());
+
+			eventBus.publicar(tareaId, TareaEventBus.EVENTO_CAMBIOS, new TareaCambiosEventoDto(tareaId,
+					user.getUsername(), cambioIds, campos, new ArrayList<>(mentionsIds)));
+		});
+	}
+
 	@Override
 	@Transactional(readOnly = true)
 	public Page<TareaDto> getAllActives(int pagina, int tamanio, List<Short> tareaStatusIds, List<Short> prioridadIds,
@@ -165,15 +227,115 @@ public class TareaServiceImpl implements ITareaService {
 
 		Pageable pageable = PageRequest.of(pagina, tamanio, Utils.parseSortParams(sorts));
 
-		boolean aplicarPrioridad = prioridadIds != null && !prioridadIds.isEmpty();
+		TareaFiltro filtro = construirFiltro(tareaStatusIds, prioridadIds, fechaLimiteDesde, fechaLimiteHasta,
+				busquedaDesc, busquedaTitulo, ownerId);
+
+		Page<Tarea> tareas = tareaDao.buscarActivas(filtro, pageable);
 
-		boolean aplicarTareaStatus = tareaStatusIds != null && !tareaStatusIds.isEmpty();
+		cargarEtiquetas(tareas.getContent());
 
-		return tareaDao
-				.getAllActives(pageable, aplicarTareaStatus ? tareaStatusIds : List.of(),
-						aplicarPrioridad ? prioridadIds : List.of(), fechaLimiteDesde, fechaLimiteHasta, busquedaDesc,
-						busquedaTitulo, aplicarPrioridad, aplicarTareaStatus, ownerId)
-				.map(tarea -> new TareaDto(tarea));
+		return tareas.map(tarea -> new TareaDto(tarea));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageDto<TareaDto> getAllActivesCursor(String cursor, int tamanio, List<Short> tareaStatusIds,
+			List<Short> prioridadIds, LocalDate fechaLimiteDesde, LocalDate fechaLimiteHasta, String busquedaDesc,
+			String busquedaTitulo, boolean incluirTotal, Long ownerId) {
+
+		TareaFiltro filtro = construirFiltro(tareaStatusIds, prioridadIds, fechaLimiteDesde, fechaLimiteHasta,
+				busquedaDesc, busquedaTitulo, ownerId);
+
+		return paginarPorCursor(filtro, cursor, tamanio, incluirTotal);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPageDto<TareaDto> getTareasByProjectIdCursor(String projectId, String cursor, int tamanio,
+			boolean incluirTotal, Long userId) {
+
+		if (!projectService.existsProjectActive(projectId)) {
+			throw new NoSuchElementException("Proyecto inexistente");
+		}
+
+		if (!projectMemberService.isMember(userId, projectId)) {
+			throw new SecurityException("No puedes acceder a la informacion de este proyecto");
+		}
+
+		return paginarPorCursor(TareaFiltro.builder().projectId(projectId).build(), cursor, tamanio, incluirTotal);
+	}
+
+	// Keyset sobre (fecha_limite DESC, id_guid DESC), comun al listado general y al de un proyecto
+	private CursorPageDto<TareaDto> paginarPorCursor(TareaFiltro filtro, String cursor, int tamanio,
+			boolean incluirTotal) {
+
+		if (tamanio < 1) {
+			throw new IllegalArgumentException("El tamaño de pagina debe ser mayor a 0");
+		}
+
+		LocalDateTime cursorFecha = null;
+
+		String cursorId = null;
+
+		if (cursor != null && !cursor.isBlank()) {
+
+			String[] partes = CursorCodec.decodificar(cursor, 2);
+
+			try {
+				cursorFecha = partes[0].isEmpty() ? null : LocalDateTime.parse(partes[0]);
+			} catch (DateTimeParseException e) {
+				throw new IllegalArgumentException("Cursor invalido");
+			}
+
+			cursorId = partes[1];
+		}
+
+		// Se pide un elemento extra solo para saber si existe una pagina siguiente
+		List<Tarea> tareas = tareaDao.buscarActivasKeyset(filtro, cursorFecha, cursorId, tamanio + 1);
+
+		boolean hayMas = tareas.size() > tamanio;
+
+		List<Tarea> pagina = hayMas ? tareas.subList(0, tamanio) : tareas;
+
+		String nextCursor = null;
+
+		if (hayMas) {
+
+			Tarea ultima = pagina.get(pagina.size() - 1);
+
+			nextCursor = CursorCodec.codificar(
+					ultima.getFechaLimite() == null ? "" : ultima.getFechaLimite().toString(), ultima.getIdGuid());
+		}
+
+		Long total = incluirTotal ? tareaDao.contarActivas(filtro) : null;
+
+		cargarEtiquetas(pagina);
+
+		return new CursorPageDto<>(pagina.stream().map(tarea -> new TareaDto(tarea)).toList(), nextCursor, total,
+				tamanio);
+	}
+
+	// TareaDto recorre las etiquetas de cada tarea; se cargan las de toda la pagina con un solo IN
+	private void cargarEtiquetas(List<Tarea> tareas) {
+
+		if (!tareas.isEmpty()) {
+			tareaDao.findConEtiquetasByIds(tareas.stream().map(Tarea::getIdGuid).toList());
+		}
+	}
+
+	private TareaFiltro construirFiltro(List<Short> tareaStatusIds, List<Short> prioridadIds,
+			LocalDate fechaLimiteDesde, LocalDate fechaLimiteHasta, String busquedaDesc, String busquedaTitulo,
+			Long ownerId) {
+
+		return TareaFiltro.builder()
+				.tareaStatusIds(tareaStatusIds)
+				.prioridadIds(prioridadIds)
+				.desde(fechaLimiteDesde)
+				.hasta(fechaLimiteHasta)
+				.busquedaDesc(busquedaDesc)
+				.busquedaTitulo(busquedaTitulo)
+				.ownerId(ownerId)
+				.build();
 	}
 
 
@@ -191,7 +353,7 @@ public class TareaServiceImpl implements ITareaService {
 	@Transactional
 	public void asignarTarea(List<Long> userIds, String tareaId, Long userAuthId) {
 
-		Tarea tarea = tareaDao.findById(tareaId).orElseThrow(() -> new NoSuchElementException("Tarea no encontrada"));
+		Tarea tarea = tareaDao.findConUsuariosById(tareaId).orElseThrow(() -> new NoSuchElementException("Tarea no encontrada"));
 
 		if (tarea.getProject() == null) {
 
@@ -206,10 +368,14 @@ public class TareaServiceImpl implements ITareaService {
 
 			List<Usuario> usuarios = usuarioService.findAllByIds(userIds);
 
+			List<Long> anteriores = idsAsignados(tarea);
+
 			tarea.setUsuarios(usuarios);
 
 			tareaDao.save(tarea);
 
+			actualizarContadores(tarea, anteriores);
+
 			return;
 
 		}
@@ -218,21 +384,90 @@ public class TareaServiceImpl implements ITareaService {
 			throw new SecurityException("No tienes los permisos necesarios");
 		}
 
-		List<Usuario> usuarios = usuarioService.findAllByIds(userIds);
+		String projectId = tarea.getProject().getIdGuid();
 
-		usuarios = usuarios.stream()
-				.filter(user -> projectMemberService.isMember(user.getId(), tarea.getProject().getIdGuid()))
-				.collect(Collectors.toList());
+		// Una sola consulta IN para validar la membresia activa de todos los candidatos
+		Set<Long> miembros = projectMemberService.findMiembrosActivos(List.of(projectId), userIds)
+				.getOrDefault(projectId, Set.of());
 
-		if (tarea.getUsuarios() != null) {
+		Map<Long, Usuario> usuarios = new LinkedHashMap<>();
+
+		usuarioService.findAllByIds(userIds).stream()
+				.filter(user -> miembros.contains(user.getId()))
+				.forEach(user -> usuarios.put(user.getId(), user));
 
-			usuarios.addAll(tarea.getUsuarios());
+		// Las asignaciones previas se conservan sin duplicar a quien ya estaba asignado
+		if (tarea.getUsuarios() != null) {
+			tarea.getUsuarios().forEach(user -> usuarios.putIfAbsent(user.getId(), user));
 		}
 
-		tarea.setUsuarios(usuarios);
+		tarea.setUsuarios(new ArrayList<>(usuarios.values()));
 
 		tareaDao.save(tarea);
 
+		actualizarContadores(tarea);
+
+	}
+
+	@Override
+	@Transactional
+	public void asignarTareas(List<String> tareaIds, List<Long> userIds, Long userAuthId) {
+
+		Set<String> ids = new LinkedHashSet<>(tareaIds);
+
+		Set<Long> usuarioIds = new LinkedHashSet<>(userIds);
+
+		if (ids.isEmpty() || usuarioIds.isEmpty()) {
+			throw new IllegalArgumentException("Debe indicar al menos una tarea y un usuario");
+		}
+
+		if (ids.size() > MAX_TAREAS_ASIGNACION || usuarioIds.size() > MAX_USUARIOS_ASIGNACION) {
+			throw new IllegalArgumentException(String.format("Maximo %d tareas y %d usuarios por asignacion",
+					MAX_TAREAS_ASIGNACION, MAX_USUARIOS_ASIGNACION));
+		}
+
+		Map<String, String> proyectoPorTarea = new LinkedHashMap<>();
+
+		for (Object[] fila : tareaDao.findProjectIdsByTareaIds(ids)) {
+			proyectoPorTarea.put((String) fila[0], (String) fila[1]);
+		}
+
+		if (proyectoPorTarea.size() != ids.size()) {
+			throw new NoSuchElementException("Tarea no encontrada");
+		}
+
+		if (proyectoPorTarea.containsValue(null)) {
+			throw new IllegalStateException("Una tarea no ligada a un proyecto no puede asignarse a mas de un usuario");
+		}
+
+		Set<String> proyectos = new HashSet<>(proyectoPorTarea.values());
+
+		if (!projectMemberService.findProyectosOwner(userAuthId, proyectos).containsAll(proyectos)) {
+			throw new SecurityException("No tienes los permisos necesarios");
+		}
+
+		// Mismo filtro que la asignacion individual: usuarios activos con membresia activa
+		Set<Long> activos = usuarioService.findAllByIds(new ArrayList<>(usuarioIds)).stream().map(Usuario::getId)
+				.collect(Collectors.toSet());
+
+		Map<String, Set<Long>> miembros = projectMemberService.findMiembrosActivos(proyectos, activos);
+
+		Map<String, Set<Long>> usuariosPorTarea = new LinkedHashMap<>();
+
+		proyectoPorTarea.forEach((tareaId, projectId) -> {
+
+			Set<Long> validos = miembros.getOrDefault(projectId, Set.of());
+
+			if (!validos.isEmpty()) {
+				usuariosPorTarea.put(tareaId, validos);
+			}
+		});
+
+		tareaDao.insertarAsignaciones(usuariosPorTarea);
+
+		Set<Long> afectados = usuariosPorTarea.values().stream().flatMap(Set::stream).collect(Collectors.toSet());
+
+		Utils.ejecutarDespuesDelCommit(() -> afectados.forEach(counterStore::invalidarUsuario));
 	}
 
 	@Override
@@ -279,12 +514,41 @@ public class TareaServiceImpl implements ITareaService {
 		
 		String username = usuarioService.findUsernameById(userAuthId);
 
+		List<Long> anteriores = idsAsignados(tarea);
+
 		tarea.setStatus(Constants.STATUS_INACTIVE);
 		tarea.setUsuarioModificacion(username);
 		tarea.setUsuarios(null);
 
 		tareaDao.save(tarea);
 
+		actualizarContadores(tarea, anteriores);
+
+	}
+
+	private void actualizarContadores(Tarea tarea) {
+
+		actualizarContadores(tarea, List.of());
+	}
+
+	private void actualizarContadores(Tarea tarea, List<Long> anteriores) {
+
+		String tareaId = tarea.getIdGuid();
+
+		TareaResumen resumen = Constants.STATUS_ACTIVE.equals(tarea.getStatus())
+				? new TareaResumen(tareaId, tarea.getFechaLimite(), tarea.getTareaStatus().getId(),
+						tarea.getTareaStatus().getStatus(), tarea.getPrioridad().getPrioridadTipo())
+				: null;
+
+		List<Long> asignados = idsAsignados(tarea);
+
+		// Los contadores solo deben reflejar cambios confirmados
+		Utils.ejecutarDespuesDelCommit(() -> counterStore.actualizarTarea(tareaId, resumen, asignados, anteriores));
+	}
+
+	private static List<Long> idsAsignados(Tarea tarea) {
+
+		return tarea.getUsuarios() == null ? List.of() : tarea.getUsuarios().stream().map(Usuario::getId).toList();
 	}
 
 	@Override
@@ -308,4 +572,24 @@ public class TareaServiceImpl implements ITareaService {
 		return tareaDao.getTagsFromTarea(idGuid);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public Page<TareaCambioDto> getCambios(String tareaId, int pagina, int tamanio, Long userId) {
+
+		Tarea tarea = tareaDao.findById(tareaId).orElseThrow(() -> new NoSuchElementException("Tarea no encontrada"));
+
+		boolean isOwner = Objects.equals(tarea.getOwner().getId(), userId);
+
+		boolean isMiembroProyecto = tarea.getProject() != null
+				&& projectMemberService.isMember(userId, tarea.getProject().getIdGuid());
+
+		if (!(isOwner || isMiembroProyecto || isAsignedToThisTask(tareaId, userId))) {
+			throw new SecurityException("No tienes los permisos necesarios para esta tarea");
+		}
+
+		// El texto legible se arma solo para la pagina consultada
+		return tareaCambioDao.findByTareaIdOrderByFechaDescIdDesc(tareaId, PageRequest.of(pagina, tamanio))
+				.map(cambio -> new TareaCambioDto(cambio, tareaLogHelper.renderizar(cambio)));
+	}
+
 }
@@ -10,6 +10,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.springboot.app.models.dao.IUsuarioDao;
 import com.springboot.app.models.entities.Usuario;
@@ -22,7 +23,9 @@ public class UsuarioDetailsService implements UserDetailsService{
     @Autowired
     private IUsuarioDao repo;
 
+	// Se llama desde el filtro JWT, fuera del request de Spring MVC: los roles se leen dentro de la transaccion
 	@Override
+	@Transactional(readOnly = true)
 	public UserDetails loadUserByUsername(String data) throws UsernameNotFoundException {
 		
 		Usuario usuario = repo.findByEmailOrUsernameAndStatusIs(data, data, Constants.STATUS_ACTIVE)
@@ -19,6 +19,10 @@ import com.springboot.app.models.dtos.UsuarioUpdateDto;
 import com.springboot.app.models.entities.Rol;
 import com.springboot.app.models.entities.Usuario;
 import com.springboot.app.utils.Constants;
+import com.springboot.app.utils.DashboardCounterStore;
+import com.springboot.app.utils.JwtDenyList;
+import com.springboot.app.utils.JwtPrincipalCache;
+import com.springboot.app.utils.Utils;
 
 import jakarta.persistence.EntityNotFoundException;
 
@@ -32,21 +36,32 @@ public class UsuarioServiceImpl implements IUsuarioService {
 	private final IRolDao rolDao;
 	
 	private final IProjectMemberService projectMemberService;
+	
+	private final JwtPrincipalCache principalCache;
+	
+	private final JwtDenyList denyList;
+	
+	private final DashboardCounterStore counterStore;
 
 	
 	
 	
 
 	public UsuarioServiceImpl(IUsuarioDao usuarioDao, PasswordEncoder encoder, IRolDao rolDao,
-			IProjectMemberService projectMemberService) {
+			IProjectMemberService projectMemberService, JwtPrincipalCache principalCache, JwtDenyList denyList,
+			DashboardCounterStore counterStore) {
 		super();
 		this.usuarioDao = usuarioDao;
 		this.encoder = encoder;
 		this.rolDao = rolDao;
 		this.projectMemberService = projectMemberService;
+		this.principalCache = principalCache;
+		this.denyList = denyList;
+		this.counterStore = counterStore;
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public UsuarioDto findByEmailOrUsernameAndStatusIs(String email, String username) {
 		
 		Usuario user= usuarioDao.findByEmailOrUsernameAndStatusIs(email.toLowerCase(), username.toLowerCase(), Constants.STATUS_ACTIVE)
@@ -57,6 +72,7 @@ public class UsuarioServiceImpl implements IUsuarioService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<UsuarioDto> findByStatusIs(Short status) {
 		
 		return usuarioDao.findByStatusIs(Constants.STATUS_ACTIVE).stream().map(user -> new UsuarioDto(user)).toList();
@@ -90,6 +106,14 @@ public class UsuarioServiceImpl implements IUsuarioService {
 		Usuario userSaved = usuarioDao.save(usuario);
 		userSaved.setPassword(null);
 		
+		if (user.getId() != null) {
+			Long userId = userSaved.getId();
+			Utils.ejecutarDespuesDelCommit(() -> {
+				principalCache.invalidarUsuario(userId);
+				denyList.revocar(userId);
+			});
+		}
+		
 		return new UsuarioDto(userSaved);
 	}
 
@@ -120,6 +144,7 @@ public class UsuarioServiceImpl implements IUsuarioService {
 
 
 	@Override
+	@Transactional(readOnly = true)
 	public UsuarioAuthInfoDto findUserById(Long userId) {
 		
 		return new UsuarioAuthInfoDto(findByUserId(userId));
@@ -128,6 +153,7 @@ public class UsuarioServiceImpl implements IUsuarioService {
 
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<UsuarioAuthInfoDto> findByUsernameContainingAndProjectId(String term, String projectId, Long userId) {
 		
 		if (!projectMemberService.isMember(userId, projectId)) {
@@ -167,9 +193,15 @@ public class UsuarioServiceImpl implements IUsuarioService {
 			user.setEmail(dto.getEmail().toLowerCase());
 		
 		
+		Usuario userSaved = usuarioDao.save(user);
 		
+		Utils.ejecutarDespuesDelCommit(() -> {
+			principalCache.invalidarUsuario(userId);
+			denyList.revocar(userId);
+			counterStore.invalidarUsuario(userId);
+		});
 		
-		return new UsuarioAuthInfoDto(usuarioDao.save(user));
+		return new UsuarioAuthInfoDto(userSaved);
 	}
 
 	@Override
@@ -179,6 +211,7 @@ public class UsuarioServiceImpl implements IUsuarioService {
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public List<UsuarioAuthInfoDto> findByUsernameContainingOrEmailContaining(String term, String projectId, Long authUserId) {
 		
 		if (!projectMemberService.isOwner(authUserId, projectId)) {
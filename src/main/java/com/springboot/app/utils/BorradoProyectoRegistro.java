@@ -0,0 +1,103 @@
+package com.springboot.app.utils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.springboot.app.models.dao.IBorradoProyectoDao;
+import com.springboot.app.models.dtos.BorradoProyectoDto;
+import com.springboot.app.models.entities.BorradoProyecto;
+
+/**
+ * Avance de los borrados de proyectos que corren en segundo plano, guardado
+ * en la tabla borrados_proyecto para que cualquier instancia lo consulte y
+ * sobreviva a un reinicio. avanzar se une a la transaccion del lote, asi el
+ * contador solo sube cuando las tareas del lote quedaron desactivadas. Los
+ * procesos terminados se borran despues de una hora.
+ */
+@Component
+public class BorradoProyectoRegistro {
+
+	public static final String EN_PROCESO = "EN_PROCESO";
+
+	public static final String COMPLETADO = "COMPLETADO";
+
+	public static final String FALLIDO = "FALLIDO";
+
+	private static final long RETENCION_SEGUNDOS = 3600;
+
+	private final IBorradoProyectoDao borradoDao;
+
+	public BorradoProyectoRegistro(IBorradoProyectoDao borradoDao) {
+		super();
+		this.borradoDao = borradoDao;
+	}
+
+	@Transactional
+	public BorradoProyectoDto registrar(String projectId, long total, Long userId) {
+
+		borradoDao.deleteTerminadosAntesDe(LocalDateTime.now().minusSeconds(RETENCION_SEGUNDOS));
+
+		return toDto(borradoDao.save(new BorradoProyecto(projectId, userId, total, EN_PROCESO)));
+	}
+
+	@Transactional
+	public void avanzar(String jobId, int procesadas) {
+		borradoDao.avanzar(jobId, procesadas, LocalDateTime.now());
+	}
+
+	@Transactional
+	public void terminar(String jobId) {
+		borradoDao.cerrar(jobId, COMPLETADO, null, LocalDateTime.now());
+	}
+
+	@Transactional
+	public void fallar(String jobId, String error) {
+		borradoDao.cerrar(jobId, FALLIDO, error, LocalDateTime.now());
+	}
+
+	@Transactional(readOnly = true)
+	public BorradoProyectoDto consultar(String jobId, String projectId, Long userId) {
+
+		BorradoProyecto borrado = borradoDao.findById(jobId).filter(b -> b.getProjectId().equals(projectId))
+				.orElseThrow(() -> new NoSuchElementException("Proceso de borrado no encontrado"));
+
+		if (!Objects.equals(borrado.getUsuarioId(), userId)) {
+			throw new SecurityException("No puedes consultar este proceso de borrado");
+		}
+
+		return toDto(borrado);
+	}
+
+	/**
+	 * Si algun proceso del proyecto confirmo un lote despues de desde. Un
+	 * proceso EN_PROCESO que no avanza se da por perdido.
+	 */
+	@Transactional(readOnly = true)
+	public boolean enProceso(String projectId, LocalDateTime desde) {
+
+		return borradoDao.existsByProjectIdAndEstadoAndActualizadoAfter(projectId, EN_PROCESO, desde);
+	}
+
+	/**
+	 * Ultimo proceso sin terminar del proyecto, para que el barrido que lo
+	 * retoma siga reportando su avance.
+	 */
+	@Transactional(readOnly = true)
+	public Optional<String> buscarPendiente(String projectId) {
+
+		return borradoDao.findFirstByProjectIdAndEstadoInOrderByInicioDesc(projectId, List.of(EN_PROCESO, FALLIDO))
+				.map(BorradoProyecto::getJobId);
+	}
+
+	private static BorradoProyectoDto toDto(BorradoProyecto borrado) {
+		return new BorradoProyectoDto(borrado.getJobId(), borrado.getProjectId(), borrado.getEstado(),
+				borrado.getProcesadas(), borrado.getTotal(), borrado.getError());
+	}
+
+}
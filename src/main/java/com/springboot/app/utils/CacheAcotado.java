@@ -0,0 +1,183 @@
+package com.springboot.app.utils;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Cache en memoria con expiracion por entrada y un maximo de entradas. Al
+ * llenarse descarta una entrada poco usada, asi que siempre se puede guardar.
+ * El oyente opcional se avisa por cada entrada que sale del cache (expirada,
+ * desplazada o quitada) para que el dueño limpie sus indices.
+ *
+ * Las lecturas no toman ningun candado: solo marcan la entrada como usada.
+ * El desalojo es un reloj (aproximacion de LRU) que recorre las entradas,
+ * perdona una vez a las marcadas y descarta la primera que no se uso desde
+ * la vuelta anterior; solo las escrituras que pasan del maximo lo ejecutan.
+ */
+public class CacheAcotado<K, V> {
+
+	private final int maxEntradas;
+
+	private final BiConsumer<K, V> alDescartar;
+
+	private final ConcurrentHashMap<K, Entrada<V>> entradas = new ConcurrentHashMap<>();
+
+	private final ReentrantLock desalojo = new ReentrantLock();
+
+	// Manecilla del reloj; solo se usa con el candado de desalojo
+	private Iterator<Map.Entry<K, Entrada<V>>> manecilla;
+
+	public CacheAcotado(int maxEntradas) {
+		this(maxEntradas, (llave, valor) -> {
+		});
+	}
+
+	public CacheAcotado(int maxEntradas, BiConsumer<K, V> alDescartar) {
+		this.maxEntradas = maxEntradas;
+		this.alDescartar = alDescartar;
+	}
+
+	/**
+	 * Valor vigente para la llave, o null si no existe o ya expiro.
+	 */
+	public V obtener(K llave) {
+
+		Entrada<V> entrada = entradas.get(llave);
+
+		if (entrada == null) {
+			return null;
+		}
+
+		if (!entrada.vigente(Instant.now())) {
+			descartar(llave, entrada);
+			return null;
+		}
+
+		// Solo se escribe la marca si cambia, para no ensuciar la linea de cache en cada lectura
+		if (!entrada.usada) {
+			entrada.usada = true;
+		}
+
+		return entrada.valor;
+	}
+
+	public void guardar(K llave, V valor, Instant expiracion) {
+
+		if (maxEntradas <= 0) {
+			return;
+		}
+
+		Entrada<V> anterior = entradas.put(llave, new Entrada<>(valor, expiracion));
+
+		if (anterior != null && anterior.valor != valor) {
+			alDescartar.accept(llave, anterior.valor);
+		}
+
+		if (entradas.size() > maxEntradas) {
+			desalojar(llave);
+		}
+	}
+
+	public V quitar(K llave) {
+
+		Entrada<V> entrada = entradas.remove(llave);
+
+		if (entrada == null) {
+			return null;
+		}
+
+		alDescartar.accept(llave, entrada.valor);
+
+		return entrada.valor;
+	}
+
+	public void quitarSi(Predicate<V> condicion) {
+
+		entradas.forEach((llave, entrada) -> {
+			if (condicion.test(entrada.valor)) {
+				descartar(llave, entrada);
+			}
+		});
+	}
+
+	public void limpiar() {
+		quitarSi(valor -> true);
+	}
+
+	public int tamanio() {
+		return entradas.size();
+	}
+
+	// La llave recien guardada no es candidata: desalojarla haria inutil el guardar
+	private void desalojar(K recienGuardada) {
+
+		desalojo.lock();
+
+		try {
+			Instant ahora = Instant.now();
+
+			// Dos vueltas bastan: la primera quita todas las marcas de uso
+			long pasos = 2L * entradas.size() + 2;
+
+			while (entradas.size() > maxEntradas && pasos-- > 0) {
+
+				if (manecilla == null || !manecilla.hasNext()) {
+					manecilla = entradas.entrySet().iterator();
+				}
+
+				if (!manecilla.hasNext()) {
+					return;
+				}
+
+				Map.Entry<K, Entrada<V>> candidata = manecilla.next();
+
+				Entrada<V> entrada = candidata.getValue();
+
+				if (candidata.getKey().equals(recienGuardada)) {
+					continue;
+				}
+
+				if (entrada.usada && entrada.vigente(ahora)) {
+					entrada.usada = false;
+					continue;
+				}
+
+				descartar(candidata.getKey(), entrada);
+			}
+		} finally {
+			desalojo.unlock();
+		}
+	}
+
+	// Solo avisa quien logra quitar la entrada, asi cada salida se notifica una vez
+	private void descartar(K llave, Entrada<V> entrada) {
+
+		if (entradas.remove(llave, entrada)) {
+			alDescartar.accept(llave, entrada.valor);
+		}
+	}
+
+	private static final class Entrada<V> {
+
+		private final V valor;
+
+		private final Instant expiracion;
+
+		private volatile boolean usada;
+
+		Entrada(V valor, Instant expiracion) {
+			this.valor = valor;
+			this.expiracion = expiracion;
+		}
+
+		boolean vigente(Instant ahora) {
+			return expiracion.isAfter(ahora);
+		}
+	}
+
+}
@@ -10,6 +10,9 @@ public class Constants {
 	public static final Short STATUS_READY = 3;
 	public static final Short STATUS_ACCEPTED = 4;
 	public static final Short STATUS_REJECTED = 5;
+	public static final Short STATUS_PURGED = 6;
+	public static final Short STATUS_REAPING = 7;
+	public static final Short STATUS_PURGE_FAILED = 8;
 	
 	
 }
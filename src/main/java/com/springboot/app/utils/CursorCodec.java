@@ -0,0 +1,44 @@
+package com.springboot.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica y decodifica los cursores opacos usados en la paginacion keyset.
+ * Un cursor es la lista de valores de la llave de ordenamiento del ultimo
+ * elemento entregado, separados por '|' y en base64url.
+ */
+public class CursorCodec {
+
+	private static final String SEPARADOR = "|";
+
+	private CursorCodec() {
+	}
+
+	public static String codificar(String... valores) {
+
+		String plano = String.join(SEPARADOR, valores);
+
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static String[] decodificar(String cursor, int partesEsperadas) {
+
+		String plano;
+
+		try {
+			plano = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Cursor invalido");
+		}
+
+		String[] partes = plano.split("\\|", -1);
+
+		if (partes.length != partesEsperadas) {
+			throw new IllegalArgumentException("Cursor invalido");
+		}
+
+		return partes;
+	}
+
+}
@@ -0,0 +1,316 @@
+package com.springboot.app.utils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.springboot.app.models.dtos.DashboardDto;
+
+/**
+ * Contadores del dashboard mantenidos en memoria por usuario. Se cargan una
+ * vez desde la base de datos y despues se actualizan con cada cambio de
+ * tareas; los contadores que dependen de la hora (hoy, vencidas, pendientes)
+ * se calculan al leer sobre un indice ordenado por fecha limite.
+ *
+ * Los cambios solo llegan a la instancia que los escribio. Con varias
+ * instancias, cada entrada vive como maximo app.dashboard.ttlSeconds, que es
+ * el retraso maximo con el que otra instancia refleja un cambio.
+ */
+@Component
+public class DashboardCounterStore {
+
+	// tarea_status CANCELADO y COMPLETADO
+	private static final Set<Short> ESTATUS_CERRADOS = Set.of((short) 3, (short) 5);
+
+	private static final Short ESTATUS_COMPLETADO = 5;
+
+	// Mayor que cualquier GUID; sirve como cota superior al buscar por fecha
+	private static final String ID_MAXIMO = "\uffff";
+
+	private static final int FRANJAS_VERSION = 1024;
+
+	private final CacheAcotado<Long, ContadoresUsuario> porUsuario;
+
+	private final Map<String, Set<Long>> usuariosPorTarea = new ConcurrentHashMap<>();
+
+	// Version por franja de usuarios; una escritura solo descarta las cargas de
+	// los usuarios que toco y no las de todos
+	private final AtomicLongArray versiones = new AtomicLongArray(FRANJAS_VERSION);
+
+	private final long ttlSegundos;
+
+	public DashboardCounterStore(@Value("${app.dashboard.ttlSeconds:300}") long ttlSegundos,
+			@Value("${app.dashboard.cacheMaxSize:10000}") int maxEntradas) {
+		this.ttlSegundos = ttlSegundos;
+		this.porUsuario = new CacheAcotado<>(ttlSegundos > 0 ? maxEntradas : 0, this::desindexar);
+	}
+
+	/**
+	 * Con app.dashboard.ttlSeconds=0 no se guarda nada en memoria y no hace
+	 * falta leer el detalle por tarea.
+	 */
+	public boolean habilitado() {
+		return ttlSegundos > 0;
+	}
+
+	public long version(Long userId) {
+		return versiones.get(franja(userId));
+	}
+
+	public Optional<DashboardDto> leer(Long userId) {
+
+		ContadoresUsuario contadores = porUsuario.obtener(userId);
+
+		if (contadores == null) {
+			return Optional.empty();
+		}
+
+		return Optional.of(contadores.toDto(userId, LocalDateTime.now()));
+	}
+
+	/**
+	 * Arma los contadores leidos de la base de datos y los guarda en memoria
+	 * solo si ninguna escritura toco al usuario durante la lectura. El
+	 * dashboard se devuelve en ambos casos.
+	 */
+	public DashboardDto cargar(Long userId, long versionLeida, String username, long proyectosActivos,
+			long proyectosOwner, Collection<String> estatus, Collection<String> prioridades, List<TareaResumen> tareas) {
+
+		ContadoresUsuario contadores = new ContadoresUsuario(username, proyectosActivos, proyectosOwner, estatus,
+				prioridades);
+
+		tareas.forEach(contadores::agregar);
+
+		synchronized (this) {
+
+			if (habilitado() && version(userId) == versionLeida) {
+
+				porUsuario.guardar(userId, contadores, Instant.now().plusSeconds(ttlSegundos));
+
+				tareas.forEach(t -> indexar(t.tareaId(), userId));
+			}
+		}
+
+		return contadores.toDto(userId, LocalDateTime.now());
+	}
+
+	/**
+	 * Registra el estado actual de una tarea. Si la tarea ya no esta activa se
+	 * recibe resumen null y se quita de todos los usuarios. En anteriores van
+	 * los usuarios que dejaron de estar asignados con este cambio.
+	 */
+	public synchronized void actualizarTarea(String tareaId, TareaResumen resumen, Collection<Long> asignados,
+			Collection<Long> anteriores) {
+
+		Set<Long> indexados = usuariosPorTarea.remove(tareaId);
+
+		if (indexados != null) {
+			indexados.forEach(userId -> {
+				incrementarVersion(userId);
+				ContadoresUsuario contadores = porUsuario.obtener(userId);
+				if (contadores != null) {
+					contadores.quitar(tareaId);
+				}
+			});
+		}
+
+		if (anteriores != null) {
+			anteriores.forEach(this::incrementarVersion);
+		}
+
+		if (asignados == null) {
+			return;
+		}
+
+		for (Long userId : asignados) {
+
+			incrementarVersion(userId);
+
+			if (resumen == null) {
+				continue;
+			}
+
+			ContadoresUsuario contadores = porUsuario.obtener(userId);
+
+			if (contadores != null) {
+				contadores.agregar(resumen);
+				indexar(tareaId, userId);
+			}
+		}
+	}
+
+	public synchronized void invalidarUsuario(Long userId) {
+
+		incrementarVersion(userId);
+
+		porUsuario.quitar(userId);
+	}
+
+	public synchronized void invalidarTodo() {
+
+		for (int i = 0; i < FRANJAS_VERSION; i++) {
+			versiones.incrementAndGet(i);
+		}
+
+		porUsuario.limpiar();
+
+		usuariosPorTarea.clear();
+	}
+
+	private void incrementarVersion(Long userId) {
+		versiones.incrementAndGet(franja(userId));
+	}
+
+	private static int franja(Long userId) {
+		return Math.floorMod(userId.hashCode(), FRANJAS_VERSION);
+	}
+
+	private void indexar(String tareaId, Long userId) {
+
+		usuariosPorTarea.compute(tareaId, (k, usuarios) -> {
+			Set<Long> conjunto = usuarios != null ? usuarios : ConcurrentHashMap.newKeySet();
+			conjunto.add(userId);
+			return conjunto;
+		});
+	}
+
+	// Quita del indice por tarea a un usuario que salio de memoria
+	private void desindexar(Long userId, ContadoresUsuario contadores) {
+
+		contadores.tareaIds().forEach(tareaId -> usuariosPorTarea.computeIfPresent(tareaId, (k, usuarios) -> {
+			usuarios.remove(userId);
+			return usuarios.isEmpty() ? null : usuarios;
+		}));
+	}
+
+	public record TareaResumen(String tareaId, LocalDateTime fechaLimite, Short tareaStatusId, String tareaStatus,
+			String prioridad) {
+	}
+
+	private record Plazo(LocalDateTime fecha, String tareaId) {
+
+		private static final Comparator<Plazo> ORDEN = Comparator.comparing(Plazo::fecha)
+				.thenComparing(Plazo::tareaId);
+	}
+
+	private static class ContadoresUsuario {
+
+		private final String username;
+
+		private final long proyectosActivos;
+
+		private final long proyectosOwner;
+
+		private final Map<String, TareaResumen> tareas = new HashMap<>();
+
+		private final Map<String, Integer> porEstatus = new LinkedHashMap<>();
+
+		private final Map<String, Integer> porPrioridad = new LinkedHashMap<>();
+
+		// Tareas con fecha limite, ordenadas por (fecha, id)
+		private final TreeMap<Plazo, TareaResumen> plazos = new TreeMap<>(Plazo.ORDEN);
+
+		private long abiertas;
+
+		ContadoresUsuario(String username, long proyectosActivos, long proyectosOwner, Collection<String> estatus,
+				Collection<String> prioridades) {
+			this.username = username;
+			this.proyectosActivos = proyectosActivos;
+			this.proyectosOwner = proyectosOwner;
+			estatus.forEach(e -> porEstatus.put(e, 0));
+			prioridades.forEach(p -> porPrioridad.put(p, 0));
+		}
+
+		synchronized void agregar(TareaResumen tarea) {
+
+			quitar(tarea.tareaId());
+
+			tareas.put(tarea.tareaId(), tarea);
+
+			porEstatus.merge(tarea.tareaStatus(), 1, Integer::sum);
+			porPrioridad.merge(tarea.prioridad(), 1, Integer::sum);
+
+			if (!ESTATUS_CERRADOS.contains(tarea.tareaStatusId())) {
+				abiertas++;
+			}
+
+			if (tarea.fechaLimite() != null) {
+				plazos.put(new Plazo(tarea.fechaLimite(), tarea.tareaId()), tarea);
+			}
+		}
+
+		synchronized void quitar(String tareaId) {
+
+			TareaResumen tarea = tareas.remove(tareaId);
+
+			if (tarea == null) {
+				return;
+			}
+
+			porEstatus.merge(tarea.tareaStatus(), -1, Integer::sum);
+			porPrioridad.merge(tarea.prioridad(), -1, Integer::sum);
+
+			if (!ESTATUS_CERRADOS.contains(tarea.tareaStatusId())) {
+				abiertas--;
+			}
+
+			if (tarea.fechaLimite() != null) {
+				plazos.remove(new Plazo(tarea.fechaLimite(), tareaId));
+			}
+		}
+
+		synchronized Set<String> tareaIds() {
+			return Set.copyOf(tareas.keySet());
+		}
+
+		synchronized DashboardDto toDto(Long userId, LocalDateTime ahora) {
+
+			long vencidas = 0;
+
+			long abiertasVencidas = 0;
+
+			// Solo se recorren las tareas cuya fecha limite ya paso
+			for (TareaResumen tarea : plazos.headMap(new Plazo(ahora, ID_MAXIMO), true).values()) {
+
+				if (tarea.fechaLimite().isBefore(ahora) && !ESTATUS_COMPLETADO.equals(tarea.tareaStatusId())) {
+					vencidas++;
+				}
+
+				if (!ESTATUS_CERRADOS.contains(tarea.tareaStatusId())) {
+					abiertasVencidas++;
+				}
+			}
+
+			LocalDateTime manana = LocalDate.from(ahora).plusDays(1).atStartOfDay();
+
+			long hoy = plazos.subMap(new Plazo(ahora, ID_MAXIMO), false, new Plazo(manana, ""), false).size();
+
+			return DashboardDto.builder()
+					.username(username)
+					.usuarioId(userId)
+					.proyectosComoOwner(proyectosOwner)
+					.proyectosTotalActivos(proyectosActivos)
+					.tareasParaHoy(hoy)
+					.tareasPendientes(abiertas - abiertasVencidas)
+					.tareasVencidas(vencidas)
+					.tareasPorEstatus(new HashMap<>(porEstatus))
+					.tareasPorPrioridad(new HashMap<>(porPrioridad))
+					.build();
+		}
+	}
+
+}
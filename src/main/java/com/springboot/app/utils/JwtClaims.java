@@ -0,0 +1,26 @@
+package com.springboot.app.utils;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Claims de un token JWT cuya firma y expiracion ya fueron verificadas.
+ */
+@Getter
+@AllArgsConstructor
+public class JwtClaims {
+
+	private final String subject;
+
+	private final Long userId;
+
+	private final List<String> roles;
+
+	private final Instant emitido;
+
+	private final Instant expiracion;
+
+}
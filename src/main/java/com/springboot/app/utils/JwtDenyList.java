@@ -0,0 +1,62 @@
+package com.springboot.app.utils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lista en memoria de usuarios cuyos tokens emitidos antes de cierto instante
+ * ya no deben aceptarse. Cada entrada dura lo mismo que un token, despues de
+ * eso todos los tokens anteriores a la revocacion ya expiraron.
+ *
+ * El claim iat solo tiene segundos, asi que la revocacion se trunca a
+ * segundos: un token emitido en el mismo segundo (por ejemplo, el login que
+ * sigue a actualizar los datos) sigue siendo valido.
+ */
+@Component
+public class JwtDenyList {
+
+	private final Map<Long, Instant> revocados = new ConcurrentHashMap<>();
+
+	private final Duration ttl;
+
+	public JwtDenyList(@Value("${app.jwt.denyListTtlMinutes:60}") long ttlMinutos) {
+		this.ttl = Duration.ofMinutes(ttlMinutos);
+	}
+
+	public void revocar(Long userId) {
+
+		purgarExpirados();
+
+		revocados.put(userId, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+	}
+
+	public boolean estaRevocado(Long userId, Instant emitido) {
+
+		Instant revocadoEn = revocados.get(userId);
+
+		if (revocadoEn == null) {
+			return false;
+		}
+
+		if (!revocadoEn.plus(ttl).isAfter(Instant.now())) {
+			revocados.remove(userId, revocadoEn);
+			return false;
+		}
+
+		return emitido == null || emitido.isBefore(revocadoEn);
+	}
+
+	private void purgarExpirados() {
+
+		Instant limite = Instant.now().minus(ttl);
+
+		revocados.values().removeIf(revocadoEn -> revocadoEn.isBefore(limite));
+	}
+
+}
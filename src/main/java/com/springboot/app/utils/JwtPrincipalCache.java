@@ -0,0 +1,66 @@
+package com.springboot.app.utils;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache acotado de principals ya verificados, indexado por el token JWT.
+ * Cada entrada vive hasta el claim "exp" de su token o app.jwt.principalCacheTtlSeconds,
+ * lo que llegue antes, y se invalida cuando cambian los roles o datos de acceso
+ * del usuario. El TTL corto acota cuanto tarda otra instancia en dejar de usar
+ * roles viejos; ademas la invalidacion se difunde por {@link PermisoInvalidacionBus}
+ * para que las demas instancias la apliquen al siguiente sondeo.
+ */
+@Component
+public class JwtPrincipalCache {
+
+	private final CacheAcotado<String, CustomUserDetails> cache;
+
+	private final Duration ttl;
+
+	private final PermisoInvalidacionBus invalidacionBus;
+
+	public JwtPrincipalCache(@Value("${app.jwt.principalCacheMaxSize:10000}") int maxEntradas,
+			@Value("${app.jwt.principalCacheTtlSeconds:60}") long ttlSegundos, PermisoInvalidacionBus invalidacionBus) {
+		this.cache = new CacheAcotado<>(ttlSegundos > 0 ? maxEntradas : 0);
+		this.ttl = Duration.ofSeconds(ttlSegundos);
+		this.invalidacionBus = invalidacionBus;
+		invalidacionBus.registrar(this::descartar);
+	}
+
+	public CustomUserDetails obtener(String token) {
+
+		return cache.obtener(token);
+	}
+
+	public void guardar(String token, CustomUserDetails principal, Instant expiracion) {
+
+		// Se guarda una copia sin el hash del password
+		CustomUserDetails copia = new CustomUserDetails(principal.getUsername(), "", principal.getAuthorities(),
+				principal.getUserId());
+
+		Instant limite = Instant.now().plus(ttl);
+
+		cache.guardar(token, copia, expiracion.isBefore(limite) ? expiracion : limite);
+	}
+
+	/*
+	 * Ambas implementaciones del bus avisan primero a esta instancia, asi que
+	 * el cache local se limpia en el momento. Debe llamarse al confirmar.
+	 */
+	public void invalidarUsuario(Long userId) {
+
+		invalidacionBus.publicar(userId, PermisoInvalidacionBus.TODOS_LOS_PROYECTOS);
+	}
+
+	private void descartar(Long userId, String projectId) {
+
+		if (PermisoInvalidacionBus.TODOS_LOS_PROYECTOS.equals(projectId)) {
+			cache.quitarSi(principal -> principal.getUserId().equals(userId));
+		}
+	}
+
+}
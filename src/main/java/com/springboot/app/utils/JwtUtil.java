@@ -1,8 +1,12 @@
 package com.springboot.app.utils;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import javax.crypto.SecretKey;
@@ -13,47 +17,81 @@ import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
 @Component
 public class JwtUtil {
 
-	
+	private static final Duration DURACION_TOKEN = Duration.ofHours(1);
 	
 	 
 	
     private final SecretKey clave;
 
+    // El parser de jjwt es inmutable y thread-safe, se construye una sola vez
+    private final JwtParser parser;
 	
 
     public JwtUtil(@Value("${app.jwt.secretkey}") String key) {
 		
 		this.clave = Keys.hmacShaKeyFor(key.getBytes());
+		this.parser = Jwts.parserBuilder().setSigningKey(clave).build();
 	}
 
 
+	public Instant nuevaExpiracion() {
+		
+		// JWT guarda "exp" en segundos
+		return Instant.now().plus(DURACION_TOKEN).truncatedTo(ChronoUnit.SECONDS);
+	}
+	
+	
 	public String generarToken(String subject, Collection<? extends GrantedAuthority> auths) {
+		
+		return generarToken(subject, auths, null, nuevaExpiracion());
+	}
+	
+
+	public String generarToken(String subject, Collection<? extends GrantedAuthority> auths, Long userId,
+			Instant expiracion) {
         String roles = auths.stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(","));
         
         return Jwts.builder()
             .setSubject(subject)
             .claim("roles", roles)            
+            .claim("uid", userId)
             .setIssuedAt(new Date())
-            .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60)) // 1 hora
+            .setExpiration(Date.from(expiracion))
             .signWith(clave)
             .compact();
     }
 	
+	
+	/**
+	 * Verifica firma y expiracion una sola vez y devuelve los claims del token.
+	 * Lanza JwtException si el token no es valido.
+	 */
+	public JwtClaims parsearToken(String token) {
+		
+		Claims claims = parser.parseClaimsJws(token).getBody();
+		
+		String roles = claims.get("roles", String.class);
+		
+		List<String> listaRoles = (roles == null || roles.isBlank()) ? List.of() : Arrays.asList(roles.split(","));
+		
+		Number uid = claims.get("uid", Number.class);
+		
+		return new JwtClaims(claims.getSubject(), uid != null ? uid.longValue() : null, listaRoles,
+				claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+				claims.getExpiration().toInstant());
+	}
+	
 
 	public String extraerUsuario(String token) {
 
-		return Jwts.parserBuilder()
-				.setSigningKey(clave)
-				.build()
-				.parseClaimsJws(token)
-				.getBody()
-				.getSubject();
+		return parsearToken(token).getSubject();
 				
 	}
 	
@@ -62,15 +100,11 @@ public class JwtUtil {
 		
 		try {
 			
-			Claims claims = Jwts.parserBuilder()
-				    .setSigningKey(clave)
-				    .build()
-				    .parseClaimsJws(token)
-				    .getBody();
+			JwtClaims claims = parsearToken(token);
 
             
             return usuarioEsperado.equals(claims.getSubject())
-                    && claims.getExpiration().after(new Date());
+                    && claims.getExpiracion().isAfter(Instant.now());
 			
 		} catch (JwtException | IllegalArgumentException e) {
 			return false;
@@ -81,16 +115,7 @@ public class JwtUtil {
 	
 	public Instant getExpirationToken (String token) {
 		
-		Claims claims = Jwts.parserBuilder()
-			    .setSigningKey(clave)
-			    .build()
-			    .parseClaimsJws(token)
-			    .getBody();
-		
-		
-
-
-		return claims.getExpiration().toInstant();
+		return parsearToken(token).getExpiracion();
 	}
 	
 }
@@ -0,0 +1,19 @@
+package com.springboot.app.utils;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Difunde la invalidacion de un par (usuario, proyecto) a todos los caches de
+ * permisos. La implementacion se elige con app.permisos.invalidacion: "local"
+ * para una sola instancia y "bd" para varias detras del balanceador.
+ */
+public interface PermisoInvalidacionBus {
+
+	// Proyecto comodin: cambiaron los roles o el estatus del usuario, no una membresia
+	String TODOS_LOS_PROYECTOS = "*";
+
+	void publicar(Long userId, String projectId);
+
+	void registrar(BiConsumer<Long, String> oyente);
+
+}
@@ -0,0 +1,29 @@
+package com.springboot.app.utils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidacion dentro de la misma JVM: avisa a los oyentes en el momento.
+ */
+@Component
+@ConditionalOnProperty(name = "app.permisos.invalidacion", havingValue = "local", matchIfMissing = true)
+public class PermisoInvalidacionLocal implements PermisoInvalidacionBus {
+
+	private final List<BiConsumer<Long, String>> oyentes = new CopyOnWriteArrayList<>();
+
+	@Override
+	public void publicar(Long userId, String projectId) {
+		oyentes.forEach(oyente -> oyente.accept(userId, projectId));
+	}
+
+	@Override
+	public void registrar(BiConsumer<Long, String> oyente) {
+		oyentes.add(oyente);
+	}
+
+}
@@ -0,0 +1,129 @@
+package com.springboot.app.utils;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Cache de la membresia de un usuario en un proyecto. Cada par (usuario,
+ * proyecto) se resuelve una sola vez por request y ademas se comparte entre
+ * requests durante unos segundos. Las escrituras de miembros lo invalidan en
+ * todas las instancias a traves de {@link PermisoInvalidacionBus}.
+ */
+@Component
+public class PermisoProyectoCache {
+
+	private static final String ATRIBUTO_REQUEST = PermisoProyectoCache.class.getName();
+
+	private final CacheAcotado<String, PermisoProyecto> cache;
+
+	private final long ttlSegundos;
+
+	private final PermisoInvalidacionBus invalidacionBus;
+
+	public PermisoProyectoCache(@Value("${app.permisos.ttlSeconds:30}") long ttlSegundos,
+			@Value("${app.permisos.cacheMaxSize:10000}") int maxEntradas, PermisoInvalidacionBus invalidacionBus) {
+		this.ttlSegundos = ttlSegundos;
+		// Con TTL 0 solo queda el memo del request
+		this.cache = new CacheAcotado<>(ttlSegundos > 0 ? maxEntradas : 0);
+		this.invalidacionBus = invalidacionBus;
+		invalidacionBus.registrar(this::descartar);
+	}
+
+	public PermisoProyecto obtener(Long userId, String projectId, Supplier<PermisoProyecto> cargador) {
+
+		String llave = llave(userId, projectId);
+
+		Map<String, PermisoProyecto> memo = memoDelRequest();
+
+		PermisoProyecto permiso = memo != null ? memo.get(llave) : null;
+
+		if (permiso == null) {
+			permiso = cache.obtener(llave);
+		}
+
+		if (permiso == null) {
+			permiso = cargador.get();
+			cache.guardar(llave, permiso, Instant.now().plusSeconds(ttlSegundos));
+		}
+
+		if (memo != null) {
+			memo.put(llave, permiso);
+		}
+
+		return permiso;
+	}
+
+	/*
+	 * Se borra en el momento, para que el resto del request vea el cambio, y al
+	 * confirmar se difunde por el bus a todas las instancias (incluida esta, por
+	 * si otro hilo recargo el valor viejo mientras la transaccion seguia abierta).
+	 */
+	public void invalidar(Long userId, String projectId) {
+
+		String llave = llave(userId, projectId);
+
+		Map<String, PermisoProyecto> memo = memoDelRequest();
+
+		if (memo != null) {
+			memo.remove(llave);
+		}
+
+		cache.quitar(llave);
+
+		Utils.ejecutarDespuesDelCommit(() -> invalidacionBus.publicar(userId, projectId));
+	}
+
+	private void descartar(Long userId, String projectId) {
+		cache.quitar(llave(userId, projectId));
+	}
+
+	// Fuera de un request web (hilos de SSE, tareas programadas) solo se usa el cache compartido
+	@SuppressWarnings("unchecked")
+	private Map<String, PermisoProyecto> memoDelRequest() {
+
+		RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+
+		if (atributos == null) {
+			return null;
+		}
+
+		Object memo = atributos.getAttribute(ATRIBUTO_REQUEST, RequestAttributes.SCOPE_REQUEST);
+
+		if (memo == null) {
+			memo = new HashMap<String, PermisoProyecto>();
+			atributos.setAttribute(ATRIBUTO_REQUEST, memo, RequestAttributes.SCOPE_REQUEST);
+		}
+
+		return (Map<String, PermisoProyecto>) memo;
+	}
+
+	private static String llave(Long userId, String projectId) {
+		return userId + ":" + projectId;
+	}
+
+	/**
+	 * Membresia resuelta: si existe alguna fila (de cualquier estatus), si hay
+	 * alguna activa y los roles de las filas activas.
+	 */
+	public record PermisoProyecto(boolean miembro, boolean activo, Set<ProjectRole> rolesActivos) {
+
+		public static final PermisoProyecto SIN_MEMBRESIA = new PermisoProyecto(false, false, Set.of());
+
+		public boolean esOwner() {
+			return rolesActivos.contains(ProjectRole.OWNER);
+		}
+
+		public boolean puedeEditarTareas() {
+			return rolesActivos.contains(ProjectRole.OWNER) || rolesActivos.contains(ProjectRole.EDITOR);
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.springboot.app.utils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Buffers directos de tamaño fijo para las subidas en streaming. Se crean a
+ * demanda hasta maxBuffers y se reutilizan; si todos estan ocupados se espera
+ * un momento y despues se rechaza la subida, asi la memoria fuera del heap
+ * queda acotada a maxBuffers * tamanioBuffer.
+ */
+@Component
+public class PoolBuffersDirectos {
+
+	private final int tamanioBuffer;
+
+	private final int maxBuffers;
+
+	private final long esperaMs;
+
+	private final BlockingQueue<ByteBuffer> libres;
+
+	private final AtomicInteger creados = new AtomicInteger();
+
+	public PoolBuffersDirectos(@Value("${app.s3.uploadPartBytes:5242880}") int tamanioBuffer,
+			@Value("${app.s3.uploadBuffers:8}") int maxBuffers,
+			@Value("${app.s3.uploadBufferWaitMs:5000}") long esperaMs) {
+		this.tamanioBuffer = tamanioBuffer;
+		this.maxBuffers = maxBuffers;
+		this.esperaMs = esperaMs;
+		this.libres = new ArrayBlockingQueue<>(maxBuffers);
+	}
+
+	public ByteBuffer tomar() {
+
+		ByteBuffer buffer = libres.poll();
+
+		if (buffer == null && creados.incrementAndGet() <= maxBuffers) {
+			return ByteBuffer.allocateDirect(tamanioBuffer);
+		}
+
+		if (buffer == null) {
+			creados.decrementAndGet();
+			try {
+				buffer = libres.poll(esperaMs, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		if (buffer == null) {
+			throw new IllegalStateException("No hay capacidad para recibir el archivo, intente más tarde");
+		}
+
+		buffer.clear();
+		return buffer;
+	}
+
+	public void devolver(ByteBuffer buffer) {
+		libres.offer(buffer);
+	}
+
+	public int getTamanioBuffer() {
+		return tamanioBuffer;
+	}
+
+}
@@ -1,18 +1,54 @@
 package com.springboot.app.utils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 import org.springframework.stereotype.Component;
 
 import com.springboot.app.models.dtos.TareaDto;
 import com.springboot.app.models.entities.PrioridadTarea;
 import com.springboot.app.models.entities.Project;
 import com.springboot.app.models.entities.Tarea;
+import com.springboot.app.models.entities.TareaCambio;
 import com.springboot.app.models.entities.TareaStatus;
 import com.springboot.app.models.entities.Usuario;
 import com.springboot.app.models.services.IProjectService;
 
+/**
+ * Calcula los cambios campo por campo de una tarea al actualizarla. Solo se
+ * guardan los valores; el texto legible se arma al consultar el historial.
+ */
 @Component
 public class TareaChangeLogHelper {
 
+	public static final String CAMPO_TITULO = "TITULO";
+
+	public static final String CAMPO_DESCRIPCION = "DESCRIPCION";
+
+	public static final String CAMPO_FECHA_LIMITE = "FECHA_LIMITE";
+
+	public static final String CAMPO_STATUS = "STATUS";
+
+	public static final String CAMPO_PRIORIDAD = "PRIORIDAD";
+
+	public static final String CAMPO_TAREA_STATUS = "TAREA_STATUS";
+
+	public static final String CAMPO_PROYECTO = "PROYECTO";
+
+	private static final Map<String, String> ETIQUETAS = Map.of(
+			CAMPO_TITULO, "Titulo",
+			CAMPO_DESCRIPCION, "Descripcion",
+			CAMPO_FECHA_LIMITE, "Fecha limite",
+			CAMPO_STATUS, "Status",
+			CAMPO_PRIORIDAD, "Prioridad",
+			CAMPO_TAREA_STATUS, "Status de la tarea",
+			CAMPO_PROYECTO, "El proyecto de la tarea");
+
+	// Tamaño de las columnas de valores en tarea_cambios
+	private static final int MAX_VALOR = 255;
+
 	private final IProjectService projectService;
 	
 	
@@ -23,43 +59,65 @@ public class TareaChangeLogHelper {
 
 
 
-	public String generarMensajeCambiosTarea(Tarea tarea, TareaDto dto, Usuario user, PrioridadTarea prioridad, TareaStatus tareaStatus, Project project) {
+	public List<TareaCambio> calcularCambios(Tarea tarea, TareaDto dto, Usuario user, PrioridadTarea prioridad, TareaStatus tareaStatus, Project project) {
 		
-		StringBuffer buffer = new StringBuffer();
+		List<TareaCambio> cambios = new ArrayList<>();
 		
-		String msg="%s ha cambiado a \"%s\" por el usuario %s \n\n";
+		String tareaId = tarea.getIdGuid();
 		
-		if (!tarea.getTitulo().equals(dto.getTitulo())) {
-			buffer.append(String.format(msg, "Titulo",dto.getTitulo(),user.getUsername()));
-		}
+		String usuario = user.getUsername();
 		
+		if (!Objects.equals(tarea.getTitulo(), dto.getTitulo())) {
+			cambios.add(new TareaCambio(tareaId, CAMPO_TITULO, tarea.getTitulo(), dto.getTitulo(), usuario));
+		}
 		
-		if (!tarea.getDescripcion().equals(dto.getDescripcion())) {
-			buffer.append(String.format(msg, "Descripcion",dto.getDescripcion(),user.getUsername()));
+		if (!Objects.equals(tarea.getDescripcion(), dto.getDescripcion())) {
+			cambios.add(new TareaCambio(tareaId, CAMPO_DESCRIPCION, recortar(tarea.getDescripcion()), recortar(dto.getDescripcion()), usuario));
 		}
 		
-		if (!tarea.getFechaLimite().equals(dto.getFechaLimite())) {
-			buffer.append(String.format(msg, "Fecha limite",dto.getFechaLimite().toString(),user.getUsername()));
+		if (!Objects.equals(tarea.getFechaLimite(), dto.getFechaLimite())) {
+			cambios.add(new TareaCambio(tareaId, CAMPO_FECHA_LIMITE, texto(tarea.getFechaLimite()), texto(dto.getFechaLimite()), usuario));
 		}
 		
-		if (!tarea.getStatus().equals(dto.getStatus())) {
-			buffer.append(String.format(msg, "Status",projectService.getStatusByKey(dto.getStatus()),user.getUsername()));
+		if (!Objects.equals(tarea.getStatus(), dto.getStatus())) {
+			cambios.add(new TareaCambio(tareaId, CAMPO_STATUS, texto(tarea.getStatus()), texto(dto.getStatus()), usuario));
 		}
 		
-		if (!tarea.getPrioridad().getId().equals(dto.getId_prioridad())) {
-			buffer.append(String.format(msg, "Prioridad",prioridad.getPrioridadTipo(),user.getUsername()));
+		if (!Objects.equals(tarea.getPrioridad().getId(), dto.getId_prioridad())) {
+			cambios.add(new TareaCambio(tareaId, CAMPO_PRIORIDAD, tarea.getPrioridad().getPrioridadTipo(), prioridad.getPrioridadTipo(), usuario));
 		}
 		
-		if (!tarea.getTareaStatus().getId().equals(dto.getId_tarea_status())) {
-			buffer.append(String.format(msg, "Status de la tarea",tareaStatus.getStatus(),user.getUsername()));
+		if (!Objects.equals(tarea.getTareaStatus().getId(), dto.getId_tarea_status())) {
+			cambios.add(new TareaCambio(tareaId, CAMPO_TAREA_STATUS, tarea.getTareaStatus().getStatus(), tareaStatus.getStatus(), usuario));
 		}
 		
-		if (project!=null && !tarea.getProject().getIdGuid().equals(dto.getProject_id())) {
-			buffer.append(String.format(msg, "El proyecto de la tarea",project.getName(),user.getUsername()));
+		String proyectoAnterior = tarea.getProject() != null ? tarea.getProject().getIdGuid() : null;
+		
+		if (project != null && !Objects.equals(proyectoAnterior, project.getIdGuid())) {
+			cambios.add(new TareaCambio(tareaId, CAMPO_PROYECTO, tarea.getProject() != null ? tarea.getProject().getName() : null, project.getName(), usuario));
 		}
 		
+		return cambios;
+	}
+
+	public String renderizar(TareaCambio cambio) {
+		
+		String valor = cambio.getValorNuevo();
 		
-		return buffer.toString();
+		if (CAMPO_STATUS.equals(cambio.getCampo()) && valor != null) {
+			valor = projectService.getStatusByKey(Short.parseShort(valor));
+		}
+		
+		return String.format("%s ha cambiado a \"%s\" por el usuario %s",
+				ETIQUETAS.getOrDefault(cambio.getCampo(), cambio.getCampo()), valor, cambio.getUsuario());
+	}
+
+	private static String texto(Object valor) {
+		return valor == null ? null : valor.toString();
+	}
+
+	private static String recortar(String valor) {
+		return valor == null || valor.length() <= MAX_VALOR ? valor : valor.substring(0, MAX_VALOR - 3) + "...";
 	}
 
 	
@@ -0,0 +1,194 @@
+package com.springboot.app.utils;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Bus de eventos en memoria para las conexiones SSE abiertas sobre una tarea.
+ * Cada suscriptor tiene un buffer acotado que se vacia en un pool propio, de
+ * modo que quien publica nunca espera a un cliente lento. Si el buffer se
+ * llena el suscriptor se desconecta y el cliente se pone al dia con el
+ * timeline de comentarios al reconectar.
+ */
+@Component
+public class TareaEventBus {
+
+	public static final String EVENTO_COMENTARIO = "comentario";
+
+	public static final String EVENTO_TAREA = "tarea";
+
+	public static final String EVENTO_CAMBIOS = "cambios";
+
+	private final Map<String, Set<Suscriptor>> suscriptoresPorTarea = new ConcurrentHashMap<>();
+
+	private final AtomicInteger totalSuscriptores = new AtomicInteger();
+
+	private final AtomicLong secuencia = new AtomicLong();
+
+	private final ExecutorService executor;
+
+	private final int bufferSize;
+
+	private final int maxSuscriptores;
+
+	private final long timeoutMs;
+
+	public TareaEventBus(@Qualifier("sseExecutor") ExecutorService executor,
+			@Value("${app.sse.bufferSize:100}") int bufferSize,
+			@Value("${app.sse.maxSuscriptores:1000}") int maxSuscriptores,
+			@Value("${app.sse.timeoutMs:1800000}") long timeoutMs) {
+		this.executor = executor;
+		this.bufferSize = bufferSize;
+		this.maxSuscriptores = maxSuscriptores;
+		this.timeoutMs = timeoutMs;
+	}
+
+	public SseEmitter suscribir(String tareaId) {
+
+		if (totalSuscriptores.incrementAndGet() > maxSuscriptores) {
+			totalSuscriptores.decrementAndGet();
+			throw new IllegalStateException("Se alcanzo el maximo de conexiones de eventos abiertas");
+		}
+
+		SseEmitter emitter = new SseEmitter(timeoutMs);
+
+		Suscriptor suscriptor = new Suscriptor(tareaId, emitter, new ArrayBlockingQueue<>(bufferSize));
+
+		suscriptoresPorTarea.compute(tareaId, (k, suscriptores) -> {
+			Set<Suscriptor> actuales = suscriptores != null ? suscriptores : ConcurrentHashMap.newKeySet();
+			actuales.add(suscriptor);
+			return actuales;
+		});
+
+		emitter.onCompletion(() -> quitar(suscriptor));
+		emitter.onTimeout(() -> cerrar(suscriptor));
+		emitter.onError(e -> quitar(suscriptor));
+
+		return emitter;
+	}
+
+	public void publicar(String tareaId, String tipo, Object data) {
+
+		Set<Suscriptor> suscriptores = suscriptoresPorTarea.get(tareaId);
+
+		if (suscriptores == null || suscriptores.isEmpty()) {
+			return;
+		}
+
+		Evento evento = new Evento(secuencia.incrementAndGet(), tipo, data);
+
+		for (Suscriptor suscriptor : suscriptores) {
+
+			if (!suscriptor.buffer().offer(evento)) {
+				// Cliente demasiado lento: se corta en lugar de acumular eventos sin limite
+				cerrar(suscriptor);
+				continue;
+			}
+
+			programarEnvio(suscriptor);
+		}
+	}
+
+	public boolean tieneSuscriptores(String tareaId) {
+
+		Set<Suscriptor> suscriptores = suscriptoresPorTarea.get(tareaId);
+
+		return suscriptores != null && !suscriptores.isEmpty();
+	}
+
+	public int suscriptoresActivos() {
+		return totalSuscriptores.get();
+	}
+
+	private void programarEnvio(Suscriptor suscriptor) {
+
+		if (!suscriptor.enviando().compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			executor.execute(() -> enviar(suscriptor));
+		} catch (RejectedExecutionException e) {
+			suscriptor.enviando().set(false);
+			cerrar(suscriptor);
+		}
+	}
+
+	private void enviar(Suscriptor suscriptor) {
+
+		try {
+			Evento evento;
+
+			while ((evento = suscriptor.buffer().poll()) != null) {
+				suscriptor.emitter().send(SseEmitter.event()
+						.id(String.valueOf(evento.id()))
+						.name(evento.tipo())
+						.data(evento.data()));
+			}
+		} catch (IOException | IllegalStateException e) {
+			quitar(suscriptor);
+			return;
+		} finally {
+			suscriptor.enviando().set(false);
+		}
+
+		// Un evento pudo llegar justo despues de vaciar el buffer
+		if (!suscriptor.buffer().isEmpty()) {
+			programarEnvio(suscriptor);
+		}
+	}
+
+	private void cerrar(Suscriptor suscriptor) {
+
+		if (quitar(suscriptor)) {
+			suscriptor.emitter().complete();
+		}
+	}
+
+	private boolean quitar(Suscriptor suscriptor) {
+
+		AtomicBoolean quitado = new AtomicBoolean();
+
+		// compute mantiene atomicas la baja y la limpieza del set vacio frente a nuevas suscripciones
+		suscriptoresPorTarea.computeIfPresent(suscriptor.tareaId(), (k, suscriptores) -> {
+			quitado.set(suscriptores.remove(suscriptor));
+			return suscriptores.isEmpty() ? null : suscriptores;
+		});
+
+		if (!quitado.get()) {
+			return false;
+		}
+
+		totalSuscriptores.decrementAndGet();
+
+		suscriptor.buffer().clear();
+
+		return true;
+	}
+
+	private record Suscriptor(String tareaId, SseEmitter emitter, BlockingQueue<Evento> buffer,
+			AtomicBoolean enviando) {
+
+		Suscriptor(String tareaId, SseEmitter emitter, BlockingQueue<Evento> buffer) {
+			this(tareaId, emitter, buffer, new AtomicBoolean());
+		}
+	}
+
+	private record Evento(long id, String tipo, Object data) {
+	}
+
+}
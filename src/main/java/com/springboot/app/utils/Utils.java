@@ -4,6 +4,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 public class Utils {
 
@@ -53,6 +55,25 @@ public class Utils {
 			
 			return sort;
 		}
+		
+		/**
+		 * Ejecuta la accion solo si la transaccion actual hace commit; sin
+		 * transaccion activa se ejecuta de inmediato.
+		 */
+		public static void ejecutarDespuesDelCommit(Runnable accion) {
+			
+			if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+				accion.run();
+				return;
+			}
+			
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					accion.run();
+				}
+			});
+		}
 	  
 	
 }
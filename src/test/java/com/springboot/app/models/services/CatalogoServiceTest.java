@@ -0,0 +1,83 @@
+package com.springboot.app.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.springboot.app.models.dao.IPrioridadTareaDao;
+import com.springboot.app.models.dao.ITareaStatusDao;
+import com.springboot.app.models.entities.PrioridadTarea;
+import com.springboot.app.models.entities.TareaStatus;
+import com.springboot.app.testdata.PrioridadTareaTestDataBuilder;
+import com.springboot.app.testdata.TareaStatusTestDataBuilder;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogoServiceTest {
+
+	@InjectMocks
+	private CatalogoService catalogoService;
+
+	@Mock
+	private IPrioridadTareaDao prioridadDao;
+
+	@Mock
+	private ITareaStatusDao tareaStatusDao;
+
+	@Test
+	void findPrioridadTareaById_debeConsultarUnaSolaVez_yRetornarCopias() {
+
+		// Arrange
+		PrioridadTarea alta = new PrioridadTareaTestDataBuilder().withId((short) 3).build();
+		TareaStatus status = new TareaStatusTestDataBuilder().build();
+
+		when(prioridadDao.findAll()).thenReturn(List.of(alta));
+		when(tareaStatusDao.findAll()).thenReturn(List.of(status));
+
+		// Act
+		PrioridadTarea primera = catalogoService.findPrioridadTareaById((short) 3).orElseThrow();
+		PrioridadTarea segunda = catalogoService.findPrioridadTareaById((short) 3).orElseThrow();
+
+		// Assert
+		assertEquals("ALTA", primera.getPrioridadTipo());
+		assertNotSame(primera, segunda);
+		assertTrue(catalogoService.findPrioridadTareaById((short) 9).isEmpty());
+		assertEquals(status.getStatus(), catalogoService.findTareaStatusById(status.getId()).orElseThrow().getStatus());
+
+		verify(prioridadDao, times(1)).findAll();
+		verify(tareaStatusDao, times(1)).findAll();
+	}
+
+	@Test
+	void refrescar_debeCambiarEtag_cuandoCambiaElCatalogo() {
+
+		// Arrange
+		when(prioridadDao.findAll())
+				.thenReturn(List.of(new PrioridadTareaTestDataBuilder().withId((short) 1).build()))
+				.thenReturn(List.of(new PrioridadTareaTestDataBuilder().withId((short) 1).build(),
+						new PrioridadTareaTestDataBuilder().withId((short) 4).build()));
+		when(tareaStatusDao.findAll()).thenReturn(List.of());
+
+		// Act
+		catalogoService.refrescar();
+		String etagInicial = catalogoService.getEtagPrioridades();
+
+		catalogoService.refrescar();
+
+		// Assert
+		assertNotEquals(etagInicial, catalogoService.getEtagPrioridades());
+		assertEquals(2, catalogoService.findAllPrioridadesTarea().size());
+	}
+
+}
@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -17,9 +18,11 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
@@ -35,8 +38,10 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
 import com.github.javafaker.Faker;
+import com.springboot.app.models.dao.CommentFila;
 import com.springboot.app.models.dao.ICommentDao;
 import com.springboot.app.models.dtos.CommentDto;
+import com.springboot.app.models.dtos.CommentTimelineDto;
 import com.springboot.app.models.dtos.CommentUpdateDto;
 import com.springboot.app.models.dtos.CommentViewDto;
 import com.springboot.app.models.entities.Comment;
@@ -52,6 +57,8 @@ import com.springboot.app.testdata.ProjectTestDataBuilder;
 import com.springboot.app.testdata.TareaTestDataBuilder;
 import com.springboot.app.testdata.UsuarioTestDataBuilder;
 import com.springboot.app.utils.Constants;
+import com.springboot.app.utils.CursorCodec;
+import com.springboot.app.utils.TareaEventBus;
 
 @ExtendWith(MockitoExtension.class)
 class CommentServiceImplTest {
@@ -69,6 +76,8 @@ class CommentServiceImplTest {
 	private IProjectMemberService projectMemberService;
 	@Mock
 	private ICommentDao commentDao;
+	@Mock
+	private TareaEventBus eventBus;
 
 	private static final Faker faker = new Faker();
 
@@ -249,7 +258,7 @@ class CommentServiceImplTest {
 		
 		verify(usuarioService,never()).findAllByIds(anyList());
 
-		
+		verify(eventBus).publicar(eq(tarea.getIdGuid()), eq(TareaEventBus.EVENTO_COMENTARIO), any(CommentViewDto.class));
 
 	}
 	
@@ -577,7 +586,7 @@ class CommentServiceImplTest {
 		String sorts = "fecha_creacion,desc;";
 		
 
-		Page<Comment> pageComments = Page.empty();
+		Page<CommentFila> pageComments = Page.empty();
 		
 		when(commentDao.findAllByUserId(any(Pageable.class), eq(authUserId))).thenReturn(pageComments);
 						
@@ -623,9 +632,12 @@ class CommentServiceImplTest {
       
        
 
-		Page<Comment> pageComments = new PageImpl<>(new ArrayList<>(List.of(comment)));
+		Page<CommentFila> pageComments = new PageImpl<>(List.of(fila(comment)));
 		
 		when(commentDao.findAllByUserId(any(Pageable.class), eq(authUserId))).thenReturn(pageComments);
+		
+		// La consulta de adjuntos solo devuelve los que estan en READY
+		when(commentDao.findAdjuntoKeysByCommentIds(List.of(comment.getId()), Constants.STATUS_READY)).thenReturn(List.of());
 						
 		
 		
@@ -657,7 +669,7 @@ class CommentServiceImplTest {
 		assertEquals(tamanio, pageableUsed.getPageSize());
 		assertEquals(1, pageableUsed.getSort().toList().size());
 		
-		verify(mediaService,never()).createPresignedGetUrls(anyList());
+		verify(mediaService,never()).createPresignedGetUrls(anyCollection());
 
 		
 	}
@@ -691,11 +703,20 @@ class CommentServiceImplTest {
       
        
 
-		Page<Comment> pageComments = new PageImpl<>(new ArrayList<>(List.of(comment,comment2)));
+		Page<CommentFila> pageComments = new PageImpl<>(List.of(fila(comment), fila(comment2)));
+		
+		Long mencionadoId = faker.number().randomNumber();
 		
 		when(commentDao.findAllByUserId(any(Pageable.class), eq(authUserId))).thenReturn(pageComments);
+		
+		when(commentDao.findMentionIdsByCommentIds(List.of(comment.getId(), comment2.getId())))
+				.thenReturn(List.<Object[]>of(new Object[] { comment2.getId(), mencionadoId }));
+		
+		when(commentDao.findAdjuntoKeysByCommentIds(List.of(comment.getId(), comment2.getId()), Constants.STATUS_READY))
+				.thenReturn(List.<Object[]>of(new Object[] { comment.getId(), foto1.getStorageKey() }));
 						
-		when(mediaService.createPresignedGetUrls(anyList())).thenReturn(List.of(faker.internet().url()));
+		when(mediaService.createPresignedGetUrls(anyCollection()))
+				.thenReturn(Map.of(foto1.getStorageKey(), faker.internet().url()));
 		
 		ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
 		
@@ -721,6 +742,8 @@ class CommentServiceImplTest {
 		assertEquals(comment2.getAutor().getId(), dto2.getOwnerUserId());
 		assertNull(comment2.getAdjuntos());
 		assertNull(dto2.getConfirmMediasStorageKeyUrls());
+		assertNull(dto1.getMentionsUserIds());
+		assertEquals(List.of(mencionadoId), dto2.getMentionsUserIds());
 		
 
 		
@@ -732,7 +755,7 @@ class CommentServiceImplTest {
 		assertEquals(tamanio, pageableUsed.getPageSize());
 		assertEquals(1, pageableUsed.getSort().toList().size());
 		
-		verify(mediaService).createPresignedGetUrls(anyList());
+		verify(mediaService).createPresignedGetUrls(List.of(foto1.getStorageKey()));
 
 		
 	}
@@ -827,7 +850,7 @@ class CommentServiceImplTest {
 
 		Comment comment2 = new CommentTestDataBuilder().withAutor(authUser).build();
 
-		Page<Comment> pageComments = new PageImpl<>(new ArrayList<>(List.of(comment, comment2)));
+		Page<CommentFila> pageComments = new PageImpl<>(List.of(fila(comment), fila(comment2)));
 
 		when(tareaService.findByIdGuid(tareaId)).thenReturn(Optional.of(tarea));
 		
@@ -837,7 +860,11 @@ class CommentServiceImplTest {
 		
 		when(commentDao.findAllByTareaId(any(Pageable.class), eq(tareaId))).thenReturn(pageComments);
 		
-		when(mediaService.createPresignedGetUrls(anyList())).thenReturn(List.of(faker.internet().url()));
+		when(commentDao.findAdjuntoKeysByCommentIds(List.of(comment.getId(), comment2.getId()), Constants.STATUS_READY))
+				.thenReturn(List.<Object[]>of(new Object[] { comment.getId(), foto1.getStorageKey() }));
+		
+		when(mediaService.createPresignedGetUrls(anyCollection()))
+				.thenReturn(Map.of(foto1.getStorageKey(), faker.internet().url()));
 		
 		ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
 
@@ -877,7 +904,7 @@ class CommentServiceImplTest {
 		assertEquals(tamanio, pageableUsed.getPageSize());
 		assertEquals(1, pageableUsed.getSort().toList().size());
 
-		verify(mediaService).createPresignedGetUrls(anyList());
+		verify(mediaService).createPresignedGetUrls(List.of(foto1.getStorageKey()));
 
 		
 	}
@@ -903,7 +930,7 @@ class CommentServiceImplTest {
 
 		
 
-		Page<Comment> pageComments = Page.empty();
+		Page<CommentFila> pageComments = Page.empty();
 
 		when(tareaService.findByIdGuid(tareaId)).thenReturn(Optional.of(tarea));
 		
@@ -1275,4 +1302,120 @@ class CommentServiceImplTest {
 	}
 	
 
+
+	@Test
+	void getTimelineByTareaId_debeRetornarNextCursor_cuandoHayMasComentarios() {
+
+		// Arrange
+		Long authUserId = faker.number().randomNumber();
+
+		String tareaId = UUID.randomUUID().toString();
+
+		Usuario authUser = new UsuarioTestDataBuilder().withId(authUserId).build();
+
+		Tarea tarea = new TareaTestDataBuilder().withId(tareaId).withOwner(authUser).build();
+
+		Comment reciente = new CommentTestDataBuilder().withId(2L).withAutor(authUser).build();
+
+		Comment anterior = new CommentTestDataBuilder().withId(1L).withAutor(authUser)
+				.withFechaCreacion(reciente.getFechaCreacion().minusMinutes(5)).build();
+
+		when(tareaService.findByIdGuid(tareaId)).thenReturn(Optional.of(tarea));
+
+		when(commentDao.findTimeline(tareaId, Constants.STATUS_ACTIVE, 2))
+				.thenReturn(List.of(fila(reciente), fila(anterior)));
+
+		// Act
+		CommentTimelineDto result = commentService.getTimelineByTareaId(tareaId, 1, null, null, authUserId);
+
+		// Assert
+		assertEquals(1, result.getContent().size());
+		assertEquals(reciente.getId(), result.getContent().get(0).getId());
+
+		String esperado = CursorCodec.codificar(reciente.getFechaCreacion().toString(), reciente.getId().toString());
+
+		assertEquals(esperado, result.getNextCursor());
+		assertEquals(esperado, result.getSinceCursor());
+
+		verify(commentDao).findMentionIdsByCommentIds(List.of(reciente.getId()));
+		verifyNoInteractions(mediaService);
+	}
+
+	@Test
+	void getTimelineByTareaId_debeConservarCursor_cuandoNoHayComentariosNuevos() {
+
+		// Arrange
+		Long authUserId = faker.number().randomNumber();
+
+		String tareaId = UUID.randomUUID().toString();
+
+		Usuario authUser = new UsuarioTestDataBuilder().withId(authUserId).build();
+
+		Tarea tarea = new TareaTestDataBuilder().withId(tareaId).withOwner(authUser).build();
+
+		LocalDateTime fecha = LocalDateTime.of(2025, 1, 31, 10, 0);
+
+		String despuesDe = CursorCodec.codificar(fecha.toString(), "42");
+
+		when(tareaService.findByIdGuid(tareaId)).thenReturn(Optional.of(tarea));
+
+		when(commentDao.findTimelineDespuesDe(tareaId, Constants.STATUS_ACTIVE, fecha, 42L, 21)).thenReturn(List.of());
+
+		// Act
+		CommentTimelineDto result = commentService.getTimelineByTareaId(tareaId, 20, null, despuesDe, authUserId);
+
+		// Assert
+		assertTrue(result.getContent().isEmpty());
+		assertNull(result.getNextCursor());
+		assertEquals(despuesDe, result.getSinceCursor());
+
+		verify(commentDao, never()).findMentionIdsByCommentIds(anyList());
+		verifyNoInteractions(mediaService);
+	}
+
+	@Test
+	void getTimelineByTareaId_debeLanzarIllegalArgumentException_siSeEnvianAmbosCursores() {
+
+		// Arrange
+		Long authUserId = faker.number().randomNumber();
+
+		String tareaId = UUID.randomUUID().toString();
+
+		String cursor = CursorCodec.codificar(LocalDateTime.now().toString(), "1");
+
+		// Act
+		IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+				() -> commentService.getTimelineByTareaId(tareaId, 20, cursor, cursor, authUserId));
+
+		// Assert
+		assertTrue(ex.getMessage().contains("antesDe o despuesDe"));
+
+		verifyNoInteractions(tareaService);
+		verifyNoInteractions(commentDao);
+	}
+
+	private static CommentFila fila(Comment comment) {
+
+		return new CommentFila() {
+
+			@Override
+			public Long getId() { return comment.getId(); }
+
+			@Override
+			public String getTareaId() { return comment.getTarea().getIdGuid(); }
+
+			@Override
+			public Long getAutorId() { return comment.getAutor().getId(); }
+
+			@Override
+			public String getBody() { return comment.getBody(); }
+
+			@Override
+			public Short getStatus() { return comment.getStatus(); }
+
+			@Override
+			public LocalDateTime getFechaCreacion() { return comment.getFechaCreacion(); }
+		};
+	}
+
 }
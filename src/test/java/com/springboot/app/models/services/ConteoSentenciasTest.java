@@ -0,0 +1,314 @@
+package com.springboot.app.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.springboot.app.utils.DashboardCounterStore;
+import com.springboot.app.utils.JwtDenyList;
+import com.springboot.app.utils.JwtPrincipalCache;
+import com.springboot.app.utils.PermisoInvalidacionLocal;
+import com.springboot.app.utils.PermisoProyectoCache;
+import com.springboot.app.utils.TareaChangeLogHelper;
+import com.springboot.app.utils.TareaEventBus;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cuenta las sentencias SQL que preparan los servicios contra H2 en modo
+ * MySQL. Cada operacion corre en su propia transaccion, como en un request,
+ * y se compara un caso chico con uno grande: si la cuenta crece con el
+ * numero de filas hay una carga por fila (N+1).
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ TareaServiceImpl.class, ProjectMemberServiceImpl.class, UsuarioServiceImpl.class,
+		PermisoProyectoCache.class, PermisoInvalidacionLocal.class })
+class ConteoSentenciasTest {
+
+	// Consultas fijas de una asignacion: permiso, tarea con asignados, catalogos, owner, miembros y usuarios
+	private static final long LECTURAS_ASIGNACION = 10;
+
+	private static final AtomicLong SECUENCIA = new AtomicLong(1000);
+
+	@Autowired
+	private ITareaService tareaService;
+
+	@Autowired
+	private IProjectMemberService projectMemberService;
+
+	@Autowired
+	private IUsuarioService usuarioService;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@MockitoBean
+	private IProjectService projectService;
+
+	@MockitoBean
+	private CatalogoService catalogoService;
+
+	@MockitoBean
+	private TareaChangeLogHelper tareaLogHelper;
+
+	@MockitoBean
+	private DashboardCounterStore counterStore;
+
+	@MockitoBean
+	private TareaEventBus eventBus;
+
+	@MockitoBean
+	private PasswordEncoder encoder;
+
+	@MockitoBean
+	private JwtPrincipalCache principalCache;
+
+	@MockitoBean
+	private JwtDenyList denyList;
+
+	private Statistics estadisticas;
+
+	@BeforeEach
+	void setUp() {
+		JdbcTestUtils.deleteFromTables(jdbc, "tarea_tags", "tags", "tareas_usuario", "tareas", "project_members",
+				"project", "usuario_roles", "usuarios");
+		estadisticas = emf.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void getAllActivesCursor_debePrepararLasMismasSentencias_sinImportarElTamanioDeLaPagina() {
+
+		// Arrange
+		Long owner = usuario("owner");
+		for (int i = 0; i < 10; i++) {
+			etiquetar(tarea(owner, null), 2);
+		}
+
+		// Act
+		long pocas = contar(() -> tareaService.getAllActivesCursor(null, 2, null, null, null, null, null, null,
+				false, owner));
+		long muchas = contar(() -> tareaService.getAllActivesCursor(null, 10, null, null, null, null, null, null,
+				false, owner));
+
+		// Assert
+		assertEquals(pocas, muchas);
+	}
+
+	@Test
+	void getAllActives_debePrepararLasMismasSentencias_sinImportarElTamanioDeLaPagina() {
+
+		// Arrange
+		Long owner = usuario("owner");
+		for (int i = 0; i < 10; i++) {
+			etiquetar(tarea(owner, null), 2);
+		}
+
+		// Act
+		long pocas = contar(() -> tareaService.getAllActives(0, 2, null, null, null, null, null, null,
+				"fecha_limite,desc;", owner));
+		long muchas = contar(() -> tareaService.getAllActives(0, 10, null, null, null, null, null, null,
+				"fecha_limite,desc;", owner));
+
+		// Assert
+		assertEquals(pocas, muchas);
+	}
+
+	@Test
+	void getTareasByProjectIdCursor_debePrepararLasMismasSentencias_sinImportarElTamanioDeLaPagina() {
+
+		// Arrange
+		Long owner = usuario("owner");
+		String projectId = proyecto(owner);
+		miembro(projectId, owner, "OWNER");
+		for (int i = 0; i < 10; i++) {
+			etiquetar(tarea(owner, projectId), 2);
+		}
+
+		when(projectService.existsProjectActive(projectId)).thenReturn(true);
+		// El permiso del miembro queda en cache desde la primera llamada; se calienta para no contarlo en una sola
+		tareaService.getTareasByProjectIdCursor(projectId, null, 1, false, owner);
+
+		// Act
+		long pocas = contar(() -> tareaService.getTareasByProjectIdCursor(projectId, null, 2, false, owner));
+		long muchas = contar(() -> tareaService.getTareasByProjectIdCursor(projectId, null, 10, false, owner));
+
+		// Assert
+		assertEquals(pocas, muchas);
+	}
+
+	@Test
+	void asignarTarea_noDebeCargarLosRolesDeLosAsignados_cuandoLaTareaYaTieneMuchos() {
+
+		// Arrange
+		Long owner = usuario("owner");
+		String projectId = proyecto(owner);
+		String tareaId = tarea(owner, projectId);
+
+		int existentes = 20;
+		for (int i = 0; i < existentes; i++) {
+			Long asignado = usuario("asignado");
+			miembro(projectId, asignado, "EDITOR");
+			asignar(tareaId, asignado);
+		}
+
+		Long nuevo = usuario("nuevo");
+		miembro(projectId, nuevo, "EDITOR");
+
+		// Act
+		long sentencias = contar(() -> tareaService.asignarTarea(List.of(nuevo), tareaId, owner));
+
+		// Assert
+		// Escrituras: se reescribe la coleccion (un DELETE y un INSERT por asignado); lo demas son lecturas fijas
+		long escrituras = 1 + existentes + 1;
+		assertTrue(sentencias <= escrituras + LECTURAS_ASIGNACION,
+				"Sentencias preparadas: " + sentencias + ", maximo esperado: " + (escrituras + LECTURAS_ASIGNACION));
+		assertEquals(existentes + 1, jdbc.queryForObject(
+				"SELECT COUNT(*) FROM tareas_usuario WHERE tarea_id = ?", Integer.class, tareaId));
+	}
+
+	@Test
+	void deleteProjectMember_debePrepararLasMismasSentencias_sinImportarCuantasTareasTengaElProyecto() {
+
+		// Arrange
+		Long owner = usuario("owner");
+
+		Long miembroChico = usuario("miembro");
+		String proyectoChico = proyectoConTareas(owner, miembroChico, 2);
+
+		Long miembroGrande = usuario("miembro");
+		String proyectoGrande = proyectoConTareas(owner, miembroGrande, 10);
+
+		// Act
+		long chico = contar(() -> projectMemberService.deleteProjectMember(owner, proyectoChico, miembroChico));
+		long grande = contar(() -> projectMemberService.deleteProjectMember(owner, proyectoGrande, miembroGrande));
+
+		// Assert
+		assertEquals(chico, grande);
+		assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM tareas_usuario WHERE usuario_id IN (?, ?)",
+				Integer.class, miembroChico, miembroGrande));
+	}
+
+	@Test
+	void findByUsernameContainingAndProjectId_debePrepararLasMismasSentencias_sinImportarCuantosUsuariosCoincidan() {
+
+		// Arrange
+		Long owner = usuario("owner");
+
+		String proyectoChico = proyecto(owner);
+		miembro(proyectoChico, owner, "OWNER");
+		for (int i = 0; i < 2; i++) {
+			miembro(proyectoChico, usuario("buscado"), "EDITOR");
+		}
+
+		String proyectoGrande = proyecto(owner);
+		miembro(proyectoGrande, owner, "OWNER");
+		for (int i = 0; i < 8; i++) {
+			miembro(proyectoGrande, usuario("buscado"), "EDITOR");
+		}
+
+		// Act
+		long chico = contar(() -> usuarioService.findByUsernameContainingAndProjectId("buscado", proyectoChico, owner));
+		long grande = contar(
+				() -> usuarioService.findByUsernameContainingAndProjectId("buscado", proyectoGrande, owner));
+
+		// Assert
+		assertEquals(chico, grande);
+		assertEquals(8, usuarioService.findByUsernameContainingAndProjectId("buscado", proyectoGrande, owner).size());
+	}
+
+	private long contar(Runnable operacion) {
+		estadisticas.clear();
+		operacion.run();
+		return estadisticas.getPrepareStatementCount();
+	}
+
+	private Long usuario(String prefijo) {
+		long id = SECUENCIA.incrementAndGet();
+		jdbc.update("INSERT INTO usuarios (id, email, username, password, status) VALUES (?, ?, ?, ?, 1)", id,
+				prefijo + id + "@correo.com", prefijo + id, "x");
+		jdbc.update("INSERT INTO usuario_roles (usuario_id, rol_id) VALUES (?, 2)", id);
+		return id;
+	}
+
+	private String proyecto(Long owner) {
+		String id = UUID.randomUUID().toString();
+		jdbc.update("INSERT INTO project (id_guid, name, owner_id, status, fecha_creacion) VALUES (?, ?, ?, 1, ?)", id,
+				"Proyecto", owner, LocalDateTime.now());
+		return id;
+	}
+
+	private void miembro(String projectId, Long usuarioId, String rol) {
+		jdbc.update("INSERT INTO project_members (usuario_id, project_id, role, status, fecha_creacion) "
+				+ "VALUES (?, ?, ?, 1, ?)", usuarioId, projectId, rol, LocalDateTime.now());
+	}
+
+	// Proyecto con el owner y un miembro asignado solo a la primera de sus tareas
+	private String proyectoConTareas(Long owner, Long miembro, int tareas) {
+		String projectId = proyecto(owner);
+		miembro(projectId, owner, "OWNER");
+		miembro(projectId, miembro, "EDITOR");
+
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < tareas; i++) {
+			String tareaId = tarea(owner, projectId);
+			asignar(tareaId, owner);
+			ids.add(tareaId);
+		}
+
+		asignar(ids.get(0), miembro);
+		return projectId;
+	}
+
+	private String tarea(Long owner, String projectId) {
+		String id = UUID.randomUUID().toString();
+		jdbc.update("INSERT INTO tareas (id_guid, titulo, id_tarea_status, id_prioridad, owner_id, project_id, "
+				+ "fecha_limite, fecha_creacion, status) VALUES (?, ?, 4, 1, ?, ?, ?, ?, 1)", id, "Tarea", owner,
+				projectId, LocalDateTime.now().plusDays(SECUENCIA.incrementAndGet() % 30), LocalDateTime.now());
+		return id;
+	}
+
+	private void asignar(String tareaId, Long usuarioId) {
+		jdbc.update("INSERT INTO tareas_usuario (tarea_id, usuario_id) VALUES (?, ?)", tareaId, usuarioId);
+	}
+
+	private void etiquetar(String tareaId, int etiquetas) {
+		for (int i = 0; i < etiquetas; i++) {
+			String nombre = "tag" + SECUENCIA.incrementAndGet();
+			jdbc.update("INSERT INTO tags (name, color, fecha_creacion, usuario_creacion, status) "
+					+ "VALUES (?, '#F54927', ?, 'admin', 1)", nombre, LocalDateTime.now());
+			Integer tagId = jdbc.queryForObject("SELECT id FROM tags WHERE name = ?", Integer.class, nombre);
+			jdbc.update("INSERT INTO tarea_tags (id_tarea, id_tag, fecha_creacion, usuario_creacion, status) "
+					+ "VALUES (?, ?, ?, 'admin', 1)", tareaId, tagId, LocalDateTime.now());
+		}
+	}
+
+}
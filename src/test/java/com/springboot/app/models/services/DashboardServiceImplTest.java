@@ -5,43 +5,46 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.springboot.app.models.dtos.DashboardDto;
-import com.springboot.app.models.entities.Usuario;
-import com.springboot.app.testdata.UsuarioTestDataBuilder;
+import com.springboot.app.utils.DashboardCounterStore;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertNull;
-import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @ExtendWith(MockitoExtension.class)
 class DashboardServiceImplTest {
 
-	@Mock
-    private IUsuarioService usuarioService;
-
     @Mock
     private StatsService statsService;
 
+    @Mock
+    private DashboardCounterStore counterStore;
+
     @InjectMocks
     private DashboardServiceImpl dashboardService;
 
@@ -49,92 +52,118 @@ class DashboardServiceImplTest {
     void getDashboardInfo_debeRetornarDtoCompleto_cuandoExistenEstadisticas() {
         // Arrange
         Long userId = 1L;
-        Usuario usuario = new UsuarioTestDataBuilder().withId(userId).build();
-
-       
-        List<Object[]> statsStatus = new ArrayList<>();
-        statsStatus.add(new Object[] { "PENDING", 5L });
-        statsStatus.add(new Object[] { "DONE", 3L });
+        LocalDateTime ahora = LocalDateTime.now();
+        DashboardServiceImpl servicio = servicioConsolidado();
 
-        
-        List<Object[]> statsPriority = new ArrayList<>();
-        statsPriority.add(new Object[] { "HIGH", 2L });
-        statsPriority.add(new Object[] { "LOW", 8L });
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[] { "USUARIO", "team.master", 0L });
+        filas.add(new Object[] { "PROYECTOS_OWNER", null, 2L });
+        filas.add(new Object[] { "PROYECTOS_ACTIVOS", null, 4L });
+        filas.add(new Object[] { "TAREAS_HOY", null, 0L });
+        filas.add(new Object[] { "TAREAS_PENDIENTES", null, 1L });
+        filas.add(new Object[] { "TAREAS_VENCIDAS", null, 1L });
+        filas.add(new Object[] { "ESTATUS", "PENDING", 2L });
+        filas.add(new Object[] { "ESTATUS", "DONE", 1L });
+        filas.add(new Object[] { "PRIORIDAD", "HIGH", 1L });
+        filas.add(new Object[] { "PRIORIDAD", "LOW", 2L });
 
-        
-        when(usuarioService.findByUserId(userId)).thenReturn(usuario);
-        
-        
-        when(statsService.getProjectCountRoleOwner(userId)).thenReturn(2);
-        when(statsService.getProjectCountActive(userId)).thenReturn(4);
-        when(statsService.getTareasHoyCountByUserId(userId)).thenReturn(1);
-        when(statsService.getTareasPendientesCountByUserId(userId)).thenReturn(10);
-        when(statsService.getTareasVencidasCountByUserId(userId)).thenReturn(0);
+        List<Object[]> resumen = new ArrayList<>();
+        resumen.add(new Object[] { "a", ahora.minusDays(1), 1L, "PENDING", "HIGH" });
+        resumen.add(new Object[] { "b", ahora.plusDays(3), 1L, "PENDING", "LOW" });
+        resumen.add(new Object[] { "c", null, 5L, "DONE", "LOW" });
 
-        
-        when(statsService.countTareasByTareaStatus(userId)).thenReturn(statsStatus);
-        when(statsService.countTareasByPrioridad(userId)).thenReturn(statsPriority);
+        when(statsService.getDashboardByUserId(userId)).thenReturn(filas);
+        when(statsService.getResumenTareasByUserId(userId)).thenReturn(resumen);
 
         // Act
-        DashboardDto result = dashboardService.getDashboardInfo(userId);
+        DashboardDto result = servicio.getDashboardInfo(userId);
 
         // Assert
         assertNotNull(result);
         assertEquals(userId, result.getUsuarioId());
-        assertEquals(usuario.getUsername(), result.getUsername());
+        assertEquals("team.master", result.getUsername());
         
        
         assertEquals(2, result.getProyectosComoOwner());
         assertEquals(4, result.getProyectosTotalActivos());
-        assertEquals(1, result.getTareasParaHoy());
-        assertEquals(10, result.getTareasPendientes());
-        assertEquals(0, result.getTareasVencidas());
+        assertEquals(1, result.getTareasPendientes());
+        assertEquals(1, result.getTareasVencidas());
 
         
         Map<String, Integer> mapStatus = result.getTareasPorEstatus();
         assertNotNull(mapStatus);
         assertEquals(2, mapStatus.size());
-        assertEquals(5, mapStatus.get("PENDING"));
-        assertEquals(3, mapStatus.get("DONE"));
+        assertEquals(2, mapStatus.get("PENDING"));
+        assertEquals(1, mapStatus.get("DONE"));
 
         Map<String, Integer> mapPriority = result.getTareasPorPrioridad();
         assertNotNull(mapPriority);
-        assertEquals(2, mapPriority.get("HIGH")); 
-        assertEquals(8, mapPriority.get("LOW"));
+        assertEquals(1, mapPriority.get("HIGH")); 
+        assertEquals(2, mapPriority.get("LOW"));
 
-        verify(statsService).countTareasByTareaStatus(userId);
-        verify(statsService).countTareasByPrioridad(userId);
+        // La siguiente lectura sale de memoria con los mismos contadores
+        assertEquals(result, servicio.getDashboardInfo(userId));
+        verify(statsService).getDashboardByUserId(userId);
+        verify(statsService).getResumenTareasByUserId(userId);
+        verifyNoMoreInteractions(statsService);
     }
-    
+
     @Test
-    void getDashboardInfo_debeRetornarCeros_cuandoNoHayEstadisticas() {
+    void getDashboardInfo_noDebeLeerElDetallePorTarea_cuandoLaMemoriaEstaDeshabilitada() {
         // Arrange
         Long userId = 1L;
-        Usuario usuario = new UsuarioTestDataBuilder().withId(userId).build();
+        DashboardServiceImpl servicio = new DashboardServiceImpl(statsService, new DashboardCounterStore(0, 100), null);
 
-       
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[] { "USUARIO", "team.master", 0L });
+        filas.add(new Object[] { "TAREAS_PENDIENTES", null, 10L });
 
-        
-        when(usuarioService.findByUserId(userId)).thenReturn(usuario);
-        
-        
-        when(statsService.getProjectCountRoleOwner(userId)).thenReturn(0);
-        when(statsService.getProjectCountActive(userId)).thenReturn(0);
-        when(statsService.getTareasHoyCountByUserId(userId)).thenReturn(0);
-        when(statsService.getTareasPendientesCountByUserId(userId)).thenReturn(0);
-        when(statsService.getTareasVencidasCountByUserId(userId)).thenReturn(0);
+        when(statsService.getDashboardByUserId(userId)).thenReturn(filas);
 
-        
-        when(statsService.countTareasByTareaStatus(userId)).thenReturn(Collections.emptyList());
-        when(statsService.countTareasByPrioridad(userId)).thenReturn(Collections.emptyList());
+        // Act
+        DashboardDto result = servicio.getDashboardInfo(userId);
+
+        // Assert
+        assertEquals(10, result.getTareasPendientes());
+        verify(statsService).getDashboardByUserId(userId);
+        verifyNoMoreInteractions(statsService);
+    }
+    
+    @Test
+    void getDashboardInfo_debeRetornarContadoresEnMemoria_sinConsultarBaseDeDatos() {
+        // Arrange
+        Long userId = 1L;
+        DashboardDto enMemoria = DashboardDto.builder().usuarioId(userId).username("team.master")
+                .tareasPendientes(3).build();
+
+        when(counterStore.leer(userId)).thenReturn(Optional.of(enMemoria));
 
         // Act
         DashboardDto result = dashboardService.getDashboardInfo(userId);
 
+        // Assert
+        assertEquals(enMemoria, result);
+        verifyNoInteractions(statsService);
+    }
+    
+    @Test
+    void getDashboardInfo_debeRetornarCeros_cuandoNoHayEstadisticas() {
+        // Arrange
+        Long userId = 1L;
+
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[] { "USUARIO", "team.master", 0L });
+
+        when(statsService.getDashboardByUserId(userId)).thenReturn(filas);
+        when(statsService.getResumenTareasByUserId(userId)).thenReturn(new ArrayList<>());
+
+        // Act
+        DashboardDto result = servicioConsolidado().getDashboardInfo(userId);
+
         // Assert
         assertNotNull(result);
         assertEquals(userId, result.getUsuarioId());
-        assertEquals(usuario.getUsername(), result.getUsername());
+        assertEquals("team.master", result.getUsername());
         
        
         assertEquals(0, result.getProyectosComoOwner());
@@ -153,23 +182,122 @@ class DashboardServiceImplTest {
         Map<String, Integer> mapPriority = result.getTareasPorPrioridad();
         assertNotNull(mapPriority);
         assertEquals(0, mapPriority.size());
-
-        verify(statsService).countTareasByTareaStatus(userId);
-        verify(statsService).countTareasByPrioridad(userId);
     }
     
     @Test
     void getDashboardInfo_debeLanzarExcepcion_cuandoUsuarioNoExiste() {
         // Arrange
         Long userId = 99L;
-        when(usuarioService.findByUserId(userId)).thenThrow(new NoSuchElementException("Usuario no encontrado"));
+
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[] { "PROYECTOS_ACTIVOS", null, 0L });
+
+        when(statsService.getDashboardByUserId(userId)).thenReturn(filas);
 
         // Act 
         assertThrows(NoSuchElementException.class, () -> dashboardService.getDashboardInfo(userId));
 
         // Assert
-        verifyNoInteractions(statsService);
+        verify(statsService).getDashboardByUserId(userId);
+        verifyNoMoreInteractions(statsService);
+        verify(counterStore, never()).cargar(any(), anyLong(), any(), anyLong(), anyLong(), anyCollection(),
+                anyCollection(), anyList());
         
     }
+    
+    @Test
+    void getDashboardInfo_debeConsultarEnParalelo_yGuardarEnMemoria_cuandoModoEsParalelo() {
+        // Arrange
+        Long userId = 1L;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        DashboardServiceImpl servicio = servicioParalelo(executor, 2000);
+
+        List<Object[]> statsStatus = new ArrayList<>();
+        statsStatus.add(new Object[] { "PENDING", 5L });
+
+        when(statsService.getUsernameActivo(userId)).thenReturn("team.master");
+        when(statsService.getProjectCountRoleOwner(userId)).thenReturn(2);
+        when(statsService.getProjectCountActive(userId)).thenReturn(4);
+        when(statsService.getTareasHoyCountByUserId(userId)).thenReturn(1);
+        when(statsService.getTareasPendientesCountByUserId(userId)).thenReturn(10);
+        when(statsService.getTareasVencidasCountByUserId(userId)).thenReturn(0);
+        when(statsService.countTareasByTareaStatus(userId)).thenReturn(statsStatus);
+        when(statsService.countTareasByPrioridad(userId)).thenReturn(new ArrayList<>());
+        when(statsService.getResumenTareasByUserId(userId)).thenReturn(new ArrayList<>());
+        when(counterStore.habilitado()).thenReturn(true);
+
+        // Act
+        DashboardDto result = servicio.getDashboardInfo(userId);
+        executor.shutdownNow();
+
+        // Assert
+        assertEquals("team.master", result.getUsername());
+        assertEquals(2, result.getProyectosComoOwner());
+        assertEquals(4, result.getProyectosTotalActivos());
+        assertEquals(10, result.getTareasPendientes());
+        assertEquals(5, result.getTareasPorEstatus().get("PENDING"));
+        assertFalse(result.isParcial());
+
+        verify(statsService, never()).getDashboardByUserId(anyLong());
+        verify(counterStore).cargar(eq(userId), anyLong(), eq("team.master"), eq(4L), eq(2L), anyCollection(),
+                anyCollection(), anyList());
+    }
+
+    @Test
+    void getDashboardInfo_debeRetornarResultadoParcial_cuandoUnaConsultaExcedeElTimeout() {
+        // Arrange
+        Long userId = 1L;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        DashboardServiceImpl servicio = servicioParalelo(executor, 200);
+
+        when(statsService.getUsernameActivo(userId)).thenReturn("team.master");
+        when(statsService.getProjectCountActive(userId)).thenReturn(4);
+        when(statsService.getTareasVencidasCountByUserId(userId)).thenAnswer(inv -> {
+            Thread.sleep(5000);
+            return 7;
+        });
+
+        // Act
+        DashboardDto result = servicio.getDashboardInfo(userId);
+        executor.shutdownNow();
+
+        // Assert
+        assertTrue(result.isParcial());
+        assertEquals(4, result.getProyectosTotalActivos());
+        assertEquals(0, result.getTareasVencidas());
+
+        verify(counterStore, never()).cargar(any(), anyLong(), any(), anyLong(), anyLong(), anyCollection(),
+                anyCollection(), anyList());
+    }
+
+    @Test
+    void getDashboardInfo_debeLanzarExcepcion_cuandoUsuarioNoExisteEnModoParalelo() {
+        // Arrange
+        Long userId = 99L;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        DashboardServiceImpl servicio = servicioParalelo(executor, 2000);
+
+        when(statsService.getUsernameActivo(userId)).thenReturn(null);
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> servicio.getDashboardInfo(userId));
+        executor.shutdownNow();
+    }
+
+    private DashboardServiceImpl servicioConsolidado() {
+
+        // El modo consolidado no usa el executor
+        return new DashboardServiceImpl(statsService, new DashboardCounterStore(300, 100), null);
+    }
+
+    private DashboardServiceImpl servicioParalelo(ExecutorService executor, long timeoutMs) {
+
+        DashboardServiceImpl servicio = new DashboardServiceImpl(statsService, counterStore, executor);
+
+        ReflectionTestUtils.setField(servicio, "modo", "paralelo");
+        ReflectionTestUtils.setField(servicio, "timeoutMs", timeoutMs);
+
+        return servicio;
+    }
 	
 }
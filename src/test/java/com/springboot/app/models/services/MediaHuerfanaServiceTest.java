@@ -0,0 +1,94 @@
+package com.springboot.app.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.springboot.app.models.dao.IMediaDao;
+import com.springboot.app.models.entities.Media;
+import com.springboot.app.testdata.MediaTestDataBuilder;
+import com.springboot.app.utils.Constants;
+
+@ExtendWith(MockitoExtension.class)
+class MediaHuerfanaServiceTest {
+
+	@Mock
+	private IMediaDao mediaDao;
+
+	@Mock
+	private MediaStorageService storageService;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private MediaHuerfanaService huerfanaService;
+
+	@BeforeEach
+	void setUp() {
+		huerfanaService = new MediaHuerfanaService(mediaDao, storageService, transactionManager);
+		ReflectionTestUtils.setField(huerfanaService, "presignMinutes", 5L);
+		ReflectionTestUtils.setField(huerfanaService, "graciaMinutos", 30L);
+		ReflectionTestUtils.setField(huerfanaService, "filasPorSegundo", 0L);
+	}
+
+	@Test
+	void eliminarHuerfanas_debeBorrarSoloLasFilasReclamadas_cuandoHayConfirmacionesOFallos() {
+
+		// Arrange
+		Media borrable = new MediaTestDataBuilder().withId(1L).withStorageKey("a.png").build();
+		Media fallida = new MediaTestDataBuilder().withId(2L).withStorageKey("b.png").build();
+		// Se confirmo entre la lectura y el UPDATE condicional: no queda reclamada
+		Media confirmada = new MediaTestDataBuilder().withId(3L).withStorageKey("c.png").build();
+
+		when(mediaDao.findTop1000ByStatusInAndCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(any(), any(Instant.class),
+				eq(0L))).thenReturn(List.of(borrable, fallida, confirmada));
+		when(mediaDao.findByIdInAndStatus(List.of(1L, 2L, 3L), Constants.STATUS_REAPING))
+				.thenReturn(List.of(borrable, fallida));
+		when(storageService.deleteAll(List.of("a.png", "b.png"))).thenReturn(Map.of("b.png", "AccessDenied"));
+		when(mediaDao.deleteByIdsAndStatus(List.of(1L), Constants.STATUS_REAPING)).thenReturn(1);
+
+		// Act
+		int eliminadas = huerfanaService.eliminarHuerfanas();
+
+		// Assert
+		assertEquals(1, eliminadas);
+		assertEquals(1, huerfanaService.metricas().filasEliminadas());
+		assertEquals(1, huerfanaService.metricas().objetosFallidos());
+		assertEquals(1, huerfanaService.metricas().ejecuciones());
+		verify(mediaDao).updateStatusByIdsAndStatus(List.of(1L, 2L, 3L), Constants.STATUS_PENDING,
+				Constants.STATUS_REAPING);
+	}
+
+	@Test
+	void eliminarHuerfanas_debeTerminarSinBorrar_cuandoNoHayPendientesVencidas() {
+
+		// Arrange
+		when(mediaDao.findTop1000ByStatusInAndCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(any(), any(Instant.class),
+				anyLong())).thenReturn(List.of());
+
+		// Act
+		int eliminadas = huerfanaService.eliminarHuerfanas();
+
+		// Assert
+		assertEquals(0, eliminadas);
+		verify(storageService, never()).deleteAll(any());
+		verify(mediaDao, never()).deleteByIdsAndStatus(any(), any());
+	}
+
+}
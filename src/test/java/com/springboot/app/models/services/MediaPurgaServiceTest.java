@@ -0,0 +1,128 @@
+package com.springboot.app.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.springboot.app.models.dao.IMediaDao;
+import com.springboot.app.models.entities.Media;
+import com.springboot.app.testdata.MediaTestDataBuilder;
+import com.springboot.app.utils.Constants;
+
+@ExtendWith(MockitoExtension.class)
+class MediaPurgaServiceTest {
+
+	@Mock
+	private IMediaDao mediaDao;
+
+	@Mock
+	private MediaStorageService storageService;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private MediaPurgaService purgaService;
+
+	@BeforeEach
+	void setUp() {
+		purgaService = new MediaPurgaService(mediaDao, storageService, transactionManager);
+		ReflectionTestUtils.setField(purgaService, "lotesEnParalelo", 4);
+		ReflectionTestUtils.setField(purgaService, "maxIntentos", 5);
+	}
+
+	@Test
+	void purgar_debeMandarVariasPaginasEnUnaSolaTanda_cuandoHayMasDeMilLlaves() {
+
+		// Arrange
+		List<Media> primera = medias(1, 1000);
+		List<Media> segunda = medias(1001, 1500);
+
+		when(mediaDao.findTop1000ByStatusAndIdGreaterThanOrderByIdAsc(Constants.STATUS_INACTIVE, 0L))
+				.thenReturn(primera);
+		when(mediaDao.findTop1000ByStatusAndIdGreaterThanOrderByIdAsc(Constants.STATUS_INACTIVE, 1000L))
+				.thenReturn(segunda);
+		when(storageService.deleteAll(any())).thenReturn(Map.of());
+		when(mediaDao.updateStatusByIds(any(), eq(Constants.STATUS_PURGED))).thenReturn(1500);
+
+		// Act
+		int purgados = purgaService.purgar();
+
+		// Assert
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Collection<String>> llaves = ArgumentCaptor.forClass(Collection.class);
+		verify(storageService, times(1)).deleteAll(llaves.capture());
+		assertEquals(1500, llaves.getValue().size());
+		assertEquals(1500, purgados);
+		assertEquals(1500, purgaService.metricas().objetosPurgados());
+		verify(mediaDao, never()).registrarFalloPurga(any(), anyString(), anyInt(), any());
+	}
+
+	@Test
+	void purgar_debeGuardarElMotivoYContarLosAgotados_cuandoS3NoBorraAlgunasLlaves() {
+
+		// Arrange
+		Media borrable = new MediaTestDataBuilder().withId(1L).withStorageKey("a.png").build();
+		Media fallida = new MediaTestDataBuilder().withId(2L).withStorageKey("b.png").withPurgaIntentos(0).build();
+		Media agotada = new MediaTestDataBuilder().withId(3L).withStorageKey("c.png").withPurgaIntentos(4).build();
+
+		when(mediaDao.findTop1000ByStatusAndIdGreaterThanOrderByIdAsc(Constants.STATUS_INACTIVE, 0L))
+				.thenReturn(List.of(borrable, fallida, agotada));
+		when(storageService.deleteAll(List.of("a.png", "b.png", "c.png")))
+				.thenReturn(Map.of("b.png", "AccessDenied", "c.png", "AccessDenied"));
+		when(mediaDao.updateStatusByIds(List.of(1L), Constants.STATUS_PURGED)).thenReturn(1);
+
+		// Act
+		int purgados = purgaService.purgar();
+
+		// Assert
+		assertEquals(1, purgados);
+		verify(mediaDao).registrarFalloPurga(List.of(2L, 3L), "AccessDenied", 5, Constants.STATUS_PURGE_FAILED);
+		assertEquals(2, purgaService.metricas().objetosFallidos());
+		assertEquals(1, purgaService.metricas().objetosAgotados());
+		assertEquals(1, purgaService.metricas().ejecuciones());
+	}
+
+	@Test
+	void purgar_noDebeLlamarAS3_cuandoNoHayAdjuntosInactivos() {
+
+		// Arrange
+		when(mediaDao.findTop1000ByStatusAndIdGreaterThanOrderByIdAsc(Constants.STATUS_INACTIVE, 0L))
+				.thenReturn(List.of());
+
+		// Act
+		int purgados = purgaService.purgar();
+
+		// Assert
+		assertEquals(0, purgados);
+		verify(storageService, never()).deleteAll(any());
+	}
+
+	private static List<Media> medias(long desde, long hasta) {
+		List<Media> medias = new ArrayList<>();
+		LongStream.rangeClosed(desde, hasta).forEach(
+				id -> medias.add(new MediaTestDataBuilder().withId(id).withStorageKey(id + ".png").build()));
+		return medias;
+	}
+
+}
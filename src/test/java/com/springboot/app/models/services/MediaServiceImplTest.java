@@ -0,0 +1,131 @@
+package com.springboot.app.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.springboot.app.models.dao.IMediaDao;
+import com.springboot.app.models.entities.Media;
+import com.springboot.app.testdata.MediaTestDataBuilder;
+import com.springboot.app.utils.Constants;
+
+@ExtendWith(MockitoExtension.class)
+class MediaServiceImplTest {
+
+	@Mock
+	private IMediaDao mediaDao;
+
+	@Mock
+	private MediaStorageService storageService;
+
+	@InjectMocks
+	private MediaServiceImpl mediaService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(mediaService, "maxSizeBytes", 1000L);
+	}
+
+	@Test
+	void updateStatusMedia_debeConsultarUnaVezPorLlave_cuandoSeRepitenLlaves() {
+
+		// Arrange
+		Long userId = 1L;
+		Media a = new MediaTestDataBuilder().withOwnerId(userId).withStorageKey("a.png").withStatus(Constants.STATUS_PENDING).build();
+		Media b = new MediaTestDataBuilder().withOwnerId(userId).withStorageKey("b.png").withStatus(Constants.STATUS_PENDING).build();
+
+		when(mediaDao.findByOwnerIdAndStorageKeyIn(userId, Set.of("a.png", "b.png"))).thenReturn(List.of(a, b));
+		when(storageService.headContentLengths(Set.of("a.png", "b.png"))).thenReturn(Map.of("a.png", 10L, "b.png", 20L));
+		when(mediaDao.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+		// Act
+		List<Media> result = mediaService.updateStatusMedia(List.of("a.png", "b.png", "a.png"), userId);
+
+		// Assert
+		assertEquals(2, result.size());
+		assertEquals(Constants.STATUS_READY, a.getStatus());
+		assertEquals(10L, a.getSizeBytes());
+		assertEquals(20L, b.getSizeBytes());
+	}
+
+	@Test
+	void updateStatusMedia_debeLanzarNoSuchElement_cuandoLaLlaveNoEsDelUsuario() {
+
+		// Arrange
+		Long userId = 1L;
+		when(mediaDao.findByOwnerIdAndStorageKeyIn(eq(userId), any())).thenReturn(List.of());
+
+		// Act & Assert
+		assertThrows(NoSuchElementException.class, () -> mediaService.updateStatusMedia(List.of("x.png"), userId));
+		verify(storageService, never()).headContentLengths(any());
+		verify(mediaDao, never()).saveAll(anyList());
+	}
+
+	@Test
+	void updateStatusMedia_debeLanzarIllegalArgument_cuandoElArchivoExcedeElTamanio() {
+
+		// Arrange
+		Long userId = 1L;
+		Media media = new MediaTestDataBuilder().withOwnerId(userId).withStorageKey("a.png").withStatus(Constants.STATUS_PENDING).build();
+
+		when(mediaDao.findByOwnerIdAndStorageKeyIn(eq(userId), any())).thenReturn(List.of(media));
+		when(storageService.headContentLengths(any())).thenReturn(Map.of("a.png", 5000L));
+
+		// Act & Assert
+		assertThrows(IllegalArgumentException.class, () -> mediaService.updateStatusMedia(List.of("a.png"), userId));
+		verify(mediaDao, never()).saveAll(anyList());
+	}
+
+	@Test
+	void updateStatusMedia_debeLanzarNoSuchElement_cuandoElReaperYaReclamoLaFila() {
+
+		// Arrange
+		Long userId = 1L;
+		Media media = new MediaTestDataBuilder().withOwnerId(userId).withStorageKey("a.png")
+				.withStatus(Constants.STATUS_REAPING).build();
+
+		when(mediaDao.findByOwnerIdAndStorageKeyIn(eq(userId), any())).thenReturn(List.of(media));
+
+		// Act & Assert
+		assertThrows(NoSuchElementException.class, () -> mediaService.updateStatusMedia(List.of("a.png"), userId));
+		verify(storageService, never()).headContentLengths(any());
+	}
+
+	@Test
+	void updateStatusMedia_debeOmitirHead_cuandoElArchivoSeSubioPorStreaming() {
+
+		// Arrange
+		Long userId = 1L;
+		Media media = new MediaTestDataBuilder().withOwnerId(userId).withStorageKey("a.png").withSizeBytes(300L)
+				.withChecksumSha256("abc").withStatus(Constants.STATUS_PENDING).build();
+
+		when(mediaDao.findByOwnerIdAndStorageKeyIn(eq(userId), any())).thenReturn(List.of(media));
+		when(mediaDao.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+		// Act
+		List<Media> result = mediaService.updateStatusMedia(List.of("a.png"), userId);
+
+		// Assert
+		assertEquals(300L, result.get(0).getSizeBytes());
+		verify(storageService, never()).headContentLengths(any());
+	}
+
+}
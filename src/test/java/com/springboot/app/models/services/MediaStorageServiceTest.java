@@ -0,0 +1,157 @@
+package com.springboot.app.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.springboot.app.utils.PoolBuffersDirectos;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+@ExtendWith(MockitoExtension.class)
+class MediaStorageServiceTest {
+
+	@Mock
+	private S3Client s3;
+
+	@Mock
+	private S3AsyncClient s3Async;
+
+	@Mock
+	private S3Presigner presigner;
+
+	@Mock
+	private PoolBuffersDirectos buffers;
+
+	private MediaStorageService storageService;
+
+	@BeforeEach
+	void setUp() {
+		storageService = new MediaStorageService(s3, s3Async, presigner, buffers, 100);
+		ReflectionTestUtils.setField(storageService, "bucket", "bucket");
+		ReflectionTestUtils.setField(storageService, "maxSizeBytes", 1000L);
+	}
+
+	@Test
+	void deleteAll_debeAgruparEnLotesDeMil_cuandoHayMasLlavesQueElLimite() {
+
+		// Arrange
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < 2500; i++) {
+			keys.add("k" + i);
+		}
+
+		when(s3Async.deleteObjects(any(DeleteObjectsRequest.class)))
+				.thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+
+		// Act
+		Map<String, String> fallos = storageService.deleteAll(keys);
+
+		// Assert
+		assertEquals(0, fallos.size());
+		verify(s3Async, times(3)).deleteObjects(any(DeleteObjectsRequest.class));
+	}
+
+	@Test
+	void deleteAll_debeReportarFallosPorLlave_cuandoS3RechazaAlgunasLlaves() {
+
+		// Arrange
+		DeleteObjectsResponse respuesta = DeleteObjectsResponse.builder()
+				.errors(S3Error.builder().key("b").code("AccessDenied").build()).build();
+
+		when(s3Async.deleteObjects(any(DeleteObjectsRequest.class)))
+				.thenReturn(CompletableFuture.completedFuture(respuesta));
+
+		// Act
+		Map<String, String> fallos = storageService.deleteAll(List.of("a", "b", "a"));
+
+		// Assert
+		assertEquals(Map.of("b", "AccessDenied"), fallos);
+	}
+
+	@Test
+	void deleteAll_debeMarcarTodoElLote_cuandoFallaLaPeticion() {
+
+		// Arrange
+		when(s3Async.deleteObjects(any(DeleteObjectsRequest.class)))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("sin conexion")));
+
+		// Act
+		Map<String, String> fallos = storageService.deleteAll(List.of("a", "b"));
+
+		// Assert
+		assertEquals(Map.of("a", "sin conexion", "b", "sin conexion"), fallos);
+	}
+
+	@Test
+	void streamUpload_debeUsarPutSimple_cuandoElArchivoCabeEnUnBuffer() {
+
+		// Arrange
+		when(buffers.tomar()).thenReturn(ByteBuffer.allocateDirect(8));
+
+		// Act
+		MediaStorageService.SubidaStream subida = storageService.streamUpload("k",
+				new ByteArrayInputStream("test".getBytes(StandardCharsets.UTF_8)), "text/plain");
+
+		// Assert
+		assertEquals(4, subida.sizeBytes());
+		assertEquals("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08", subida.checksumSha256());
+		verify(s3).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+		verify(s3, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+		verify(buffers).devolver(any(ByteBuffer.class));
+	}
+
+	@Test
+	void streamUpload_debeSubirPorPartes_cuandoElArchivoExcedeElBuffer() {
+
+		// Arrange
+		when(buffers.tomar()).thenReturn(ByteBuffer.allocateDirect(8));
+		when(s3.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+				.thenReturn(CreateMultipartUploadResponse.builder().uploadId("u").build());
+		when(s3.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+				.thenReturn(UploadPartResponse.builder().eTag("e").build());
+		when(s3.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+				.thenReturn(CompleteMultipartUploadResponse.builder().build());
+
+		// Act
+		MediaStorageService.SubidaStream subida = storageService.streamUpload("k",
+				new ByteArrayInputStream(new byte[20]), "application/octet-stream");
+
+		// Assert
+		assertEquals(20, subida.sizeBytes());
+		verify(s3, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+		verify(s3, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+	}
+
+}
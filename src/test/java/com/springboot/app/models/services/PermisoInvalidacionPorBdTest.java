@@ -0,0 +1,142 @@
+package com.springboot.app.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.springboot.app.models.dao.ICacheInvalidacionDao;
+import com.springboot.app.models.entities.CacheInvalidacion;
+import com.springboot.app.utils.Utils;
+
+@ExtendWith(MockitoExtension.class)
+class PermisoInvalidacionPorBdTest {
+
+	@Mock
+	private ICacheInvalidacionDao invalidacionDao;
+
+	private final TransaccionesEnMemoria transacciones = new TransaccionesEnMemoria();
+
+	@Test
+	void sondear_debeNotificarUnaSolaVez_cuandoLaFilaSeReleeEnElSolape() {
+
+		// Arrange
+		PermisoInvalidacionPorBd bus = new PermisoInvalidacionPorBd(invalidacionDao, 10, transacciones);
+		List<String> recibidas = new ArrayList<>();
+		bus.registrar((userId, projectId) -> recibidas.add(userId + ":" + projectId));
+
+		CacheInvalidacion fila = new CacheInvalidacion(7L, "p");
+		fila.setId(101L);
+
+		when(invalidacionDao.findMaxId()).thenReturn(100L);
+		when(invalidacionDao.findTop500ByIdGreaterThanOrderByIdAsc(100L - PermisoInvalidacionPorBd.SOLAPE_IDS))
+				.thenReturn(List.of(fila));
+		when(invalidacionDao.findTop500ByIdGreaterThanOrderByIdAsc(101L - PermisoInvalidacionPorBd.SOLAPE_IDS))
+				.thenReturn(List.of(fila));
+
+		// Act
+		bus.sondear();
+		bus.sondear();
+		bus.sondear();
+
+		// Assert
+		assertEquals(List.of("7:p"), recibidas);
+	}
+
+	@Test
+	void publicar_debeConfirmarElInsertEnOtraTransaccion_cuandoSeLlamaDespuesDelCommit() {
+
+		// Arrange
+		PermisoInvalidacionPorBd bus = new PermisoInvalidacionPorBd(invalidacionDao, 10, transacciones);
+		List<Integer> transaccionDelInsert = new ArrayList<>();
+
+		when(invalidacionDao.save(any(CacheInvalidacion.class))).thenAnswer(inv -> {
+			transaccionDelInsert.add(transacciones.actual());
+			return inv.getArgument(0);
+		});
+
+		// Act
+		new TransactionTemplate(transacciones).executeWithoutResult(
+				estado -> Utils.ejecutarDespuesDelCommit(() -> bus.publicar(7L, "p")));
+
+		// Assert
+		assertEquals(List.of(2), transaccionDelInsert);
+		assertEquals(List.of(1, 2), transacciones.confirmadas);
+	}
+
+	/*
+	 * Gestor que se comporta como JpaTransactionManager en lo que importa aqui:
+	 * liga un recurso al hilo al iniciar y lo libera en la limpieza, despues de
+	 * afterCommit. Con REQUIRED dentro de afterCommit se uniria a la transaccion
+	 * ya confirmada y el insert nunca se confirmaria.
+	 */
+	static class TransaccionesEnMemoria extends AbstractPlatformTransactionManager {
+
+		private static final long serialVersionUID = 1L;
+
+		private final AtomicInteger secuencia = new AtomicInteger();
+
+		final List<Integer> confirmadas = new ArrayList<>();
+
+		int actual() {
+			Integer id = (Integer) TransactionSynchronizationManager.getResource(this);
+			return id != null ? id : 0;
+		}
+
+		@Override
+		protected Object doGetTransaction() {
+			return new int[] { actual() };
+		}
+
+		@Override
+		protected boolean isExistingTransaction(Object transaction) {
+			return ((int[]) transaction)[0] != 0;
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+			int id = secuencia.incrementAndGet();
+			((int[]) transaction)[0] = id;
+			TransactionSynchronizationManager.bindResource(this, id);
+		}
+
+		@Override
+		protected Object doSuspend(Object transaction) {
+			((int[]) transaction)[0] = 0;
+			return TransactionSynchronizationManager.unbindResource(this);
+		}
+
+		@Override
+		protected void doResume(Object transaction, Object suspendedResources) {
+			TransactionSynchronizationManager.bindResource(this, suspendedResources);
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+			confirmadas.add(((int[]) status.getTransaction())[0]);
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doCleanupAfterCompletion(Object transaction) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(this);
+		}
+	}
+
+}
@@ -0,0 +1,223 @@
+package com.springboot.app.models.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.springboot.app.models.dao.IProjectDao;
+import com.springboot.app.models.dao.ITareaDao;
+import com.springboot.app.models.dao.IUsuarioDao;
+import com.springboot.app.models.dtos.BorradoProyectoDto;
+import com.springboot.app.models.entities.Project;
+import com.springboot.app.testdata.ProjectTestDataBuilder;
+import com.springboot.app.utils.BorradoProyectoRegistro;
+import com.springboot.app.utils.Constants;
+import com.springboot.app.utils.DashboardCounterStore;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectServiceImplTest {
+
+	private static final String PROJECT_ID = "p-1";
+
+	private static final Long OWNER_ID = 1L;
+
+	@Mock
+	private IProjectDao projectDao;
+
+	@Mock
+	private IUsuarioDao usuarioDao;
+
+	@Mock
+	private IProjectMemberService projectMemberService;
+
+	@Mock
+	private ITareaDao tareaDao;
+
+	@Mock
+	private DashboardCounterStore counterStore;
+
+	@Mock
+	private ExecutorService borradoExecutor;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Mock
+	private BorradoProyectoRegistro borradoRegistro;
+
+	private ProjectServiceImpl projectService;
+
+	private Project project;
+
+	@BeforeEach
+	void setUp() {
+		projectService = new ProjectServiceImpl(projectDao, usuarioDao, projectMemberService, tareaDao, counterStore,
+				borradoRegistro, borradoExecutor, transactionManager);
+		ReflectionTestUtils.setField(projectService, "borradoLote", 2);
+		ReflectionTestUtils.setField(projectService, "borradoSincronoMax", 3L);
+		ReflectionTestUtils.setField(projectService, "barridoGraciaMinutos", 10L);
+
+		project = new ProjectTestDataBuilder().withIdGuid(PROJECT_ID).withStatus(Constants.STATUS_ACTIVE).build();
+	}
+
+	private void prepararBorrado(long totalTareas) {
+		when(projectDao.findByIdGuidAndStatusIs(PROJECT_ID, Constants.STATUS_ACTIVE)).thenReturn(Optional.of(project));
+		when(projectMemberService.isOwner(OWNER_ID, PROJECT_ID)).thenReturn(true);
+		when(usuarioDao.findUsernameById(OWNER_ID)).thenReturn("owner");
+		when(tareaDao.countActivasByProjectId(PROJECT_ID)).thenReturn(totalTareas);
+	}
+
+	@Test
+	void deleteProject_debeDesactivarTareasEnElRequest_cuandoSonPocas() {
+
+		// Arrange
+		prepararBorrado(3);
+		when(tareaDao.findIdsActivasByProjectId(PROJECT_ID, 2)).thenReturn(List.of("a", "b"), List.of("c"));
+		when(tareaDao.findUsuarioIdsByTareaIds(List.of("a", "b"))).thenReturn(List.of(7L));
+		when(tareaDao.findUsuarioIdsByTareaIds(List.of("c"))).thenReturn(List.of(8L));
+
+		// Act
+		BorradoProyectoDto result = projectService.deleteProject(PROJECT_ID, OWNER_ID);
+
+		// Assert
+		assertEquals(BorradoProyectoRegistro.COMPLETADO, result.getEstado());
+		assertEquals(Constants.STATUS_INACTIVE, project.getStatus());
+		verify(projectMemberService).desactivarMiembros(PROJECT_ID, "owner");
+		verify(tareaDao).desactivarByIds(List.of("a", "b"), "owner");
+		verify(tareaDao).desactivarByIds(List.of("c"), "owner");
+		verify(counterStore).invalidarUsuario(7L);
+		verify(counterStore).invalidarUsuario(8L);
+		verify(counterStore, never()).invalidarTodo();
+		verify(borradoExecutor, never()).execute(any());
+		verify(borradoRegistro, never()).registrar(anyString(), anyLong(), any());
+	}
+
+	@Test
+	void deleteProject_debeGuardarElAvanceDeCadaLote_cuandoSonMuchas() {
+
+		// Arrange
+		prepararBorrado(5);
+		when(borradoRegistro.registrar(PROJECT_ID, 5, OWNER_ID))
+				.thenReturn(new BorradoProyectoDto("job-1", PROJECT_ID, BorradoProyectoRegistro.EN_PROCESO, 0, 5, null));
+		doAnswer(inv -> {
+			inv.getArgument(0, Runnable.class).run();
+			return null;
+		}).when(borradoExecutor).execute(any());
+		when(tareaDao.findIdsActivasByProjectId(PROJECT_ID, 2)).thenReturn(List.of("a", "b"), List.of("c", "d"),
+				List.of("e"));
+		when(tareaDao.findUsuarioIdsByTareaIds(any())).thenReturn(List.of(7L));
+
+		// Act
+		BorradoProyectoDto result = projectService.deleteProject(PROJECT_ID, OWNER_ID);
+
+		// Assert
+		assertEquals("job-1", result.getJobId());
+		assertEquals(BorradoProyectoRegistro.EN_PROCESO, result.getEstado());
+		verify(borradoRegistro, times(2)).avanzar("job-1", 2);
+		verify(borradoRegistro).avanzar("job-1", 1);
+		verify(borradoRegistro).terminar("job-1");
+		verify(tareaDao).desactivarByIds(List.of("e"), "owner");
+		verify(counterStore, never()).invalidarTodo();
+	}
+
+	@Test
+	void deleteProject_noDebeExponerElErrorDeBaseDeDatos_cuandoFallaElProcesoEnSegundoPlano() {
+
+		// Arrange
+		prepararBorrado(5);
+		when(borradoRegistro.registrar(PROJECT_ID, 5, OWNER_ID))
+				.thenReturn(new BorradoProyectoDto("job-1", PROJECT_ID, BorradoProyectoRegistro.EN_PROCESO, 0, 5, null));
+		doAnswer(inv -> {
+			inv.getArgument(0, Runnable.class).run();
+			return null;
+		}).when(borradoExecutor).execute(any());
+		when(tareaDao.findIdsActivasByProjectId(PROJECT_ID, 2)).thenReturn(List.of("a", "b"));
+		when(tareaDao.desactivarByIds(any(), eq("owner")))
+				.thenThrow(new IllegalStateException("SQL [update tareas set status=0 ...]; lock wait timeout"));
+
+		// Act
+		projectService.deleteProject(PROJECT_ID, OWNER_ID);
+
+		// Assert
+		verify(borradoRegistro).fallar(eq("job-1"), argThat(error -> !error.contains("SQL")));
+		verify(borradoRegistro, never()).avanzar(anyString(), anyInt());
+		verify(borradoRegistro, never()).terminar(anyString());
+	}
+
+	@Test
+	void completarBorradosPendientes_debeDesactivarLasTareasRestantes_cuandoElProcesoSePerdio() {
+
+		// Arrange
+		when(projectDao.findBorradosConTareasActivas(any(LocalDateTime.class), anyInt()))
+				.thenReturn(List.<Object[]>of(new Object[] { PROJECT_ID, "owner" }));
+		when(borradoRegistro.enProceso(eq(PROJECT_ID), any(LocalDateTime.class))).thenReturn(false);
+		when(borradoRegistro.buscarPendiente(PROJECT_ID)).thenReturn(Optional.empty());
+		when(tareaDao.findIdsActivasByProjectId(PROJECT_ID, 2)).thenReturn(List.of("a"));
+		when(tareaDao.findUsuarioIdsByTareaIds(List.of("a"))).thenReturn(List.of(7L));
+
+		// Act
+		projectService.completarBorradosPendientes();
+
+		// Assert
+		verify(tareaDao).deleteAsignacionesByTareaIds(List.of("a"));
+		verify(tareaDao).desactivarByIds(List.of("a"), "owner");
+		verify(counterStore).invalidarUsuario(7L);
+	}
+
+	@Test
+	void completarBorradosPendientes_debeSeguirElAvanceDelProceso_cuandoLoRetomaDeOtraInstancia() {
+
+		// Arrange
+		when(projectDao.findBorradosConTareasActivas(any(LocalDateTime.class), anyInt()))
+				.thenReturn(List.<Object[]>of(new Object[] { PROJECT_ID, "owner" }));
+		when(borradoRegistro.enProceso(eq(PROJECT_ID), any(LocalDateTime.class))).thenReturn(false);
+		when(borradoRegistro.buscarPendiente(PROJECT_ID)).thenReturn(Optional.of("job-1"));
+		when(tareaDao.findIdsActivasByProjectId(PROJECT_ID, 2)).thenReturn(List.of("a"));
+		when(tareaDao.findUsuarioIdsByTareaIds(List.of("a"))).thenReturn(List.of(7L));
+
+		// Act
+		projectService.completarBorradosPendientes();
+
+		// Assert
+		verify(borradoRegistro).avanzar("job-1", 1);
+		verify(borradoRegistro).terminar("job-1");
+	}
+
+	@Test
+	void completarBorradosPendientes_noDebeTocarElProyecto_cuandoSuProcesoSigueAvanzando() {
+
+		// Arrange
+		when(projectDao.findBorradosConTareasActivas(any(LocalDateTime.class), anyInt()))
+				.thenReturn(List.<Object[]>of(new Object[] { PROJECT_ID, "owner" }));
+		when(borradoRegistro.enProceso(eq(PROJECT_ID), any(LocalDateTime.class))).thenReturn(true);
+
+		// Act
+		projectService.completarBorradosPendientes();
+
+		// Assert
+		verify(tareaDao, never()).findIdsActivasByProjectId(anyString(), anyInt());
+	}
+
+}
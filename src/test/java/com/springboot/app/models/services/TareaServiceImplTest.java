@@ -9,23 +9,26 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyShort;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
@@ -39,14 +42,18 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
 import com.github.javafaker.Faker;
-import com.springboot.app.models.dao.ICommentDao;
+import com.springboot.app.models.dao.ITareaCambioDao;
 import com.springboot.app.models.dao.ITareaDao;
+import com.springboot.app.models.dao.TareaFiltro;
+import com.springboot.app.models.dtos.CursorPageDto;
+import com.springboot.app.models.dtos.TareaCambioDto;
+import com.springboot.app.models.dtos.TareaCambiosEventoDto;
 import com.springboot.app.models.dtos.TareaDto;
-import com.springboot.app.models.entities.Comment;
 import com.springboot.app.models.entities.PrioridadTarea;
 import com.springboot.app.models.entities.Project;
 import com.springboot.app.models.entities.Tag;
 import com.springboot.app.models.entities.Tarea;
+import com.springboot.app.models.entities.TareaCambio;
 import com.springboot.app.models.entities.TareaStatus;
 import com.springboot.app.models.entities.Usuario;
 import com.springboot.app.testdata.PrioridadTareaTestDataBuilder;
@@ -57,7 +64,10 @@ import com.springboot.app.testdata.TareaStatusTestDataBuilder;
 import com.springboot.app.testdata.TareaTestDataBuilder;
 import com.springboot.app.testdata.UsuarioTestDataBuilder;
 import com.springboot.app.utils.Constants;
+import com.springboot.app.utils.CursorCodec;
+import com.springboot.app.utils.DashboardCounterStore;
 import com.springboot.app.utils.TareaChangeLogHelper;
+import com.springboot.app.utils.TareaEventBus;
 
 @ExtendWith(MockitoExtension.class)
 class TareaServiceImplTest {
@@ -78,11 +88,17 @@ class TareaServiceImplTest {
 	@Mock
 	private IProjectMemberService projectMemberService;
 	@Mock
-	private ICommentDao commentDao;
+	private ITareaCambioDao tareaCambioDao;
 
 	@Mock
 	private TareaChangeLogHelper tareaLogHelper;
 
+	@Mock
+	private DashboardCounterStore counterStore;
+
+	@Mock
+	private TareaEventBus eventBus;
+
 	private static final Faker faker = new Faker();
 
 	@Test
@@ -390,7 +406,7 @@ class TareaServiceImplTest {
 			return tarea;
 
 		});
-		when(tareaDao.findById(generatedTareaId)).thenReturn(Optional.of(tareaSimuladaEnBD));
+		when(tareaDao.findConUsuariosById(generatedTareaId)).thenReturn(Optional.of(tareaSimuladaEnBD));
 		when(usuarioService.findAllByIds(anyList())).thenReturn(List.of(user));
 
 		when(tareaDao.save(any(Tarea.class))).thenAnswer(i -> i.getArgument(0));
@@ -454,18 +470,10 @@ class TareaServiceImplTest {
 
 		when(projectService.findByProjectId(null)).thenReturn(Optional.empty());
 
-		when(tareaLogHelper.generarMensajeCambiosTarea(any(Tarea.class), any(TareaDto.class), any(Usuario.class),
+		when(tareaLogHelper.calcularCambios(any(Tarea.class), any(TareaDto.class), any(Usuario.class),
 				any(PrioridadTarea.class), any(TareaStatus.class), eq(null)))
-				.thenReturn("Campo ha cambiado a void por el usuario x");
-
-		when(commentDao.save(any(Comment.class))).thenAnswer(inv -> {
-
-			Comment saved = inv.getArgument(0);
-
-			saved.setId(faker.number().randomNumber());
-
-			return saved;
-		});
+				.thenReturn(List.of(new TareaCambio(dto.getIdGuid(), TareaChangeLogHelper.CAMPO_TITULO,
+						tarea.getTitulo(), dto.getTitulo(), user.getUsername())));
 
 		when(tareaDao.saveAndFlush(any(Tarea.class))).thenAnswer(inv -> {
 
@@ -476,7 +484,7 @@ class TareaServiceImplTest {
 			return tareaActualizada;
 		});
 
-		when(tareaDao.findById(tarea.getIdGuid())).thenReturn(Optional.of(tareaSimuladaEnBD));
+		when(tareaDao.findConUsuariosById(tarea.getIdGuid())).thenReturn(Optional.of(tareaSimuladaEnBD));
 
 		when(usuarioService.findAllByIds(anyList())).thenReturn(List.of(user));
 
@@ -572,7 +580,7 @@ class TareaServiceImplTest {
 	}
 
 	@Test
-	void save_update_debeActualizarTarea_yGuardarComment_siProjectExiste() {
+	void save_update_debeRegistrarCambiosYAvisarMenciones_sinGuardarComentario_siProjectExiste() {
 
 		Long userAuthId = 10L;
 
@@ -582,8 +590,6 @@ class TareaServiceImplTest {
 
 		Project project = new ProjectTestDataBuilder().withIdGuid(tareaDto.getProject_id()).build();
 
-		Usuario ownerProject = project.getOwner();
-
 		PrioridadTarea prioridad = new PrioridadTareaTestDataBuilder().withId(tareaDto.getId_prioridad()).build();
 
 		TareaStatus tareaStatus = new TareaStatusTestDataBuilder().withId(tareaDto.getId_tarea_status()).build();
@@ -595,6 +601,8 @@ class TareaServiceImplTest {
 		Tarea tarea = new TareaTestDataBuilder().withId(tareaDto.getIdGuid()).withPrioridadTarea(prioridad)
 				.withTareaStatus(tareaStatus).withUsuarios(List.of(asignado1, asignado2)).withProject(project).build();
 
+		Usuario ownerProject = project.getOwner();
+
 		Usuario tareaOwner = tarea.getOwner();
 
 		when(catalogoService.findPrioridadTareaById(tareaDto.getId_prioridad())).thenReturn(Optional.of(prioridad));
@@ -609,31 +617,29 @@ class TareaServiceImplTest {
 
 		when(projectMemberService.canEditTasks(userAuthId, project.getIdGuid())).thenReturn(true);
 
-		when(tareaLogHelper.generarMensajeCambiosTarea(any(Tarea.class), any(TareaDto.class), any(Usuario.class),
-				any(PrioridadTarea.class), any(TareaStatus.class), any(Project.class)))
-				.thenReturn("Campo ha cambiado a void por el usuario x");
-
-		// despues de remover las menciones al usuario auth
-		List<Long> expectedMentionsIds = List.of(asignado2.getId(), ownerProject.getId(), tareaOwner.getId());
-
-		when(usuarioService.findAllByIds(
-				argThat(list -> list.containsAll(expectedMentionsIds) && list.size() == expectedMentionsIds.size())))
-				.thenReturn(List.of(asignado2, ownerProject, tareaOwner));
+		List<TareaCambio> cambios = List.of(
+				new TareaCambio(tarea.getIdGuid(), TareaChangeLogHelper.CAMPO_TITULO, tarea.getTitulo(),
+						tareaDto.getTitulo(), authUser.getUsername()),
+				new TareaCambio(tarea.getIdGuid(), TareaChangeLogHelper.CAMPO_DESCRIPCION, tarea.getDescripcion(),
+						tareaDto.getDescripcion(), authUser.getUsername()));
 
-		when(commentDao.save(any(Comment.class))).thenAnswer(inv -> {
+		when(tareaLogHelper.calcularCambios(any(Tarea.class), any(TareaDto.class), any(Usuario.class),
+				any(PrioridadTarea.class), any(TareaStatus.class), any(Project.class)))
+				.thenReturn(cambios);
 
-			Comment saved = inv.getArgument(0);
+		when(eventBus.tieneSuscriptores(tarea.getIdGuid())).thenReturn(true);
 
-			saved.setId(faker.number().randomNumber());
+		when(tareaDao.findUsuarioIdsByTareaIds(List.of(tarea.getIdGuid())))
+				.thenReturn(List.of(asignado1.getId(), asignado2.getId()));
 
-			return saved;
-		});
+		// despues de remover las menciones al usuario auth
+		List<Long> expectedMentionsIds = List.of(asignado2.getId(), ownerProject.getId(), tareaOwner.getId());
 
 		when(tareaDao.saveAndFlush(any(Tarea.class))).thenAnswer(inv -> inv.getArgument(0));
 
 		ArgumentCaptor<Tarea> tareaCaptor = ArgumentCaptor.forClass(Tarea.class);
 
-		ArgumentCaptor<Comment> commentCaptor = ArgumentCaptor.forClass(Comment.class);
+		ArgumentCaptor<TareaCambiosEventoDto> eventoCaptor = ArgumentCaptor.forClass(TareaCambiosEventoDto.class);
 
 		// Act
 
@@ -649,19 +655,11 @@ class TareaServiceImplTest {
 		assertEquals(tareaDto.getId_prioridad(), result.getId_prioridad());
 		assertEquals(tareaDto.getId_tarea_status(), result.getId_tarea_status());
 
-		verify(commentDao).save(commentCaptor.capture());
-
-		Comment savedComment = commentCaptor.getValue();
-
-		assertEquals("Campo ha cambiado a void por el usuario x", savedComment.getBody());
-		assertSame(authUser, savedComment.getAutor());
-		assertSame(tarea, savedComment.getTarea());
-		assertNotNull(savedComment.getMentions());
+		verify(tareaCambioDao).saveAll(cambios);
 
-		assertTrue(savedComment.getMentions().stream().map(u -> u.getId()).toList().containsAll(expectedMentionsIds));
+		verify(usuarioService, never()).findAllByIds(anyList());
 
-		assertFalse(savedComment.getMentions().stream().anyMatch(u -> u.getId().equals(userAuthId)),
-				"El autor del cambio no debe ser mencionado");
+		verify(tareaLogHelper, never()).renderizar(any(TareaCambio.class));
 
 		verify(tareaDao).saveAndFlush(tareaCaptor.capture());
 
@@ -678,6 +676,122 @@ class TareaServiceImplTest {
 
 		verify(projectMemberService).canEditTasks(eq(userAuthId), eq(project.getIdGuid()));
 
+		verify(eventBus).publicar(eq(tarea.getIdGuid()), eq(TareaEventBus.EVENTO_CAMBIOS), eventoCaptor.capture());
+
+		TareaCambiosEventoDto evento = eventoCaptor.getValue();
+
+		assertEquals(List.of(TareaChangeLogHelper.CAMPO_TITULO, TareaChangeLogHelper.CAMPO_DESCRIPCION),
+				evento.getCampos());
+		assertEquals(authUser.getUsername(), evento.getUsuario());
+
+		assertTrue(evento.getMentionsUserIds().containsAll(expectedMentionsIds));
+
+		assertFalse(evento.getMentionsUserIds().contains(userAuthId), "El autor del cambio no debe ser mencionado");
+
+		verify(eventBus).publicar(result.getIdGuid(), TareaEventBus.EVENTO_TAREA, result);
+
+	}
+
+	@Test
+	void save_update_noDebeRegistrarCambios_siLaActualizacionNoModificaNada() {
+
+		Long userAuthId = 10L;
+
+		TareaDto tareaDto = new TareaDtoTestDataBuilder().build();
+
+		Usuario authUser = new UsuarioTestDataBuilder().withId(userAuthId).build();
+
+		Project project = new ProjectTestDataBuilder().withIdGuid(tareaDto.getProject_id()).build();
+
+		PrioridadTarea prioridad = new PrioridadTareaTestDataBuilder().withId(tareaDto.getId_prioridad()).build();
+
+		TareaStatus tareaStatus = new TareaStatusTestDataBuilder().withId(tareaDto.getId_tarea_status()).build();
+
+		Tarea tarea = new TareaTestDataBuilder().withId(tareaDto.getIdGuid()).withPrioridadTarea(prioridad)
+				.withTareaStatus(tareaStatus).withProject(project).build();
+
+		when(catalogoService.findPrioridadTareaById(tareaDto.getId_prioridad())).thenReturn(Optional.of(prioridad));
+
+		when(catalogoService.findTareaStatusById(tareaDto.getId_tarea_status())).thenReturn(Optional.of(tareaStatus));
+
+		when(tareaDao.findById(tareaDto.getIdGuid(), userAuthId)).thenReturn(Optional.of(tarea));
+
+		when(usuarioService.findByUserId(userAuthId)).thenReturn(authUser);
+
+		when(projectService.findByProjectId(tareaDto.getProject_id())).thenReturn(Optional.of(project));
+
+		when(projectMemberService.canEditTasks(userAuthId, project.getIdGuid())).thenReturn(true);
+
+		when(tareaLogHelper.calcularCambios(any(Tarea.class), any(TareaDto.class), any(Usuario.class),
+				any(PrioridadTarea.class), any(TareaStatus.class), any(Project.class)))
+				.thenReturn(List.of());
+
+		when(tareaDao.saveAndFlush(any(Tarea.class))).thenAnswer(inv -> inv.getArgument(0));
+
+		// Act
+
+		TareaDto result = tareaService.save(tareaDto, userAuthId);
+
+		// Assert
+
+		assertNotNull(result);
+
+		assertNull(tarea.getUsuarioModificacion());
+
+		verify(tareaCambioDao, never()).saveAll(anyList());
+
+		verify(tareaDao, never()).findUsuarioIdsByTareaIds(anyList());
+
+		verify(eventBus, never()).publicar(anyString(), anyString(), any());
+	}
+
+	@Test
+	void getCambios_debeRetornarCambiosConMensaje_siUsuarioEsOwner() {
+
+		// Arrange
+		Long userAuthId = 10L;
+
+		Usuario owner = new UsuarioTestDataBuilder().withId(userAuthId).build();
+
+		Tarea tarea = new TareaTestDataBuilder().withOwner(owner).build();
+
+		TareaCambio cambio = new TareaCambio(tarea.getIdGuid(), TareaChangeLogHelper.CAMPO_PRIORIDAD, "BAJA", "ALTA",
+				owner.getUsername());
+
+		when(tareaDao.findById(tarea.getIdGuid())).thenReturn(Optional.of(tarea));
+
+		when(tareaCambioDao.findByTareaIdOrderByFechaDescIdDesc(eq(tarea.getIdGuid()), any(Pageable.class)))
+				.thenReturn(new PageImpl<>(List.of(cambio)));
+
+		when(tareaLogHelper.renderizar(cambio)).thenReturn("Prioridad ha cambiado a \"ALTA\"");
+
+		// Act
+		Page<TareaCambioDto> result = tareaService.getCambios(tarea.getIdGuid(), 0, 20, userAuthId);
+
+		// Assert
+		assertEquals(1, result.getTotalElements());
+		assertEquals("ALTA", result.getContent().get(0).getValorNuevo());
+		assertEquals("Prioridad ha cambiado a \"ALTA\"", result.getContent().get(0).getMensaje());
+	}
+
+	@Test
+	void getCambios_debeLanzarSecurityException_siUsuarioNoTieneAcceso() {
+
+		// Arrange
+		Long userAuthId = 10L;
+
+		Tarea tarea = new TareaTestDataBuilder().build();
+
+		when(tareaDao.findById(tarea.getIdGuid())).thenReturn(Optional.of(tarea));
+
+		when(projectMemberService.isMember(userAuthId, tarea.getProject().getIdGuid())).thenReturn(false);
+
+		when(tareaDao.isAsignedToThisTask(tarea.getIdGuid(), userAuthId)).thenReturn(0);
+
+		// Act & Assert
+		assertThrows(SecurityException.class, () -> tareaService.getCambios(tarea.getIdGuid(), 0, 20, userAuthId));
+
+		verify(tareaCambioDao, never()).findByTareaIdOrderByFechaDescIdDesc(anyString(), any(Pageable.class));
 	}
 
 	@Test
@@ -699,12 +813,7 @@ class TareaServiceImplTest {
 
 		Page<Tarea> pageEntities = new PageImpl<>(listaTareas);
 
-		when(tareaDao.getAllActives(any(Pageable.class), eq(statusIds), eq(prioridadIds), eq(fechaDesde),
-				eq(fechaHasta), anyString(), // busquedaDesc
-				anyString(), // busquedaTitulo
-				eq(true), // aplicarPrioridad (esperamos true porque la lista no es vacía)
-				eq(true), // aplicarTareaStatus (esperamos true)
-				eq(ownerId))).thenReturn(pageEntities);
+		when(tareaDao.buscarActivas(any(TareaFiltro.class), any(Pageable.class))).thenReturn(pageEntities);
 
 		// Act
 		Page<TareaDto> result = tareaService.getAllActives(pagina, tamanio, statusIds, prioridadIds, fechaDesde,
@@ -717,11 +826,16 @@ class TareaServiceImplTest {
 		TareaDto dtoResultado = result.getContent().get(0);
 		assertEquals(tarea.getIdGuid(), dtoResultado.getIdGuid());
 
+		ArgumentCaptor<TareaFiltro> filtroCaptor = ArgumentCaptor.forClass(TareaFiltro.class);
 		ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
 
-		verify(tareaDao).getAllActives(pageableCaptor.capture(), eq(statusIds), eq(prioridadIds), any(), any(), any(),
-				any(), eq(true), eq(true), eq(ownerId));
+		verify(tareaDao).buscarActivas(filtroCaptor.capture(), pageableCaptor.capture());
 
+		assertEquals(statusIds, filtroCaptor.getValue().getTareaStatusIds());
+		assertEquals(prioridadIds, filtroCaptor.getValue().getPrioridadIds());
+		assertEquals(fechaDesde, filtroCaptor.getValue().getDesde());
+		assertEquals(fechaHasta, filtroCaptor.getValue().getHasta());
+		assertEquals(ownerId, filtroCaptor.getValue().getOwnerId());
 		assertEquals(pagina, pageableCaptor.getValue().getPageNumber());
 		assertEquals(tamanio, pageableCaptor.getValue().getPageSize());
 		assertEquals(1, pageableCaptor.getValue().getSort().toList().size());
@@ -749,9 +863,108 @@ class TareaServiceImplTest {
 		// Asserts
 		assertTrue(ex.getMessage().toLowerCase().contains("formato invalido"));
 
-		verify(tareaDao, never()).getAllActives(any(Pageable.class), anyList(), anyList(), any(), any(), anyString(),
-				anyString(), anyBoolean(), anyBoolean(), anyLong());
+		verify(tareaDao, never()).buscarActivas(any(TareaFiltro.class), any(Pageable.class));
+
+	}
+
+	@Test
+	void getAllActivesCursor_debeRetornarNextCursor_cuandoHayMasResultados() {
+		// Arrange
+		Long ownerId = 10L;
+		LocalDateTime fecha = LocalDateTime.of(2030, 1, 15, 10, 30);
+
+		Tarea primera = new TareaTestDataBuilder().build();
+		Tarea segunda = new TareaTestDataBuilder().build();
+		segunda.setFechaLimite(fecha);
+		Tarea extra = new TareaTestDataBuilder().build();
+
+		when(tareaDao.buscarActivasKeyset(any(TareaFiltro.class), isNull(), isNull(), eq(3)))
+				.thenReturn(List.of(primera, segunda, extra));
+
+		// Act
+		CursorPageDto<TareaDto> result = tareaService.getAllActivesCursor(null, 2, null, null, null, null, null,
+				null, false, ownerId);
+
+		// Assert
+		assertEquals(2, result.getContent().size());
+		assertEquals(primera.getIdGuid(), result.getContent().get(0).getIdGuid());
+		assertEquals(CursorCodec.codificar(fecha.toString(), segunda.getIdGuid()), result.getNextCursor());
+		assertNull(result.getTotal());
+
+		verify(tareaDao, never()).contarActivas(any(TareaFiltro.class));
+		// Las etiquetas se cargan una vez para la pagina, sin el elemento extra
+		verify(tareaDao).findConEtiquetasByIds(List.of(primera.getIdGuid(), segunda.getIdGuid()));
+	}
+
+	@Test
+	void getAllActivesCursor_debeBuscarDesdeElCursor_yCalcularTotal_cuandoSeSolicita() {
+		// Arrange
+		Long ownerId = 10L;
+		String cursorId = UUID.randomUUID().toString();
+		String cursor = CursorCodec.codificar("", cursorId);
+
+		Tarea tarea = new TareaTestDataBuilder().build();
+
+		when(tareaDao.buscarActivasKeyset(argThat(f -> ownerId.equals(f.getOwnerId())), isNull(), eq(cursorId),
+				eq(6))).thenReturn(List.of(tarea));
+		when(tareaDao.contarActivas(any(TareaFiltro.class))).thenReturn(11L);
 
+		// Act
+		CursorPageDto<TareaDto> result = tareaService.getAllActivesCursor(cursor, 5, null, null, null, null, null,
+				null, true, ownerId);
+
+		// Assert
+		assertEquals(1, result.getContent().size());
+		assertNull(result.getNextCursor());
+		assertEquals(11L, result.getTotal());
+	}
+
+	@Test
+	void getAllActivesCursor_debeLanzarIllegalArgumentException_cuandoCursorEsInvalido() {
+
+		// Act & Assert
+		assertThrows(IllegalArgumentException.class, () -> tareaService.getAllActivesCursor("%%", 5,
+				null, null, null, null, null, null, false, 10L));
+
+		verifyNoInteractions(tareaDao);
+	}
+
+	@Test
+	void getTareasByProjectIdCursor_debeFiltrarPorProyecto_cuandoUsuarioEsMiembro() {
+		// Arrange
+		Long userId = 10L;
+		String projectId = UUID.randomUUID().toString();
+
+		Tarea tarea = new TareaTestDataBuilder().build();
+
+		when(projectService.existsProjectActive(projectId)).thenReturn(true);
+		when(projectMemberService.isMember(userId, projectId)).thenReturn(true);
+		when(tareaDao.buscarActivasKeyset(argThat(f -> projectId.equals(f.getProjectId()) && f.getOwnerId() == null),
+				isNull(), isNull(), eq(21))).thenReturn(List.of(tarea));
+
+		// Act
+		CursorPageDto<TareaDto> result = tareaService.getTareasByProjectIdCursor(projectId, null, 20, false, userId);
+
+		// Assert
+		assertEquals(1, result.getContent().size());
+		assertNull(result.getNextCursor());
+		verify(tareaDao).findConEtiquetasByIds(List.of(tarea.getIdGuid()));
+	}
+
+	@Test
+	void getTareasByProjectIdCursor_debeLanzarSecurityException_cuandoUsuarioNoEsMiembro() {
+		// Arrange
+		Long userId = 10L;
+		String projectId = UUID.randomUUID().toString();
+
+		when(projectService.existsProjectActive(projectId)).thenReturn(true);
+		when(projectMemberService.isMember(userId, projectId)).thenReturn(false);
+
+		// Act & Assert
+		assertThrows(SecurityException.class,
+				() -> tareaService.getTareasByProjectIdCursor(projectId, null, 20, false, userId));
+
+		verifyNoInteractions(tareaDao);
 	}
 
 	@Test
@@ -769,7 +982,7 @@ class TareaServiceImplTest {
 
 		Tarea tarea = new TareaTestDataBuilder().withProject(null).withId(tareaId).withOwner(authUser).build();
 
-		when(tareaDao.findById(tareaId)).thenReturn(Optional.of(tarea));
+		when(tareaDao.findConUsuariosById(tareaId)).thenReturn(Optional.of(tarea));
 		when(usuarioService.findAllByIds(userIds)).thenReturn(List.of(authUser));
 		when(tareaDao.save(any(Tarea.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -818,15 +1031,14 @@ class TareaServiceImplTest {
 
 		Tarea tarea = new TareaTestDataBuilder().withId(tareaId).withProject(project).build();
 
-		when(tareaDao.findById(tareaId)).thenReturn(Optional.of(tarea));
+		when(tareaDao.findConUsuariosById(tareaId)).thenReturn(Optional.of(tarea));
 
 		when(projectMemberService.isOwner(authUserId, tarea.getProject().getIdGuid())).thenReturn(true);
 
 		when(usuarioService.findAllByIds(userIds)).thenReturn(List.of(asignado1, asignado2));
 
-		when(projectMemberService.isMember(asignado1.getId(), tarea.getProject().getIdGuid())).thenReturn(true);
-
-		when(projectMemberService.isMember(asignado2.getId(), tarea.getProject().getIdGuid())).thenReturn(true);
+		when(projectMemberService.findMiembrosActivos(List.of(project.getIdGuid()), userIds))
+				.thenReturn(Map.of(project.getIdGuid(), Set.copyOf(userIds)));
 
 		when(tareaDao.save(any(Tarea.class))).thenAnswer(inv -> inv.getArgument(0));
 
@@ -852,10 +1064,145 @@ class TareaServiceImplTest {
 
 		verify(projectMemberService).isOwner(eq(authUserId), eq(tarea.getProject().getIdGuid()));
 
-		verify(projectMemberService, times(userIds.size())).isMember(anyLong(), anyString());
+		verify(projectMemberService, never()).isMember(anyLong(), anyString());
 
 	}
 
+	@Test
+	void asignarTarea_noDebeDuplicarUsuarios_cuandoYaEstabanAsignados() {
+
+		// Arrange
+
+		Long authUserId = 10L;
+
+		Usuario authUser = new UsuarioTestDataBuilder().withId(authUserId).build();
+
+		Usuario asignado1 = new UsuarioTestDataBuilder().build();
+
+		Usuario noMiembro = new UsuarioTestDataBuilder().build();
+
+		List<Long> userIds = List.of(asignado1.getId(), noMiembro.getId());
+
+		Project project = new ProjectTestDataBuilder().withOwner(authUser).build();
+
+		Tarea tarea = new TareaTestDataBuilder().withProject(project).withUsuarios(new ArrayList<>(List.of(asignado1)))
+				.build();
+
+		when(tareaDao.findConUsuariosById(tarea.getIdGuid())).thenReturn(Optional.of(tarea));
+
+		when(projectMemberService.isOwner(authUserId, project.getIdGuid())).thenReturn(true);
+
+		when(projectMemberService.findMiembrosActivos(List.of(project.getIdGuid()), userIds))
+				.thenReturn(Map.of(project.getIdGuid(), Set.of(asignado1.getId())));
+
+		when(usuarioService.findAllByIds(userIds)).thenReturn(List.of(asignado1, noMiembro));
+
+		when(tareaDao.save(any(Tarea.class))).thenAnswer(inv -> inv.getArgument(0));
+
+		// Act
+
+		tareaService.asignarTarea(userIds, tarea.getIdGuid(), authUserId);
+
+		// Assert
+
+		assertEquals(List.of(asignado1), tarea.getUsuarios());
+	}
+
+	@Test
+	void asignarTareas_debeInsertarAsignacionesEnLote_soloParaMiembrosDeCadaProyecto() {
+
+		// Arrange
+
+		Long authUserId = 10L;
+
+		List<String> tareaIds = List.of("tarea-1", "tarea-2");
+
+		List<Long> userIds = List.of(20L, 30L);
+
+		when(tareaDao.findProjectIdsByTareaIds(Set.copyOf(tareaIds))).thenReturn(List.of(
+				new Object[] { "tarea-1", "proyecto-a" },
+				new Object[] { "tarea-2", "proyecto-b" }));
+
+		when(projectMemberService.findProyectosOwner(authUserId, Set.of("proyecto-a", "proyecto-b")))
+				.thenReturn(Set.of("proyecto-a", "proyecto-b"));
+
+		when(usuarioService.findAllByIds(userIds)).thenReturn(List.of(
+				new UsuarioTestDataBuilder().withId(20L).build(), new UsuarioTestDataBuilder().withId(30L).build()));
+
+		when(projectMemberService.findMiembrosActivos(Set.of("proyecto-a", "proyecto-b"), Set.copyOf(userIds)))
+				.thenReturn(Map.of("proyecto-a", Set.of(20L, 30L), "proyecto-b", Set.of(30L)));
+
+		// Act
+
+		tareaService.asignarTareas(tareaIds, userIds, authUserId);
+
+		// Assert
+
+		verify(tareaDao).insertarAsignaciones(Map.of("tarea-1", Set.of(20L, 30L), "tarea-2", Set.of(30L)));
+
+		verify(counterStore).invalidarUsuario(20L);
+
+		verify(counterStore).invalidarUsuario(30L);
+
+		verify(projectMemberService, never()).isMember(anyLong(), anyString());
+	}
+
+	@Test
+	void asignarTareas_debeOmitirUsuariosInactivos_cuandoSonMiembrosDelProyecto() {
+
+		// Arrange
+
+		Long authUserId = 10L;
+
+		List<String> tareaIds = List.of("tarea-1");
+
+		List<Long> userIds = List.of(20L, 30L);
+
+		when(tareaDao.findProjectIdsByTareaIds(Set.copyOf(tareaIds)))
+				.thenReturn(List.<Object[]>of(new Object[] { "tarea-1", "proyecto-a" }));
+
+		when(projectMemberService.findProyectosOwner(authUserId, Set.of("proyecto-a"))).thenReturn(Set.of("proyecto-a"));
+
+		// El usuario 30 esta inactivo y findAllByIds no lo devuelve
+		when(usuarioService.findAllByIds(userIds)).thenReturn(List.of(new UsuarioTestDataBuilder().withId(20L).build()));
+
+		when(projectMemberService.findMiembrosActivos(Set.of("proyecto-a"), Set.of(20L)))
+				.thenReturn(Map.of("proyecto-a", Set.of(20L)));
+
+		// Act
+
+		tareaService.asignarTareas(tareaIds, userIds, authUserId);
+
+		// Assert
+
+		verify(tareaDao).insertarAsignaciones(Map.of("tarea-1", Set.of(20L)));
+
+		verify(counterStore, never()).invalidarUsuario(30L);
+	}
+
+	@Test
+	void asignarTareas_debeLanzarSecurityException_cuandoNoEsOwnerDeTodosLosProyectos() {
+
+		// Arrange
+
+		Long authUserId = 10L;
+
+		List<String> tareaIds = List.of("tarea-1", "tarea-2");
+
+		when(tareaDao.findProjectIdsByTareaIds(Set.copyOf(tareaIds))).thenReturn(List.of(
+				new Object[] { "tarea-1", "proyecto-a" },
+				new Object[] { "tarea-2", "proyecto-b" }));
+
+		when(projectMemberService.findProyectosOwner(authUserId, Set.of("proyecto-a", "proyecto-b")))
+				.thenReturn(Set.of("proyecto-a"));
+
+		// Act & Assert
+
+		assertThrows(SecurityException.class, () -> tareaService.asignarTareas(tareaIds, List.of(20L), authUserId));
+
+		verify(tareaDao, never()).insertarAsignaciones(any());
+	}
+
 	@Test
 	void asignarTarea_debeLanzarNoSuchException_cuandoTareaNoExiste() {
 
@@ -867,7 +1214,7 @@ class TareaServiceImplTest {
 
 		String tareaId = UUID.randomUUID().toString();
 
-		when(tareaDao.findById(tareaId)).thenReturn(Optional.empty());
+		when(tareaDao.findConUsuariosById(tareaId)).thenReturn(Optional.empty());
 
 		// Act
 
@@ -897,7 +1244,7 @@ class TareaServiceImplTest {
 
 		Tarea tarea = new TareaTestDataBuilder().withProject(null).withId(tareaId).withOwner(authUser).build();
 
-		when(tareaDao.findById(tareaId)).thenReturn(Optional.of(tarea));
+		when(tareaDao.findConUsuariosById(tareaId)).thenReturn(Optional.of(tarea));
 
 		// Act
 
@@ -925,7 +1272,7 @@ class TareaServiceImplTest {
 
 		Tarea tarea = new TareaTestDataBuilder().withProject(null).withId(tareaId).build();
 
-		when(tareaDao.findById(tareaId)).thenReturn(Optional.of(tarea));
+		when(tareaDao.findConUsuariosById(tareaId)).thenReturn(Optional.of(tarea));
 
 		// Act
 
@@ -953,7 +1300,7 @@ class TareaServiceImplTest {
 
 		Tarea tarea = new TareaTestDataBuilder().withId(tareaId).build();
 
-		when(tareaDao.findById(tareaId)).thenReturn(Optional.of(tarea));
+		when(tareaDao.findConUsuariosById(tareaId)).thenReturn(Optional.of(tarea));
 		when(projectMemberService.isOwner(authUserId, tarea.getProject().getIdGuid())).thenReturn(false);
 
 		// Act
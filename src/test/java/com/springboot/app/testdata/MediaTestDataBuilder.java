@@ -30,6 +30,8 @@ public class MediaTestDataBuilder {
     
     private Instant createdAt = Instant.now();
 
+    private Integer purgaIntentos = 0;
+
     public MediaTestDataBuilder withId(Long id) {
         this.id = id;
         return this;
@@ -75,6 +77,11 @@ public class MediaTestDataBuilder {
         return this;
     }
 
+    public MediaTestDataBuilder withPurgaIntentos(Integer purgaIntentos) {
+        this.purgaIntentos = purgaIntentos;
+        return this;
+    }
+
     public Media build() {
         Media media = new Media();
         
@@ -87,6 +94,7 @@ public class MediaTestDataBuilder {
         media.setChecksumSha256(checksumSha256);
         media.setStatus(status);
         media.setCreatedAt(createdAt);
+        media.setPurgaIntentos(purgaIntentos);
         
         return media;
     }
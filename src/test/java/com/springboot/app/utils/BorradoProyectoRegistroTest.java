@@ -0,0 +1,93 @@
+package com.springboot.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.springboot.app.models.dao.IBorradoProyectoDao;
+import com.springboot.app.models.dtos.BorradoProyectoDto;
+import com.springboot.app.models.entities.BorradoProyecto;
+
+@ExtendWith(MockitoExtension.class)
+class BorradoProyectoRegistroTest {
+
+	@Mock
+	private IBorradoProyectoDao borradoDao;
+
+	@InjectMocks
+	private BorradoProyectoRegistro registro;
+
+	private static BorradoProyecto borrado(String projectId, Long userId, long procesadas, long total) {
+		BorradoProyecto borrado = new BorradoProyecto(projectId, userId, total, BorradoProyectoRegistro.EN_PROCESO);
+		borrado.setJobId("job-1");
+		borrado.setProcesadas(procesadas);
+		return borrado;
+	}
+
+	@Test
+	void registrar_debeGuardarElProcesoEnProceso_yPurgarLosTerminados() {
+
+		// Arrange
+		when(borradoDao.save(any(BorradoProyecto.class))).thenAnswer(inv -> {
+			BorradoProyecto nuevo = inv.getArgument(0);
+			nuevo.setJobId("job-1");
+			return nuevo;
+		});
+
+		// Act
+		BorradoProyectoDto result = registro.registrar("p", 2500, 1L);
+
+		// Assert
+		assertEquals("job-1", result.getJobId());
+		assertEquals(BorradoProyectoRegistro.EN_PROCESO, result.getEstado());
+		assertEquals(2500, result.getTareasTotales());
+		verify(borradoDao).deleteTerminadosAntesDe(any(LocalDateTime.class));
+	}
+
+	@Test
+	void consultar_debeDevolverElAvanceGuardado_cuandoLoPideQuienLoInicio() {
+
+		// Arrange
+		when(borradoDao.findById("job-1")).thenReturn(Optional.of(borrado("p", 1L, 2000, 2500)));
+
+		// Act
+		BorradoProyectoDto result = registro.consultar("job-1", "p", 1L);
+
+		// Assert
+		assertEquals(2000, result.getTareasProcesadas());
+		assertEquals(2500, result.getTareasTotales());
+	}
+
+	@Test
+	void consultar_debeLanzarSecurityException_cuandoLoPideOtroUsuario() {
+
+		// Arrange
+		when(borradoDao.findById("job-1")).thenReturn(Optional.of(borrado("p", 1L, 0, 10)));
+
+		// Act & Assert
+		assertThrows(SecurityException.class, () -> registro.consultar("job-1", "p", 2L));
+	}
+
+	@Test
+	void consultar_debeLanzarNoSuchElementException_cuandoElProcesoEsDeOtroProyecto() {
+
+		// Arrange
+		when(borradoDao.findById("job-1")).thenReturn(Optional.of(borrado("p", 1L, 0, 10)));
+
+		// Act & Assert
+		assertThrows(NoSuchElementException.class, () -> registro.consultar("job-1", "otro", 1L));
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.springboot.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class CacheAcotadoTest {
+
+	@Test
+	void guardar_debeAvisarAlOyente_cuandoDesplazaOReemplazaUnaEntrada() {
+
+		// Arrange
+		List<String> descartadas = new ArrayList<>();
+		CacheAcotado<String, String> cache = new CacheAcotado<>(2, (llave, valor) -> descartadas.add(valor));
+		Instant expiracion = Instant.now().plusSeconds(60);
+
+		cache.guardar("a", "a1", expiracion);
+		cache.guardar("b", "b1", expiracion);
+
+		// Act
+		cache.guardar("a", "a2", expiracion);
+		cache.obtener("a");
+		cache.guardar("c", "c1", expiracion);
+
+		// Assert
+		assertEquals(List.of("a1", "b1"), descartadas);
+		assertEquals(2, cache.tamanio());
+		assertNotNull(cache.obtener("a"));
+		assertNotNull(cache.obtener("c"));
+	}
+
+	@Test
+	void obtener_debeAvisarUnaSolaVez_cuandoLaEntradaExpiro() {
+
+		// Arrange
+		AtomicInteger avisos = new AtomicInteger();
+		CacheAcotado<String, String> cache = new CacheAcotado<>(10, (llave, valor) -> avisos.incrementAndGet());
+		cache.guardar("a", "a1", Instant.now().minusSeconds(1));
+
+		// Act
+		assertNull(cache.obtener("a"));
+		assertNull(cache.obtener("a"));
+
+		// Assert
+		assertEquals(1, avisos.get());
+		assertEquals(0, cache.tamanio());
+	}
+
+	@Test
+	void guardar_noDebePasarDelMaximo_cuandoEscribenVariosHilos() throws InterruptedException {
+
+		// Arrange
+		CacheAcotado<Integer, Integer> cache = new CacheAcotado<>(100);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		Instant expiracion = Instant.now().plusSeconds(60);
+
+		// Act
+		for (int hilo = 0; hilo < 8; hilo++) {
+			int base = hilo * 10_000;
+			executor.execute(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					cache.guardar(base + i, i, expiracion);
+					cache.obtener(base + i / 2);
+				}
+			});
+		}
+
+		executor.shutdown();
+		executor.awaitTermination(30, TimeUnit.SECONDS);
+
+		// Assert
+		assertTrue(cache.tamanio() <= 100);
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.springboot.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.springboot.app.models.dtos.DashboardDto;
+import com.springboot.app.utils.DashboardCounterStore.TareaResumen;
+
+class DashboardCounterStoreTest {
+
+	private static final List<String> ESTATUS = List.of("EN PROCESO", "COMPLETADO");
+
+	private static final List<String> PRIORIDADES = List.of("BAJA", "ALTA");
+
+	@Test
+	void leer_debeCalcularContadores_cuandoElUsuarioFueCargado() {
+
+		// Arrange
+		DashboardCounterStore store = new DashboardCounterStore(300, 100);
+		LocalDateTime ahora = LocalDateTime.now();
+
+		List<TareaResumen> tareas = List.of(
+				new TareaResumen("a", ahora.minusDays(1), (short) 1, "EN PROCESO", "ALTA"),
+				new TareaResumen("b", ahora.plusDays(3), (short) 1, "EN PROCESO", "BAJA"),
+				new TareaResumen("c", null, (short) 1, "EN PROCESO", "BAJA"),
+				new TareaResumen("d", ahora.minusDays(2), (short) 5, "COMPLETADO", "BAJA"));
+
+		store.cargar(1L, store.version(1L), "team.master", 4, 2, ESTATUS, PRIORIDADES, tareas);
+
+		// Act
+		DashboardDto dto = store.leer(1L).orElseThrow();
+
+		// Assert
+		assertEquals("team.master", dto.getUsername());
+		assertEquals(4, dto.getProyectosTotalActivos());
+		assertEquals(2, dto.getProyectosComoOwner());
+		assertEquals(1, dto.getTareasVencidas());
+		assertEquals(2, dto.getTareasPendientes());
+		assertEquals(3, dto.getTareasPorEstatus().get("EN PROCESO"));
+		assertEquals(1, dto.getTareasPorEstatus().get("COMPLETADO"));
+		assertEquals(3, dto.getTareasPorPrioridad().get("BAJA"));
+	}
+
+	@Test
+	void actualizarTarea_debeMoverYQuitarTareas_entreUsuariosCargados() {
+
+		// Arrange
+		DashboardCounterStore store = new DashboardCounterStore(300, 100);
+		LocalDateTime fecha = LocalDateTime.now().plusDays(5);
+
+		store.cargar(1L, store.version(1L), "uno", 0, 0, ESTATUS, PRIORIDADES,
+				List.of(new TareaResumen("a", fecha, (short) 1, "EN PROCESO", "ALTA")));
+		store.cargar(2L, store.version(2L), "dos", 0, 0, ESTATUS, PRIORIDADES, List.of());
+
+		// Act
+		store.actualizarTarea("a", new TareaResumen("a", fecha, (short) 5, "COMPLETADO", "ALTA"), List.of(2L),
+				List.of(1L));
+
+		// Assert
+		DashboardDto uno = store.leer(1L).orElseThrow();
+		DashboardDto dos = store.leer(2L).orElseThrow();
+
+		assertEquals(0, uno.getTareasPorEstatus().get("EN PROCESO"));
+		assertEquals(1, dos.getTareasPorEstatus().get("COMPLETADO"));
+		assertEquals(0, dos.getTareasPendientes());
+
+		// Act
+		store.actualizarTarea("a", null, List.of(), List.of(2L));
+
+		// Assert
+		assertEquals(0, store.leer(2L).orElseThrow().getTareasPorEstatus().get("COMPLETADO"));
+	}
+
+	@Test
+	void cargar_debeDescartarLaCarga_cuandoHuboEscriturasDelUsuarioDuranteLaLectura() {
+
+		// Arrange
+		DashboardCounterStore store = new DashboardCounterStore(300, 100);
+		long version = store.version(1L);
+
+		store.actualizarTarea("a", null, List.of(), List.of(1L));
+
+		// Act
+		DashboardDto dto = store.cargar(1L, version, "uno", 0, 0, ESTATUS, PRIORIDADES, List.of());
+
+		// Assert
+		assertEquals("uno", dto.getUsername());
+		assertTrue(store.leer(1L).isEmpty());
+	}
+
+	@Test
+	void cargar_debeGuardarLaCarga_cuandoLasEscriturasFueronDeOtrosUsuarios() {
+
+		// Arrange
+		DashboardCounterStore store = new DashboardCounterStore(300, 100);
+		long version = store.version(1L);
+
+		store.actualizarTarea("a", null, List.of(2L), List.of(3L));
+
+		// Act
+		store.cargar(1L, version, "uno", 0, 0, ESTATUS, PRIORIDADES, List.of());
+
+		// Assert
+		assertTrue(store.leer(1L).isPresent());
+	}
+
+	@Test
+	void cargar_debeDescartarAlUsuarioMenosUsado_cuandoSeLlegaAlMaximo() {
+
+		// Arrange
+		DashboardCounterStore store = new DashboardCounterStore(300, 1);
+		LocalDateTime fecha = LocalDateTime.now().plusDays(5);
+
+		store.cargar(1L, store.version(1L), "uno", 0, 0, ESTATUS, PRIORIDADES,
+				List.of(new TareaResumen("a", fecha, (short) 1, "EN PROCESO", "ALTA")));
+
+		// Act
+		store.cargar(2L, store.version(2L), "dos", 0, 0, ESTATUS, PRIORIDADES, List.of());
+		store.actualizarTarea("a", new TareaResumen("a", fecha, (short) 1, "EN PROCESO", "ALTA"), List.of(1L),
+				List.of());
+
+		// Assert
+		assertTrue(store.leer(1L).isEmpty());
+		assertTrue(store.leer(2L).isPresent());
+	}
+
+	@Test
+	void cargar_noDebeGuardarEnMemoria_cuandoElTtlEsCero() {
+
+		// Arrange
+		DashboardCounterStore store = new DashboardCounterStore(0, 100);
+
+		// Act
+		store.cargar(1L, store.version(1L), "uno", 0, 0, ESTATUS, PRIORIDADES, List.of());
+
+		// Assert
+		assertTrue(store.leer(1L).isEmpty());
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.springboot.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Test;
+
+class JwtDenyListTest {
+
+	@Test
+	void estaRevocado_debeRetornarTrue_cuandoTokenFueEmitidoAntesDeLaRevocacion() {
+
+		// Arrange
+		JwtDenyList denyList = new JwtDenyList(60);
+		Instant emitido = Instant.now().minusSeconds(30);
+
+		// Act
+		denyList.revocar(1L);
+
+		// Assert
+		assertTrue(denyList.estaRevocado(1L, emitido));
+		assertFalse(denyList.estaRevocado(2L, emitido));
+	}
+
+	@Test
+	void estaRevocado_debeRetornarFalse_cuandoTokenFueEmitidoDespuesDeLaRevocacion() {
+
+		// Arrange
+		JwtDenyList denyList = new JwtDenyList(60);
+		denyList.revocar(1L);
+
+		// Act & Assert
+		assertFalse(denyList.estaRevocado(1L, Instant.now().plusSeconds(5)));
+	}
+
+	@Test
+	void estaRevocado_debeRetornarFalse_cuandoTokenFueEmitidoEnElMismoSegundoQueLaRevocacion() {
+
+		// Arrange
+		JwtDenyList denyList = new JwtDenyList(60);
+		denyList.revocar(1L);
+
+		// Act
+		Instant emitido = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+		// Assert
+		assertFalse(denyList.estaRevocado(1L, emitido));
+	}
+
+	@Test
+	void estaRevocado_debeRetornarFalse_cuandoLaRevocacionExpiro() {
+
+		// Arrange
+		JwtDenyList denyList = new JwtDenyList(0);
+		denyList.revocar(1L);
+
+		// Act & Assert
+		assertFalse(denyList.estaRevocado(1L, Instant.now().minusSeconds(30)));
+	}
+
+}
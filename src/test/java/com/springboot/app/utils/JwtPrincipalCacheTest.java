@@ -0,0 +1,130 @@
+package com.springboot.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class JwtPrincipalCacheTest {
+
+	private CustomUserDetails principal(String username, Long userId) {
+		return new CustomUserDetails(username, "hash", List.of(new SimpleGrantedAuthority("ROLE_USER")), userId);
+	}
+
+	@Test
+	void obtener_debeRetornarElPrincipalSinPassword_cuandoElTokenEstaEnCache() {
+
+		// Arrange
+		JwtPrincipalCache cache = new JwtPrincipalCache(10, 60, new PermisoInvalidacionLocal());
+		cache.guardar("token", principal("ana", 1L), Instant.now().plusSeconds(60));
+
+		// Act
+		CustomUserDetails result = cache.obtener("token");
+
+		// Assert
+		assertNotNull(result);
+		assertEquals("ana", result.getUsername());
+		assertEquals(1L, result.getUserId());
+		assertEquals("", result.getPassword());
+	}
+
+	@Test
+	void obtener_debeRetornarNull_cuandoElTokenYaExpiro() {
+
+		// Arrange
+		JwtPrincipalCache cache = new JwtPrincipalCache(10, 60, new PermisoInvalidacionLocal());
+		cache.guardar("token", principal("ana", 1L), Instant.now().minusSeconds(1));
+
+		// Act & Assert
+		assertNull(cache.obtener("token"));
+	}
+
+	@Test
+	void obtener_debeRetornarNull_cuandoElTtlEsCero_aunqueElTokenSigaVigente() {
+
+		// Arrange
+		JwtPrincipalCache cache = new JwtPrincipalCache(10, 0, new PermisoInvalidacionLocal());
+		cache.guardar("token", principal("ana", 1L), Instant.now().plusSeconds(3600));
+
+		// Act & Assert
+		assertNull(cache.obtener("token"));
+	}
+
+	@Test
+	void invalidarUsuario_debeQuitarTodosSusTokens_sinTocarLosDeOtrosUsuarios() {
+
+		// Arrange
+		JwtPrincipalCache cache = new JwtPrincipalCache(10, 60, new PermisoInvalidacionLocal());
+		Instant expiracion = Instant.now().plusSeconds(60);
+		cache.guardar("token-1", principal("ana", 1L), expiracion);
+		cache.guardar("token-2", principal("ana", 1L), expiracion);
+		cache.guardar("token-3", principal("luis", 2L), expiracion);
+
+		// Act
+		cache.invalidarUsuario(1L);
+
+		// Assert
+		assertNull(cache.obtener("token-1"));
+		assertNull(cache.obtener("token-2"));
+		assertNotNull(cache.obtener("token-3"));
+	}
+
+	@Test
+	void invalidarUsuario_debeDifundirse_yAplicarseAlRecibirloDeOtraInstancia() {
+
+		// Arrange
+		PermisoInvalidacionLocal bus = new PermisoInvalidacionLocal();
+		List<String> publicados = new ArrayList<>();
+		bus.registrar((userId, projectId) -> publicados.add(userId + ":" + projectId));
+		JwtPrincipalCache cache = new JwtPrincipalCache(10, 60, bus);
+		cache.guardar("token-1", principal("ana", 1L), Instant.now().plusSeconds(60));
+
+		// Act
+		cache.invalidarUsuario(1L);
+
+		// Assert
+		assertEquals(List.of("1:" + PermisoInvalidacionBus.TODOS_LOS_PROYECTOS), publicados);
+		assertNull(cache.obtener("token-1"));
+	}
+
+	@Test
+	void descartar_noDebeTocarLosPrincipals_cuandoLaInvalidacionEsDeUnProyecto() {
+
+		// Arrange
+		PermisoInvalidacionLocal bus = new PermisoInvalidacionLocal();
+		JwtPrincipalCache cache = new JwtPrincipalCache(10, 60, bus);
+		cache.guardar("token-1", principal("ana", 1L), Instant.now().plusSeconds(60));
+
+		// Act
+		bus.publicar(1L, "p-1");
+
+		// Assert
+		assertNotNull(cache.obtener("token-1"));
+	}
+
+	@Test
+	void guardar_debeDescartarElTokenMenosUsado_cuandoElCacheEstaLleno() {
+
+		// Arrange
+		JwtPrincipalCache cache = new JwtPrincipalCache(2, 60, new PermisoInvalidacionLocal());
+		Instant expiracion = Instant.now().plusSeconds(60);
+		cache.guardar("token-1", principal("ana", 1L), expiracion);
+		cache.guardar("token-2", principal("luis", 2L), expiracion);
+		cache.obtener("token-1");
+
+		// Act
+		cache.guardar("token-3", principal("eva", 3L), expiracion);
+
+		// Assert
+		assertNotNull(cache.obtener("token-1"));
+		assertNull(cache.obtener("token-2"));
+		assertNotNull(cache.obtener("token-3"));
+	}
+
+}
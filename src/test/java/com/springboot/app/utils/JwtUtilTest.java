@@ -0,0 +1,65 @@
+package com.springboot.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import io.jsonwebtoken.JwtException;
+
+class JwtUtilTest {
+
+	private final JwtUtil jwtUtil = new JwtUtil("clave_de_prueba_para_tests@1234567890123456");
+
+	@Test
+	void parsearToken_debeRetornarClaims_cuandoTokenEsValido() {
+
+		// Arrange
+		Instant expiracion = jwtUtil.nuevaExpiracion();
+
+		String token = jwtUtil.generarToken("user@mail.com",
+				List.of(new SimpleGrantedAuthority("ROLE_BASICO"), new SimpleGrantedAuthority("ROLE_ADMIN")),
+				10L, expiracion);
+
+		// Act
+		JwtClaims claims = jwtUtil.parsearToken(token);
+
+		// Assert
+		assertEquals("user@mail.com", claims.getSubject());
+		assertEquals(10L, claims.getUserId());
+		assertEquals(List.of("ROLE_BASICO", "ROLE_ADMIN"), claims.getRoles());
+		assertEquals(expiracion, claims.getExpiracion());
+		assertEquals(expiracion, jwtUtil.getExpirationToken(token));
+	}
+
+	@Test
+	void parsearToken_debeLanzarJwtException_cuandoFirmaEsInvalida() {
+
+		// Arrange
+		JwtUtil otraClave = new JwtUtil("otra_clave_distinta_para_tests@1234567890123456");
+
+		String token = otraClave.generarToken("user@mail.com", List.of());
+
+		// Act & Assert
+		assertThrows(JwtException.class, () -> jwtUtil.parsearToken(token));
+		assertFalse(jwtUtil.validarToken(token, "user@mail.com"));
+	}
+
+	@Test
+	void validarToken_debeValidarSubject() {
+
+		// Arrange
+		String token = jwtUtil.generarToken("user@mail.com", List.of());
+
+		// Act & Assert
+		assertTrue(jwtUtil.validarToken(token, "user@mail.com"));
+		assertFalse(jwtUtil.validarToken(token, "otro@mail.com"));
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.springboot.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.springboot.app.utils.PermisoProyectoCache.PermisoProyecto;
+
+class PermisoProyectoCacheTest {
+
+	private static final PermisoProyecto EDITOR = new PermisoProyecto(true, true, Set.of(ProjectRole.EDITOR));
+
+	@AfterEach
+	void limpiarRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void obtener_debeConsultarUnaSolaVez_cuandoSeRepiteDentroDelRequest() {
+
+		// Arrange
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		PermisoProyectoCache cache = new PermisoProyectoCache(0, 100, new PermisoInvalidacionLocal());
+		AtomicInteger consultas = new AtomicInteger();
+
+		// Act
+		PermisoProyecto primero = cache.obtener(1L, "p", () -> { consultas.incrementAndGet(); return EDITOR; });
+		PermisoProyecto segundo = cache.obtener(1L, "p", () -> { consultas.incrementAndGet(); return EDITOR; });
+
+		// Assert
+		assertEquals(1, consultas.get());
+		assertTrue(primero.puedeEditarTareas());
+		assertFalse(segundo.esOwner());
+	}
+
+	@Test
+	void obtener_debeUsarCacheCompartido_cuandoNoHayRequest() {
+
+		// Arrange
+		PermisoProyectoCache cache = new PermisoProyectoCache(30, 100, new PermisoInvalidacionLocal());
+		AtomicInteger consultas = new AtomicInteger();
+
+		// Act
+		cache.obtener(1L, "p", () -> { consultas.incrementAndGet(); return EDITOR; });
+		cache.obtener(1L, "p", () -> { consultas.incrementAndGet(); return EDITOR; });
+
+		// Assert
+		assertEquals(1, consultas.get());
+	}
+
+	@Test
+	void invalidar_debeRecargarPermiso_cuandoCambiaLaMembresia() {
+
+		// Arrange
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		PermisoProyectoCache cache = new PermisoProyectoCache(30, 100, new PermisoInvalidacionLocal());
+		cache.obtener(1L, "p", () -> EDITOR);
+
+		// Act
+		cache.invalidar(1L, "p");
+		PermisoProyecto permiso = cache.obtener(1L, "p", () -> PermisoProyecto.SIN_MEMBRESIA);
+
+		// Assert
+		assertFalse(permiso.miembro());
+		assertFalse(permiso.puedeEditarTareas());
+	}
+
+	@Test
+	void publicar_debeDescartarPermisoCompartido_cuandoLlegaInvalidacionDeOtroNodo() {
+
+		// Arrange
+		PermisoInvalidacionLocal bus = new PermisoInvalidacionLocal();
+		PermisoProyectoCache cache = new PermisoProyectoCache(30, 100, bus);
+		cache.obtener(1L, "p", () -> EDITOR);
+
+		// Act
+		bus.publicar(1L, "p");
+		PermisoProyecto permiso = cache.obtener(1L, "p", () -> PermisoProyecto.SIN_MEMBRESIA);
+
+		// Assert
+		assertFalse(permiso.miembro());
+	}
+
+}
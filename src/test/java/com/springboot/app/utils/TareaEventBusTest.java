@@ -0,0 +1,62 @@
+package com.springboot.app.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.Test;
+
+class TareaEventBusTest {
+
+	@Test
+	void suscribir_debeLanzarIllegalStateException_cuandoSeAlcanzaElMaximo() {
+
+		// Arrange
+		TareaEventBus bus = new TareaEventBus(mock(ExecutorService.class), 10, 1, 60000);
+		bus.suscribir("tarea-1");
+
+		// Act & Assert
+		assertThrows(IllegalStateException.class, () -> bus.suscribir("tarea-2"));
+		assertEquals(1, bus.suscriptoresActivos());
+	}
+
+	@Test
+	void publicar_debeDesconectarSuscriptor_cuandoSuBufferEstaLleno() {
+
+		// Arrange
+		// El executor simulado nunca vacia el buffer, como un cliente que no lee
+		ExecutorService executor = mock(ExecutorService.class);
+		TareaEventBus bus = new TareaEventBus(executor, 1, 10, 60000);
+		bus.suscribir("tarea-1");
+
+		// Act
+		bus.publicar("tarea-1", TareaEventBus.EVENTO_COMENTARIO, "primero");
+		bus.publicar("tarea-1", TareaEventBus.EVENTO_COMENTARIO, "segundo");
+
+		// Assert
+		assertEquals(0, bus.suscriptoresActivos());
+		verify(executor, times(1)).execute(any(Runnable.class));
+	}
+
+	@Test
+	void publicar_noDebeEncolarEnvios_cuandoLaTareaNoTieneSuscriptores() {
+
+		// Arrange
+		ExecutorService executor = mock(ExecutorService.class);
+		TareaEventBus bus = new TareaEventBus(executor, 10, 10, 60000);
+		bus.suscribir("tarea-1");
+
+		// Act
+		bus.publicar("tarea-2", TareaEventBus.EVENTO_TAREA, "cambio");
+
+		// Assert
+		assertEquals(1, bus.suscriptoresActivos());
+		verify(executor, times(0)).execute(any(Runnable.class));
+	}
+
+}
@@ -0,0 +1,6 @@
+INSERT INTO prioridades (id, tipo_prioridad) VALUES(1, 'BAJA');
+INSERT INTO prioridades (id, tipo_prioridad) VALUES(2, 'MEDIA');
+INSERT INTO tarea_status (id, status) VALUES(1, 'EN PROCESO');
+INSERT INTO tarea_status (id, status) VALUES(4, 'PENDIENTE');
+INSERT INTO roles (id, status, nombre) VALUES(1, 1, 'ADMIN');
+INSERT INTO roles (id, status, nombre) VALUES(2, 1, 'BASICO');